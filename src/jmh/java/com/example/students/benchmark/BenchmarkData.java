@@ -0,0 +1,103 @@
+package com.example.students.benchmark;
+
+import com.example.students.StudentApplication;
+import com.example.students.model.Student;
+import com.example.students.repository.OffHeapStudentRepository;
+import com.example.students.service.StudentService;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Demarrage de l'application sans serveur web et remplissage de la table pour les benchmarks
+final class BenchmarkData {
+
+    static final String[] MAJORS = {"Informatique", "Mathematiques", "Physique", "Economie", "Chimie", "Biologie"};
+    private static final String[] FIRST_NAMES = {"Ahmed", "Fatima", "Mohamed", "Sarra", "Yassine", "Amira", "Karim", "Ines"};
+    private static final String[] LAST_NAMES = {"Ben Ali", "Zahra", "Trabelsi", "Mansouri", "Khelifi", "Haddad", "Gharbi", "Jaziri"};
+    private static final int INSERT_BATCH = 5_000;
+
+    private BenchmarkData() {}
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return start(0, properties);
+    }
+
+    // dbLatencyMs : latence base artificielle ajoutee a chaque acquisition de connexion (voir slowDatabase)
+    static ConfigurableApplicationContext start(long dbLatencyMs, String... properties) {
+        List<String> all = new ArrayList<>(List.of(
+            "spring.datasource.url=jdbc:h2:mem:bench" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+            // Un journal d'audit par contexte : plusieurs benchmarks peuvent tourner dans la meme JVM
+            "students.audit.dir=" + System.getProperty("java.io.tmpdir") + "/students-audit-" + System.nanoTime(),
+            "logging.level.root=WARN",
+            "logging.level.com.example=WARN",
+            "logging.level.org.springframework.web=WARN"));
+        all.addAll(List.of(properties));
+        // Passees en ligne de commande pour primer sur application.properties
+        return new SpringApplicationBuilder(StudentApplication.class)
+            .web(WebApplicationType.NONE)
+            .initializers(context -> context.getBeanFactory().addBeanPostProcessor(slowDatabase(dbLatencyMs)))
+            .run(all.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    static Student student(long n) {
+        return new Student(null,
+            FIRST_NAMES[(int) (n % FIRST_NAMES.length)] + n,
+            LAST_NAMES[(int) ((n / FIRST_NAMES.length) % LAST_NAMES.length)],
+            "student" + n + "@email.com",
+            18 + (int) (n % 30),
+            MAJORS[(int) (n % MAJORS.length)]);
+    }
+
+    // Remplace le jeu de donnees par des lignes d'ids 1..rows et reconstruit l'index de recherche
+    static void seed(ConfigurableApplicationContext context, int rows) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("DELETE FROM students");
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (long n = 1; n <= rows; n++) {
+            Student s = student(n);
+            batch.add(new Object[] {n, s.getFirstName(), s.getLastName(), s.getEmail(), s.getAge(), s.getMajor()});
+            if (batch.size() == INSERT_BATCH || n == rows) {
+                jdbc.batchUpdate("INSERT INTO students (id, first_name, last_name, email, age, major) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        jdbc.execute("ALTER SEQUENCE students_seq RESTART WITH " + (rows + 1));
+        // Profil "offheap" : le stockage est charge au demarrage, il ne voit pas les insertions JDBC
+        context.getBeanProvider(OffHeapStudentRepository.class).ifAvailable(OffHeapStudentRepository::reload);
+        context.getBean(StudentService.class).rebuildSearchIndex();
+    }
+
+    // Latence base artificielle : la connexion est tenue pendant l'attente, comme lors d'un aller-retour reseau
+    static BeanPostProcessor slowDatabase(long latencyMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || latencyMs <= 0) {
+                    return bean;
+                }
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        Connection connection = super.getConnection();
+                        try {
+                            Thread.sleep(latencyMs);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return connection;
+                    }
+                };
+            }
+        };
+    }
+}
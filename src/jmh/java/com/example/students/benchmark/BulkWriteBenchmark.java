@@ -0,0 +1,72 @@
+package com.example.students.benchmark;
+
+import com.example.students.dto.BulkResult;
+import com.example.students.model.Student;
+import com.example.students.service.StudentBulkService;
+import com.example.students.service.StudentService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Import de 1000 etudiants : boucle d'appels unitaires contre /bulk (batch JDBC)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkWriteBenchmark {
+
+    private static final int BATCH = 1000;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private StudentBulkService studentBulkService;
+    private JdbcTemplate jdbc;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start("spring.cache.type=none", "students.search.index.enabled=false");
+        studentService = context.getBean(StudentService.class);
+        studentBulkService = context.getBean(StudentBulkService.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbc.update("DELETE FROM students");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private List<Student> nextBatch() {
+        List<Student> students = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            students.add(BenchmarkData.student(next++));
+        }
+        return students;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void createOneByOne(Blackhole blackhole) {
+        for (Student student : nextBatch()) {
+            blackhole.consume(studentService.createStudent(student));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BulkResult createBulk() {
+        return studentBulkService.createStudents(nextBatch());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.students.benchmark;
+
+import com.example.students.StudentApplication;
+import com.example.students.model.Student;
+import com.example.students.service.StudentChangeStream;
+import com.example.students.service.StudentService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Test de charge du flux SSE : ouvre N abonnes inactifs sur /api/students/changes, mesure le tas
+ * et le nombre de threads avant / apres, puis publie des modifications et mesure la latence de
+ * diffusion (publication -> reception par chaque abonne). Client et serveur partagent la JVM :
+ * la memoire par abonne mesuree inclut donc aussi la connexion cote client (borne haute).
+ *
+ * Arguments : abonnes evenements
+ */
+public final class ChangeStreamLoadTest {
+
+    private ChangeStreamLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        int subscribers = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int events = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StudentApplication.class)
+                .run("--server.port=0", "--logging.level.root=WARN", "--logging.level.com.example=WARN",
+                    "--logging.level.org.springframework.web=WARN", "--students.rate-limit.enabled=false")) {
+            BenchmarkData.seed(context, 1_000);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            StudentChangeStream stream = context.getBean(StudentChangeStream.class);
+            StudentService service = context.getBean(StudentService.class);
+
+            long heapBefore = usedHeap();
+            int threadsBefore = Thread.activeCount();
+
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            Map<Long, Long> publishedAt = new ConcurrentHashMap<>();
+            Histogram latencies = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(60), 3);
+            LongAdder received = new LongAdder();
+            CountDownLatch connected = new CountDownLatch(subscribers);
+            for (int i = 0; i < subscribers; i++) {
+                client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/students/changes"))
+                        .header("Accept", "text/event-stream").build(),
+                    HttpResponse.BodyHandlers.fromLineSubscriber(new Flow.Subscriber<String>() {
+                        public void onSubscribe(Flow.Subscription subscription) {
+                            subscription.request(Long.MAX_VALUE);
+                            connected.countDown();
+                        }
+                        public void onNext(String line) {
+                            if (line.startsWith("id:")) {
+                                Long sent = publishedAt.get(Long.parseLong(line.substring(line.lastIndexOf('-') + 1).trim()));
+                                if (sent != null) {
+                                    latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent));
+                                }
+                                received.increment();
+                            }
+                        }
+                        public void onError(Throwable throwable) {}
+                        public void onComplete() {}
+                    }));
+            }
+            if (!connected.await(120, TimeUnit.SECONDS)) {
+                System.out.printf("seulement %d abonnes connectes%n", subscribers - connected.getCount());
+            }
+            while (stream.subscriberCount() < subscribers) {
+                Thread.sleep(50);
+            }
+            long heapAfter = usedHeap();
+            int threadsAfter = Thread.activeCount();
+
+            long start = System.nanoTime();
+            for (int i = 1; i <= events; i++) {
+                Student student = BenchmarkData.student(i);
+                long nextSequence = stream.published() + 1;
+                publishedAt.put(nextSequence, System.nanoTime());
+                service.updateStudent((long) i, student);
+            }
+            long expected = (long) subscribers * events;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+            while (received.sum() < expected && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("subscribers=%d events=%d java=%s%n", subscribers, events, Runtime.version().feature());
+            System.out.printf("idle: heap +%.1f MB (%.1f KB/abonne, client inclus), threads %d -> %d%n",
+                (heapAfter - heapBefore) / 1e6, (heapAfter - heapBefore) / 1024.0 / subscribers,
+                threadsBefore, threadsAfter);
+            System.out.printf("delivered=%d/%d in %.1fs (%.0f events/s)%n",
+                received.sum(), expected, seconds, received.sum() / seconds);
+            System.out.printf("fan-out latency ms: p50=%.1f p99=%.1f max=%.1f%n",
+                latencies.getValueAtPercentile(50) / 1000.0, latencies.getValueAtPercentile(99) / 1000.0,
+                latencies.getMaxValue() / 1000.0);
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
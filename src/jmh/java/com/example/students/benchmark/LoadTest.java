@@ -0,0 +1,102 @@
+package com.example.students.benchmark;
+
+import com.example.students.StudentApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Test de charge HTTP en boucle fermee : demarre l'application (pool de threads Tomcat ou profil
+ * "virtual") sur un port libre, maintient N requetes en vol pendant la duree donnee et affiche
+ * debit et latences. Une latence base artificielle est ajoutee a chaque acquisition de connexion
+ * pour reproduire un pic de latence cote base (la connexion reste tenue pendant l'attente).
+ * Tous les clients partagent une adresse IP : la limitation de debit par client est desactivee,
+ * le delestage adaptatif (503) est active par le dernier argument. Une premiere passe de meme duree,
+ * non mesuree, laisse le JIT compiler le chemin de requete : sur une machine a peu de coeurs, la
+ * compilation concurrente penalise surtout le mode "virtual" (un seul thread porteur par coeur).
+ *
+ * Arguments : platform|virtual clients secondes latenceBaseMs [delestage true|false]
+ */
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "platform";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        long dbLatencyMs = args.length > 3 ? Long.parseLong(args[3]) : 20;
+        boolean shedding = args.length > 4 && Boolean.parseBoolean(args[4]);
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(StudentApplication.class)
+            .initializers(context -> context.getBeanFactory().addBeanPostProcessor(BenchmarkData.slowDatabase(dbLatencyMs)));
+        if ("virtual".equals(mode)) {
+            builder.profiles("virtual");
+        }
+        try (ConfigurableApplicationContext context = builder.run("--server.port=0", "--logging.level.root=WARN",
+                "--logging.level.com.example=WARN", "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF",
+                "--students.rate-limit.enabled=false", "--students.concurrency-limit.enabled=" + shedding)) {
+            BenchmarkData.seed(context, 10_000);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            run("http://localhost:" + port, clients, Duration.ofSeconds(seconds));
+            Result result = run("http://localhost:" + port, clients, Duration.ofSeconds(seconds));
+            System.out.printf("mode=%s java=%s clients=%d dbLatency=%dms shedding=%s%n",
+                mode, Runtime.version().feature(), clients, dbLatencyMs, shedding);
+            result.print();
+        }
+    }
+
+    static Result run(String baseUrl, int clients, Duration duration) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        List<String> paths = List.of("/api/students/%d", "/api/students/search?query=ahmed%d&limit=20");
+        Histogram latencies = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(60), 3);
+        LongAdder errors = new LongAdder();
+        Semaphore inFlight = new Semaphore(clients);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        while (System.nanoTime() < end) {
+            inFlight.acquire();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String path = paths.get(random.nextInt(paths.size())).formatted(random.nextInt(1, 10_001));
+            long sent = System.nanoTime();
+            client.sendAsync(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    if (failure != null || response.statusCode() >= 400) {
+                        errors.increment();
+                    } else {
+                        latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent));
+                    }
+                    inFlight.release();
+                });
+        }
+        inFlight.acquire(clients);
+        return new Result(latencies, errors.sum(), System.nanoTime() - start);
+    }
+
+    record Result(Histogram latencies, long errors, long elapsedNanos) {
+        void print() {
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("requests=%d errors=%d throughput=%.0f req/s%n",
+                latencies.getTotalCount(), errors, latencies.getTotalCount() / seconds);
+            System.out.printf("latency ms: p50=%.1f p95=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                latencies.getValueAtPercentile(50) / 1000.0, latencies.getValueAtPercentile(95) / 1000.0,
+                latencies.getValueAtPercentile(99) / 1000.0, latencies.getValueAtPercentile(99.9) / 1000.0,
+                latencies.getMaxValue() / 1000.0);
+        }
+    }
+}
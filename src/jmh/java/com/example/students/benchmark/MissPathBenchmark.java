@@ -0,0 +1,85 @@
+package com.example.students.benchmark;
+
+import com.example.students.controller.GlobalExceptionHandler;
+import com.example.students.exception.StudentNotFoundException;
+import com.example.students.service.StudentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Chemin d'un id inexistant (id perime, balayage d'ids) sous charge concurrente :
+//   legacy* : RuntimeException avec pile d'appels et message concatene, reponse 400 via HashMap
+//   typed*  : StudentNotFoundException sans pile, reponse problem+json depuis le modele pre-encode
+// Les variantes *Lookup passent par StudentService.getStudentById (cache + requete en base),
+// les autres ne mesurent que l'exception et sa traduction en reponse.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class MissPathBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkData.start();
+        BenchmarkData.seed(context, 10_000);
+        studentService = context.getBean(StudentService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private static long missingId() {
+        return ThreadLocalRandom.current().nextLong(1_000_000, 2_000_000);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> legacy() {
+        long id = missingId();
+        try {
+            throw new RuntimeException("Etudiant non trouve avec l'id: " + id);
+        } catch (RuntimeException e) {
+            return handler.handleRuntimeException(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> typed() {
+        long id = missingId();
+        try {
+            throw new StudentNotFoundException(id);
+        } catch (StudentNotFoundException e) {
+            return handler.handleNotFound(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> legacyLookup() {
+        try {
+            return ResponseEntity.ok(studentService.getStudentById(missingId()));
+        } catch (StudentNotFoundException e) {
+            // Ancien chemin : exception avec pile (capturee ici, un peu moins profonde que dans le service)
+            return handler.handleRuntimeException(new RuntimeException(e.getMessage()));
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> typedLookup() {
+        try {
+            return ResponseEntity.ok(studentService.getStudentById(missingId()));
+        } catch (StudentNotFoundException e) {
+            return handler.handleNotFound(e);
+        }
+    }
+}
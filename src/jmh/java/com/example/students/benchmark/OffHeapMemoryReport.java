@@ -0,0 +1,74 @@
+package com.example.students.benchmark;
+
+import com.example.students.model.Student;
+import com.example.students.repository.OffHeapStudentStore;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memoire occupee par N lignes : stockage hors tas (colonnes + arene de texte, index primitifs sur
+ * le tas) contre les memes lignes en objets Student sur le tas (forme des entites JPA et des copies
+ * de l'index de recherche). Le tas est mesure apres GC, la memoire directe via le pool "direct".
+ *
+ * Arguments : lignes (1000000 par defaut)
+ */
+public final class OffHeapMemoryReport {
+
+    private OffHeapMemoryReport() {}
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long heapBefore = usedHeap();
+        long directBefore = directMemory();
+        OffHeapStudentStore store = new OffHeapStudentStore(rows);
+        for (long n = 1; n <= rows; n++) {
+            store.upsert(student(n), 0, false);
+        }
+        long storeHeap = usedHeap() - heapBefore;
+        long storeDirect = directMemory() - directBefore;
+        System.out.printf("rows=%d java=%s%n", rows, Runtime.version().feature());
+        System.out.printf("offheap: used=%.1f MB reserved=%.1f MB direct=%.1f MB heapIndexes=%.1f MB heapDelta=%.1f MB"
+                + " -> %.0f bytes/row%n", mb(store.offHeapUsed()), mb(store.offHeapCapacity()), mb(storeDirect),
+            mb(store.heapIndexBytes()), mb(storeHeap), (double) (store.offHeapUsed() + storeHeap) / rows);
+        store = null;
+
+        heapBefore = usedHeap();
+        List<Student> students = new ArrayList<>(rows);
+        for (long n = 1; n <= rows; n++) {
+            Student student = student(n);
+            student.setVersion(0L);
+            students.add(student);
+        }
+        long objectsHeap = usedHeap() - heapBefore;
+        System.out.printf("objects: heapDelta=%.1f MB -> %.0f bytes/row (%d kept)%n",
+            mb(objectsHeap), (double) objectsHeap / rows, students.size());
+    }
+
+    private static Student student(long n) {
+        Student student = BenchmarkData.student(n);
+        student.setId(n);
+        return student;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long directMemory() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+            .filter(pool -> "direct".equals(pool.getName()))
+            .mapToLong(BufferPoolMXBean::getMemoryUsed)
+            .sum();
+    }
+
+    private static double mb(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+}
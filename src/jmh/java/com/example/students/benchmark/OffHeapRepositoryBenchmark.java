@@ -0,0 +1,70 @@
+package com.example.students.benchmark;
+
+import com.example.students.model.Student;
+import com.example.students.repository.StudentRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Lectures directes sur le repository (sans cache applicatif) : JPA (requete + entite hydratee dans
+// un contexte de persistance) contre stockage hors tas du profil "offheap".
+// Allocation par operation : -prof gc (gc.alloc.rate.norm)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OffHeapRepositoryBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Param({"jpa", "offheap"})
+    public String storage;
+
+    private ConfigurableApplicationContext context;
+    private StudentRepository repository;
+
+    @Setup
+    public void setUp() {
+        context = "offheap".equals(storage)
+            ? BenchmarkData.start("spring.profiles.active=offheap")
+            : BenchmarkData.start();
+        BenchmarkData.seed(context, ROWS);
+        repository = context.getBean(StudentRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, ROWS + 1);
+    }
+
+    @Benchmark
+    public Optional<Student> findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    public boolean existsById() {
+        return repository.existsById(randomId());
+    }
+
+    @Benchmark
+    public boolean existsByEmail() {
+        return repository.existsByEmail("student" + randomId() + "@email.com");
+    }
+
+    @Benchmark
+    public List<Student> page() {
+        return repository.findByIdGreaterThanOrderByIdAsc(randomId(), Limit.of(50));
+    }
+}
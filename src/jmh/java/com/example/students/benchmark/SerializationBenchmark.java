@@ -0,0 +1,90 @@
+package com.example.students.benchmark;
+
+import com.example.students.config.StudentJsonSerializer;
+import com.example.students.model.Student;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Serialisation d'une liste d'etudiants avec un ObjectMapper configure comme celui de Spring Boot :
+//   reflection : serialisation Jackson par defaut du Student
+//   json, cbor, smile : StudentJsonSerializer, en JSON ou dans un encodage binaire
+// Les tailles (brute et gzip) sont affichees au demarrage de chaque combinaison de parametres.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    @Param({"reflection", "json", "cbor", "smile"})
+    private String encoding;
+
+    private ObjectMapper objectMapper;
+    private List<Student> students;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (!encoding.equals("reflection")) {
+            builder.serializerByType(Student.class, new StudentJsonSerializer());
+        }
+        if (encoding.equals("cbor")) {
+            builder.factory(new CBORFactory());
+        } else if (encoding.equals("smile")) {
+            builder.factory(new SmileFactory());
+        }
+        objectMapper = builder.build();
+        students = new ArrayList<>(size);
+        for (long n = 1; n <= size; n++) {
+            Student student = BenchmarkData.student(n);
+            student.setId(n);
+            students.add(student);
+        }
+        payload = objectMapper.writeValueAsBytes(students);
+        System.out.printf("%n%s size=%d : %d octets, %d octets gzip%n", encoding, size, payload.length, gzip(payload));
+    }
+
+    private static int gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(bytes);
+        }
+        return compressed.size();
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(students);
+    }
+
+    // Cout complet d'une reponse compressee (server.compression) : serialisation + gzip
+    @Benchmark
+    public int serializeListGzip() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(payload.length / 8);
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            objectMapper.writeValue(output, students);
+        }
+        return compressed.size();
+    }
+
+    @Benchmark
+    public Student[] deserializeList() throws IOException {
+        return objectMapper.readValue(payload, Student[].class);
+    }
+}
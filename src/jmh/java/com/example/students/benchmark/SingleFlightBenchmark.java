@@ -0,0 +1,100 @@
+package com.example.students.benchmark;
+
+import com.example.students.repository.StudentRepository;
+import com.example.students.service.StudentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lectures par id sous forte contention (64 threads), ids tires selon une loi de Zipf (exposant s)
+// sur 10 000 etudiants, cache desactive pour que chaque appel non regroupe aille en base :
+//   direct    : StudentRepository.findById, une requete par appel
+//   collapsed : StudentService.getStudentById, appels concurrents du meme id regroupes
+// A la fin de chaque iteration : requetes SQL par appel (statistiques Hibernate).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 4, time = 2)
+@Threads(64)
+@Fork(1)
+public class SingleFlightBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"0.8", "1.2"})
+    public double zipfExponent;
+
+    // Latence base artificielle par acquisition de connexion (aller-retour reseau)
+    @Param({"0", "1"})
+    public long dbLatencyMs;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private StudentRepository studentRepository;
+    private Statistics statistics;
+    private double[] cumulative;
+    private final LongAdder calls = new LongAdder();
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkData.start(dbLatencyMs, "spring.cache.type=none",
+            "spring.datasource.hikari.maximum-pool-size=16");
+        BenchmarkData.seed(context, ROWS);
+        studentService = context.getBean(StudentService.class);
+        studentRepository = context.getBean(StudentRepository.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        cumulative = new double[ROWS];
+        double sum = 0;
+        for (int rank = 1; rank <= ROWS; rank++) {
+            sum += 1 / Math.pow(rank, zipfExponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < ROWS; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        statistics.clear();
+        calls.reset();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printQueriesPerCall() {
+        long total = calls.sum();
+        System.out.printf("%n  calls=%d queries=%d queries/call=%.3f%n", total,
+            statistics.getPrepareStatementCount(), total == 0 ? 0.0 : (double) statistics.getPrepareStatementCount() / total);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // Rang 1 = id le plus demande
+    private long zipfId() {
+        int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, ROWS - 1) + 1;
+    }
+
+    @Benchmark
+    public Object direct() {
+        calls.increment();
+        return studentRepository.findById(zipfId()).orElseThrow();
+    }
+
+    @Benchmark
+    public Object collapsed() {
+        calls.increment();
+        return studentService.getStudentById(zipfId());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.students.benchmark;
+
+import com.example.students.StudentApplication;
+import com.example.students.config.SnapshotEndpoint;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Temps de demarrage avec N lignes, chaque scenario dans une JVM neuve (temps mesure depuis le
+ * lancement de la JVM jusqu'au retour de SpringApplication.run, evenements ApplicationReady compris :
+ * index de recherche et statistiques construits) :
+ *   memory-replay : base en memoire, jeu de donnees reinsere a chaque demarrage
+ *   file          : profil "persistent", base deja presente sur disque
+ *   restore       : profil "persistent", repertoire vide, base restauree depuis l'instantane
+ *
+ * Arguments : lignes [index:true|false]
+ */
+public final class StartupBenchmark {
+
+    private StartupBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("child")) {
+            child(args[1], Integer.parseInt(args[2]), args[3], args[4]);
+            return;
+        }
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String index = args.length > 1 ? args[1] : "true";
+        Path work = Files.createTempDirectory("students-startup");
+        try {
+            Path prepared = work.resolve("prepared");
+            System.out.println(run("prepare", rows, prepared, index));
+            System.out.printf("snapshot=%d Ko database=%d Ko%n",
+                Files.size(prepared.resolve("snapshot.zip")) / 1024,
+                Files.size(prepared.resolve("studentsdb.mv.db")) / 1024);
+            System.out.println(run("memory-replay", rows, work.resolve("unused"), index));
+            System.out.println(run("file", rows, prepared, index));
+            Path restored = work.resolve("restored");
+            Files.createDirectories(restored);
+            Files.copy(prepared.resolve("snapshot.zip"), restored.resolve("snapshot.zip"));
+            System.out.println(run("restore", rows, restored, index));
+        } finally {
+            try (Stream<Path> files = Files.walk(work)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static String run(String scenario, int rows, Path directory, String index) throws Exception {
+        Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), StartupBenchmark.class.getName(),
+                "child", scenario, String.valueOf(rows), directory.toString(), index)
+            .redirectErrorStream(true)
+            .start();
+        String result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.startsWith("scenario=")) {
+                    result = line;
+                }
+            }
+        }
+        if (process.waitFor() != 0 || result == null) {
+            throw new IllegalStateException("Echec du scenario " + scenario);
+        }
+        return result;
+    }
+
+    private static void child(String scenario, int rows, String directory, String index) {
+        long jvmStart = java.lang.management.ManagementFactory.getRuntimeMXBean().getStartTime();
+        List<String> properties = new ArrayList<>(List.of(
+            "students.search.index.enabled=" + index,
+            "logging.level.root=WARN",
+            "logging.level.com.example=WARN",
+            "logging.level.org.springframework.web=WARN"));
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(StudentApplication.class)
+            .web(WebApplicationType.NONE);
+        if (scenario.equals("memory-replay")) {
+            properties.add("spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1");
+        } else {
+            builder.profiles("persistent");
+            properties.add("students.persistence.dir=" + directory);
+            properties.add("students.persistence.restore=" + (scenario.equals("prepare") ? "never" : "if-missing"));
+        }
+        try (ConfigurableApplicationContext context = builder.run(
+                properties.stream().map(property -> "--" + property).toArray(String[]::new))) {
+            long snapshotMillis = 0;
+            if (scenario.equals("prepare") || scenario.equals("memory-replay")) {
+                BenchmarkData.seed(context, rows);
+            }
+            if (scenario.equals("prepare")) {
+                snapshotMillis = (Long) context.getBean(SnapshotEndpoint.class).create().get("millis");
+            }
+            long readyMillis = System.currentTimeMillis() - jvmStart;
+            Long count = context.getBean(JdbcTemplate.class).queryForObject("SELECT COUNT(*) FROM students", Long.class);
+            Runtime runtime = Runtime.getRuntime();
+            System.out.printf("scenario=%s rows=%d index=%s ready=%d ms snapshot=%d ms heap=%d Mo%n",
+                scenario, count, index, readyMillis, snapshotMillis,
+                (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.students.benchmark;
+
+import com.example.students.model.Student;
+import com.example.students.repository.StudentRepository;
+import com.example.students.service.StudentService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// CRUD et recherche de StudentService contre H2, cache desactive pour mesurer l'acces base
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class StudentServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    // Termes de recherche : prenom, nom partiel, domaine email, filiere
+    private static final String[] QUERIES = {"ahmed12", "trabel", "student99", "physique"};
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private StudentRepository studentRepository;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start("spring.cache.type=none");
+        BenchmarkData.seed(context, rows);
+        studentService = context.getBean(StudentService.class);
+        studentRepository = context.getBean(StudentRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, rows + 1);
+    }
+
+    private String randomQuery() {
+        return QUERIES[ThreadLocalRandom.current().nextInt(QUERIES.length)];
+    }
+
+    @Benchmark
+    public Student getStudentById() {
+        return studentService.getStudentById(randomId());
+    }
+
+    @Benchmark
+    public List<Student> getStudentsPage() {
+        return studentService.getStudentsPage(randomId(), 100);
+    }
+
+    @Benchmark
+    public Student updateStudent() {
+        long id = randomId();
+        Student details = BenchmarkData.student(id);
+        details.setAge(18 + (int) (sequence.incrementAndGet() % 30));
+        return studentService.updateStudent(id, details);
+    }
+
+    // Creation puis suppression pour garder la taille de la table constante
+    @Benchmark
+    public void createAndDeleteStudent(Blackhole blackhole) {
+        Student created = studentService.createStudent(BenchmarkData.student(rows + sequence.incrementAndGet()));
+        blackhole.consume(created);
+        studentService.deleteStudent(created.getId());
+    }
+
+    @Benchmark
+    public List<Student> searchIndexed() {
+        return studentService.searchStudents(randomQuery(), 100);
+    }
+
+    // Reference : l'ancienne requete LOWER(...) LIKE '%q%' (parcours complet de la table)
+    @Benchmark
+    public List<Student> searchLike() {
+        String query = randomQuery();
+        return studentRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(query, query);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.students.benchmark;
+
+import com.example.students.model.Student;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Cout des contraintes Bean Validation de Student (cas valide et cas avec 5 violations)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private Validator validator;
+    private Student valid;
+    private Student invalid;
+
+    @Setup
+    public void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        valid = new Student(null, "Ahmed", "Ben Ali", "ahmed@email.com", 21, "Informatique");
+        invalid = new Student(null, "", "", "email-invalide", -5, "");
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Student>> validateValid() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Student>> validateInvalid() {
+        return validator.validate(invalid);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.students.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Limite de requetes simultanees ajustee en AIMD sur la latence lissee (moyenne mobile
+// exponentielle, poids 1/8) : au-dela de la cible, la limite baisse de 10 % (au plus une fois
+// par duree cible) ; en dessous, elle monte de 1 tant qu'elle est atteinte. Compteurs atomiques
+// uniquement, aucun verrou sur le chemin des requetes.
+final class AdaptiveConcurrencyLimiter {
+
+    private static final double DECREASE_FACTOR = 0.9;
+
+    private final long targetNanos;
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong smoothedLatency = new AtomicLong();
+    private final AtomicLong lastDecrease;
+
+    AdaptiveConcurrencyLimiter(long targetNanos, int initialLimit, int minLimit, int maxLimit) {
+        this.targetNanos = targetNanos;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+        this.lastDecrease = new AtomicLong(System.nanoTime() - targetNanos);
+    }
+
+    int limit() { return limit.get(); }
+    int inFlight() { return inFlight.get(); }
+    long smoothedLatencyNanos() { return smoothedLatency.get(); }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Requete liberee sans echantillon de latence (traitements longs par nature : import, lots)
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    void release(long latencyNanos, long now) {
+        int saturation = inFlight.getAndDecrement();
+        long smoothed = smoothedLatency.accumulateAndGet(latencyNanos,
+            (average, sample) -> average == 0 ? sample : average + (sample - average) / 8);
+        if (smoothed > targetNanos) {
+            long last = lastDecrease.get();
+            if (now - last >= targetNanos && lastDecrease.compareAndSet(last, now)) {
+                limit.updateAndGet(current -> Math.max(minLimit, (int) (current * DECREASE_FACTOR)));
+            }
+        } else {
+            limit.updateAndGet(current -> saturation >= current ? Math.min(maxLimit, current + 1) : current);
+        }
+    }
+}
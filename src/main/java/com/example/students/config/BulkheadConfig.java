@@ -0,0 +1,34 @@
+package com.example.students.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+// Cloison du profil "virtual" (voir BulkheadFilter et application-virtual.properties)
+@Configuration
+@Profile("virtual")
+public class BulkheadConfig {
+
+    @Bean
+    public BulkheadFilter bulkheadFilter(
+        MeterRegistry registry,
+        @Value("${students.bulkhead.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+        @Value("${students.bulkhead.max-queued:0}") int maxQueued,
+        @Value("${students.bulkhead.max-wait:PT0S}") Duration maxWait) {
+        return new BulkheadFilter(registry, maxConcurrent, maxQueued, maxWait);
+    }
+
+    // Apres la limitation de debit : une requete refusee par le debit ne prend pas de place
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilterRegistration(BulkheadFilter filter) {
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 110);
+        return registration;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.students.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Cloison devant /api/students (profil "virtual") : au plus maxConcurrent requetes en cours, autant que
+// de connexions Hikari. Sans elle, des milliers de threads virtuels s'accumulent dans la file du pool
+// et chaque requete attend toutes les precedentes. Ici au plus maxQueued requetes attendent une place,
+// pendant maxWait au plus ; au-dela (file pleine ou attente expiree) -> 503 immediat.
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final String FULL = RateLimitFilter.problem(HttpStatus.SERVICE_UNAVAILABLE, "Service surcharge");
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter rejections;
+
+    // Constructeur manuel (sans Lombok)
+    BulkheadFilter(MeterRegistry registry, int maxConcurrent, int maxQueued, Duration maxWait) {
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.rejections = Counter.builder("students.http.rejected")
+            .description("Requetes refusees par le limiteur")
+            .tag("reason", "bulkhead")
+            .register(registry);
+        Gauge.builder("students.http.bulkhead.in-flight", this, BulkheadFilter::inFlight)
+            .description("Requetes en cours dans la cloison").register(registry);
+        Gauge.builder("students.http.bulkhead.queued", queued, AtomicInteger::get)
+            .description("Requetes en attente d'une place dans la cloison").register(registry);
+    }
+
+    int inFlight() { return maxConcurrent - permits.availablePermits(); }
+
+    int queued() { return queued.get(); }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/students");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        if (!permits.tryAcquire() && !await()) {
+            rejections.increment();
+            RateLimitFilter.reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1), FULL);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Attente bornee en nombre et en duree ; file pleine : refus sans attendre
+    private boolean await() {
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.students.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Cache des etudiants lus par id : Caffeine (eviction W-TinyLFU bornee en taille),
+// desactivable avec spring.cache.type=none (voir application.properties)
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String STUDENTS_CACHE = "students";
+}
@@ -0,0 +1,46 @@
+package com.example.students.config;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Transport dans la JVM : les instances (contextes Spring) d'un meme canal se livrent les
+// invalidations de facon synchrone. Pour les tests multi-instances sur une seule machine.
+public class InProcessInvalidationTransport implements InvalidationTransport {
+
+    private static final ConcurrentMap<String, Set<InProcessInvalidationTransport>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final String channel;
+    private final List<Consumer<Invalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    // Constructeur manuel (sans Lombok)
+    public InProcessInvalidationTransport(String channel) {
+        this.channel = channel;
+        CHANNELS.computeIfAbsent(channel, key -> ConcurrentHashMap.newKeySet()).add(this);
+    }
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        for (InProcessInvalidationTransport peer : CHANNELS.getOrDefault(channel, Set.of())) {
+            if (peer != this) {
+                peer.listeners.forEach(listener -> listener.accept(invalidation));
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Invalidation> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        CHANNELS.computeIfPresent(channel, (key, peers) -> {
+            peers.remove(this);
+            return peers.isEmpty() ? null : peers;
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.students.config;
+
+import java.util.function.Consumer;
+
+// Diffusion des invalidations du cache proche (NearCache) entre instances de l'application.
+// Livraison au mieux : un message perdu laisse l'entree jusqu'a son expiration (expireAfterWrite).
+public interface InvalidationTransport extends AutoCloseable {
+
+    void publish(Invalidation invalidation);
+
+    void subscribe(Consumer<Invalidation> listener);
+
+    @Override
+    default void close() {}
+
+    // key null : vider tout le cache
+    record Invalidation(String origin, String cache, String key) {}
+}
@@ -0,0 +1,40 @@
+package com.example.students.config;
+
+import com.example.students.service.StudentService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Instrumentation : @Timed sur les services (TimedAspect) et comptage des instructions SQL par requete.
+// Pool Hikari, statistiques Hibernate et appels de repository sont instrumentes par Spring Boot.
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    // Lectures regroupees par StudentService : students.single-flight.calls{name, role}
+    @Bean
+    public MeterBinder singleFlightMetrics(StudentService studentService) {
+        return registry -> studentService.singleFlights().forEach(flight -> flight.bindTo(registry));
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(
+        MeterRegistry registry, @Value("${students.metrics.sql-statements-warn-threshold:5}") int warnThreshold) {
+        return new FilterRegistrationBean<>(new SqlStatementMetricsFilter(registry, warnThreshold));
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.students.config;
+
+import com.example.students.config.InvalidationTransport.Invalidation;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+// Cache local d'une instance, invalide par les ecritures des autres instances (InvalidationTransport).
+// Chaque cle appartient a une tranche dont la version augmente a chaque invalidation ; une valeur
+// lue en base n'est rangee que si la version de sa tranche n'a pas change pendant la lecture.
+// Une invalidation arrivee pendant un rechargement ne peut donc pas etre ecrasee par l'ancienne valeur.
+// Le chargement avec version passe par get(key, loader) : @Cacheable(sync = true).
+public class NearCache implements Cache {
+
+    private static final int STRIPES = 1024;
+
+    private final String name;
+    private final String origin;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> store;
+    private final InvalidationTransport transport;
+    private final Function<String, Object> keyDecoder;
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+    // Constructeur manuel (sans Lombok) ; origin : identifiant de l'instance, ses propres messages sont ignores
+    public NearCache(String name, String origin, com.github.benmanes.caffeine.cache.Cache<Object, Object> store,
+                     InvalidationTransport transport, Function<String, Object> keyDecoder) {
+        this.name = name;
+        this.origin = origin;
+        this.store = store;
+        this.transport = transport;
+        this.keyDecoder = keyDecoder;
+        transport.subscribe(this::onInvalidation);
+    }
+
+    @Override
+    public String getName() { return name; }
+
+    @Override
+    public com.github.benmanes.caffeine.cache.Cache<Object, Object> getNativeCache() { return store; }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = store.getIfPresent(key);
+        return value == null ? null : new SimpleValueWrapper(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        Object value = store.getIfPresent(key);
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Valeur en cache de type " + value.getClass().getName()
+                + " au lieu de " + type.getName());
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = store.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        long version = versions.get(stripe(key));
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value != null) {
+            store.asMap().compute(key, (k, current) -> versions.get(stripe(k)) == version ? value : current);
+        }
+        return value;
+    }
+
+    // Ecriture par l'instance elle-meme (@CachePut) : valeur a jour par construction
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+        } else {
+            store.put(key, value);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        invalidateLocally(key);
+        transport.publish(new Invalidation(origin, name, key.toString()));
+    }
+
+    @Override
+    public void clear() {
+        invalidateLocally();
+        transport.publish(new Invalidation(origin, name, null));
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = store.estimatedSize() > 0;
+        invalidateLocally();
+        return notEmpty;
+    }
+
+    private void onInvalidation(Invalidation invalidation) {
+        if (origin.equals(invalidation.origin()) || !name.equals(invalidation.cache())) {
+            return;
+        }
+        if (invalidation.key() == null) {
+            invalidateLocally();
+        } else {
+            invalidateLocally(keyDecoder.apply(invalidation.key()));
+        }
+    }
+
+    // Version incrementee avant le retrait : un chargement concurrent ne peut plus ranger sa valeur
+    private void invalidateLocally(Object key) {
+        versions.incrementAndGet(stripe(key));
+        store.invalidate(key);
+    }
+
+    private void invalidateLocally() {
+        for (int i = 0; i < STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        store.invalidateAll();
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.students.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Cache des etudiants : NearCache sur Caffeine, dont les invalidations sont diffusees aux autres instances
+// (students.cache.invalidation.transport, voir application.properties). Aussi en instance unique
+// (transport none) : le chargement se fait hors du verrou Caffeine et une lecture en cours pendant une
+// ecriture ne peut pas ranger l'ancienne ligne apres l'eviction. Remplace le CacheManager Caffeine de
+// Spring Boot, meme spec et metriques ; spring.cache.type=none desactive toujours le cache.
+@Configuration
+@ConditionalOnExpression("'${spring.cache.type:caffeine}' != 'none'")
+public class NearCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public InvalidationTransport invalidationTransport(
+        @Value("${students.cache.invalidation.transport:none}") String transport,
+        @Value("${students.cache.invalidation.channel:students}") String channel,
+        @Value("${students.cache.invalidation.udp.bind:0.0.0.0}") String bindAddress,
+        @Value("${students.cache.invalidation.udp.port:47100}") int port,
+        @Value("${students.cache.invalidation.udp.peers:}") List<String> peers) {
+        return switch (transport) {
+            case "none" -> new InvalidationTransport() {
+                @Override
+                public void publish(Invalidation invalidation) {}
+
+                @Override
+                public void subscribe(Consumer<Invalidation> listener) {}
+            };
+            case "in-process" -> new InProcessInvalidationTransport(channel);
+            case "udp" -> new UdpInvalidationTransport(new InetSocketAddress(bindAddress, port),
+                peers.stream().filter(peer -> !peer.isBlank()).map(NearCacheConfig::address).toList());
+            default -> throw new IllegalStateException("Transport d'invalidation inconnu: " + transport);
+        };
+    }
+
+    @Bean
+    public CacheManager cacheManager(InvalidationTransport transport,
+                                     @Value("${spring.cache.caffeine.spec:}") String spec) {
+        String origin = UUID.randomUUID().toString();
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new NearCache(CacheConfig.STUDENTS_CACHE, origin,
+            Caffeine.from(spec).build(), transport, Long::valueOf)));
+        return cacheManager;
+    }
+
+    // Metriques cache.* comme pour le cache Caffeine de Spring Boot
+    @Bean
+    public CacheMeterBinderProvider<NearCache> nearCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(cache.getNativeCache(), cache.getName(), tags);
+    }
+
+    private static InetSocketAddress address(String peer) {
+        int separator = peer.lastIndexOf(':');
+        return new InetSocketAddress(peer.substring(0, separator).trim(), Integer.parseInt(peer.substring(separator + 1).trim()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.students.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+// Profil "persistent" : restauration de l'instantane (voir application-persistent.properties)
+// avant que le pool ou Flyway n'ouvre la base ; la creation est exposee par SnapshotEndpoint
+@Configuration
+@Profile("persistent")
+public class PersistenceConfig {
+
+    static final String DATABASE_NAME = "studentsdb";
+
+    private static final Logger log = LoggerFactory.getLogger(PersistenceConfig.class);
+
+    enum RestoreMode { IF_MISSING, ALWAYS, NEVER }
+
+    // static : le post-processeur doit exister avant la DataSource
+    @Bean
+    static BeanPostProcessor snapshotRestorer(Environment environment) {
+        Path directory = Path.of(environment.getRequiredProperty("students.persistence.dir"));
+        Path snapshot = Path.of(environment.getRequiredProperty("students.persistence.snapshot"));
+        RestoreMode mode = RestoreMode.valueOf(environment.getProperty("students.persistence.restore", "if-missing")
+            .trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource) {
+                    restore(directory, snapshot, mode);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // L'archive de BACKUP TO contient le fichier studentsdb.mv.db : il est extrait a cote puis
+    // renomme, une restauration interrompue laisse donc la base precedente intacte
+    static boolean restore(Path directory, Path snapshot, RestoreMode mode) {
+        Path database = directory.resolve(DATABASE_NAME + ".mv.db");
+        boolean exists = Files.exists(database);
+        if (mode == RestoreMode.NEVER || !Files.isRegularFile(snapshot) || (exists && mode == RestoreMode.IF_MISSING)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        Path temporary = directory.resolve(DATABASE_NAME + ".mv.db.restore");
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(snapshot))) {
+            Files.createDirectories(directory);
+            if (!extract(zip, database.getFileName().toString(), temporary)) {
+                throw new IllegalStateException("Instantane sans fichier " + database.getFileName() + ": " + snapshot);
+            }
+            Files.deleteIfExists(directory.resolve(DATABASE_NAME + ".trace.db"));
+            Files.move(temporary, database, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Base {} restauree depuis {} en {} ms", DATABASE_NAME, snapshot,
+            (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    private static boolean extract(ZipInputStream zip, String name, Path target) throws IOException {
+        for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+            if (Path.of(entry.getName()).getFileName().toString().equals(name)) {
+                Files.copy((InputStream) zip, target, StandardCopyOption.REPLACE_EXISTING);
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.students.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Limitation de debit et delestage devant l'API (voir RateLimitFilter et application.properties).
+// Desactivees par defaut ; un debit a 0 desactive le seau correspondant.
+@Configuration
+@ConditionalOnExpression("${students.rate-limit.enabled:false} or ${students.concurrency-limit.enabled:false}")
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(
+        MeterRegistry registry,
+        @Value("${students.rate-limit.enabled:false}") boolean rateLimitEnabled,
+        @Value("${students.rate-limit.client.rate:100}") double clientRate,
+        @Value("${students.rate-limit.client.burst:200}") int clientBurst,
+        @Value("${students.rate-limit.max-clients:100000}") int maxClients,
+        @Value("${students.rate-limit.api-keys:}") String apiKeys,
+        @Value("${students.rate-limit.global.rate:5000}") double globalRate,
+        @Value("${students.rate-limit.global.burst:5000}") int globalBurst,
+        @Value("${students.concurrency-limit.enabled:false}") boolean concurrencyEnabled,
+        @Value("${students.concurrency-limit.target-latency:PT0.25S}") Duration targetLatency,
+        @Value("${students.concurrency-limit.initial:20}") int initialLimit,
+        @Value("${students.concurrency-limit.min:4}") int minLimit,
+        @Value("${students.concurrency-limit.max:200}") int maxLimit,
+        @Value("${students.concurrency-limit.unsampled-paths:/api/students/import,/api/students/bulk}")
+        List<String> unsampledPaths) {
+        TokenBucket globalBucket = rateLimitEnabled && globalRate > 0
+            ? new TokenBucket(globalRate, globalBurst, System.nanoTime()) : null;
+        AdaptiveConcurrencyLimiter concurrencyLimiter = concurrencyEnabled
+            ? new AdaptiveConcurrencyLimiter(targetLatency.toNanos(), initialLimit, minLimit, maxLimit) : null;
+        Set<String> keys = Arrays.stream(apiKeys.split(",")).map(String::trim).filter(key -> !key.isEmpty())
+            .collect(Collectors.toSet());
+        return new RateLimitFilter(registry, rateLimitEnabled ? clientRate : 0, clientBurst, maxClients, keys,
+            globalBucket, concurrencyLimiter, unsampledPaths);
+    }
+
+    // Avant les autres filtres applicatifs : une requete refusee ne touche ni la base ni les metriques SQL
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.students.config;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Protection de /api/students avant toute requete SQL :
+//  - seau a jetons par client puis seau global -> 429 + Retry-After
+//  - limite de concurrence adaptative (AdaptiveConcurrencyLimiter) -> 503 + Retry-After
+// Client = cle X-API-Key si elle fait partie des cles declarees (students.rate-limit.api-keys), sinon
+// adresse IP (getRemoteAddr : derriere un repartiteur, celle de X-Forwarded-For si
+// server.forward-headers-strategy le permet) : une cle inventee ne donne pas de nouveau seau.
+// Au-dela de maxClients clients suivis, les seaux pleins puis les moins recemment utilises sont oublies.
+// Une requete asynchrone (SSE, export) ne compte dans la concurrence que jusqu'au retour du controleur.
+// Les chemins longs par nature (unsampledPaths : import, lots) comptent dans la concurrence mais
+// n'alimentent pas la latence lissee : un gros import ne fait pas baisser la limite des autres requetes.
+// Reponses au format application/problem+json de GlobalExceptionHandler.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String API_KEY_HEADER = "X-API-Key";
+    private static final String CLIENT_RATE = problem(HttpStatus.TOO_MANY_REQUESTS, "Trop de requetes pour ce client");
+    private static final String GLOBAL_RATE = problem(HttpStatus.TOO_MANY_REQUESTS, "Trop de requetes");
+    private static final String OVERLOADED = problem(HttpStatus.SERVICE_UNAVAILABLE, "Service surcharge");
+
+    private final double clientRate;
+    private final int clientBurst;
+    private final int maxClients;
+    private final Set<String> apiKeys;
+    private final List<String> unsampledPaths;
+    private final TokenBucket globalBucket;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ConcurrentMap<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+    // Un seul thread fait l'eviction ; les autres continuent sans attendre
+    private final ReentrantLock eviction = new ReentrantLock();
+    private final Counter clientRejections;
+    private final Counter globalRejections;
+    private final Counter concurrencyRejections;
+
+    // Constructeur manuel (sans Lombok) ; globalBucket et concurrencyLimiter sont optionnels (null)
+    RateLimitFilter(MeterRegistry registry, double clientRate, int clientBurst, int maxClients, Set<String> apiKeys,
+                    TokenBucket globalBucket, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                    List<String> unsampledPaths) {
+        this.clientRate = clientRate;
+        this.clientBurst = clientBurst;
+        this.maxClients = Math.max(1, maxClients);
+        this.apiKeys = Set.copyOf(apiKeys);
+        this.unsampledPaths = List.copyOf(unsampledPaths);
+        this.globalBucket = globalBucket;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.clientRejections = rejections(registry, "client-rate");
+        this.globalRejections = rejections(registry, "global-rate");
+        this.concurrencyRejections = rejections(registry, "concurrency");
+        Gauge.builder("students.http.rate-limit.clients", clientBuckets, ConcurrentMap::size)
+            .description("Clients suivis par le limiteur de debit").register(registry);
+        if (concurrencyLimiter != null) {
+            Gauge.builder("students.http.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Limite courante de requetes simultanees").register(registry);
+            Gauge.builder("students.http.concurrency.in-flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Requetes en cours").register(registry);
+            Gauge.builder("students.http.concurrency.latency", concurrencyLimiter,
+                    limiter -> limiter.smoothedLatencyNanos() / 1e9)
+                .description("Latence lissee utilisee pour ajuster la limite").baseUnit("seconds").register(registry);
+        }
+    }
+
+    private static Counter rejections(MeterRegistry registry, String reason) {
+        return Counter.builder("students.http.rejected")
+            .description("Requetes refusees par le limiteur")
+            .tag("reason", reason)
+            .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/students");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        long start = System.nanoTime();
+        if (clientRate > 0) {
+            long wait = clientBucket(clientKey(request), start).tryAcquire(start);
+            if (wait > 0) {
+                clientRejections.increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, wait, CLIENT_RATE);
+                return;
+            }
+        }
+        if (globalBucket != null) {
+            long wait = globalBucket.tryAcquire(start);
+            if (wait > 0) {
+                globalRejections.increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, wait, GLOBAL_RATE);
+                return;
+            }
+        }
+        if (concurrencyLimiter == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            concurrencyRejections.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1), OVERLOADED);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (unsampled(request.getRequestURI())) {
+                concurrencyLimiter.release();
+            } else {
+                long end = System.nanoTime();
+                concurrencyLimiter.release(end - start, end);
+            }
+        }
+    }
+
+    private TokenBucket clientBucket(String client, long now) {
+        TokenBucket bucket = clientBuckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (clientBuckets.size() >= maxClients && eviction.tryLock()) {
+            try {
+                evict(now);
+            } finally {
+                eviction.unlock();
+            }
+        }
+        return clientBuckets.computeIfAbsent(client, key -> new TokenBucket(clientRate, clientBurst, now));
+    }
+
+    // Ramene le nombre de clients suivis a 90 % de maxClients : seaux pleins d'abord, puis ceux dont
+    // le dernier jeton est le plus ancien (une passe de tri pour maxClients / 10 nouveaux clients)
+    private void evict(long now) {
+        clientBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        int target = maxClients - Math.max(1, maxClients / 10);
+        int excess = clientBuckets.size() - target;
+        if (excess <= 0) {
+            return;
+        }
+        long[] lastUse = clientBuckets.values().stream().mapToLong(bucket -> bucket.fullAt() - now).toArray();
+        Arrays.sort(lastUse);
+        long cutoff = lastUse[Math.min(excess, lastUse.length) - 1];
+        clientBuckets.values().removeIf(bucket -> bucket.fullAt() - now <= cutoff);
+    }
+
+    private boolean unsampled(String uri) {
+        for (String path : unsampledPaths) {
+            if (uri.startsWith(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    // Un seau plein equivaut a un seau absent : les clients inactifs sont oublies. Un jeton pris
+    // pendant la suppression sur l'ancien seau est perdu, sans autre effet.
+    @Scheduled(fixedDelayString = "${students.rate-limit.eviction-interval:PT1M}",
+        initialDelayString = "${students.rate-limit.eviction-interval:PT1M}")
+    public void evictIdleClients() {
+        long now = System.nanoTime();
+        clientBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    static void reject(HttpServletResponse response, HttpStatus status, long waitNanos, String problem)
+        throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+            String.valueOf(Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L)));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write(problem);
+    }
+
+    // Meme document que GlobalExceptionHandler.ProblemTemplate ("message" pour l'ancien format)
+    static String problem(HttpStatus status, String detail) {
+        String escaped = new String(JsonStringEncoder.getInstance().quoteAsString(detail));
+        return "{\"type\":\"about:blank\",\"title\":\"" + status.getReasonPhrase() + "\",\"status\":"
+            + status.value() + ",\"detail\":\"" + escaped + "\",\"message\":\"" + escaped + "\"}";
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.students.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Aiguillage lecture / ecriture (profil "replicas") : une transaction readOnly ouverte pendant une
+// requete HTTP de lecture va sur un replica assez a jour, tout le reste sur le primaire.
+// A envelopper dans un LazyConnectionDataSourceProxy : la connexion n'est choisie qu'a la premiere
+// instruction, une fois le caractere readOnly de la transaction connu.
+// Positions : numeros de sequence du flux des modifications (StudentChangeStream).
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    // Derniere position publiee par le primaire
+    private final LongSupplier published;
+    // Position que la requete en cours doit voir (ReadYourWritesFilter)
+    private final LongSupplier requiredPosition;
+    private final long maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryRoutes;
+
+    // Constructeur manuel (sans Lombok)
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<Replica> replicas, LongSupplier published,
+                                      LongSupplier requiredPosition, long maxLag, MeterRegistry registry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.published = published;
+        this.requiredPosition = requiredPosition;
+        this.maxLag = maxLag;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicas.forEach(replica -> targets.put(replica.name(), replica.dataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+        this.primaryRoutes = routes(registry, PRIMARY);
+        for (Replica replica : this.replicas) {
+            replica.routes = routes(registry, replica.name());
+            Gauge.builder("students.datasource.replica.lag", replica,
+                    r -> r.appliedSequence() < 0 ? Double.NaN : published.getAsLong() - r.appliedSequence())
+                .description("Modifications publiees pas encore appliquees sur le replica")
+                .tag("pool", replica.name()).register(registry);
+        }
+    }
+
+    private static Counter routes(MeterRegistry registry, String pool) {
+        return Counter.builder("students.datasource.routes")
+            .description("Connexions physiques obtenues, par pool")
+            .tag("pool", pool)
+            .register(registry);
+    }
+
+    public DataSource primary() { return primary; }
+    public List<Replica> replicas() { return replicas; }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Replica replica = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            ? pickReplica(requiredPosition.getAsLong()) : null;
+        if (replica == null) {
+            primaryRoutes.increment();
+            return PRIMARY;
+        }
+        replica.routes.increment();
+        return replica.name();
+    }
+
+    // Tourniquet parmi les replicas qui ont applique au moins la position demandee et dont le
+    // retard reste sous maxLag ; aucun -> primaire
+    Replica pickReplica(long required) {
+        if (required == ReadYourWritesFilter.PRIMARY_ONLY || replicas.isEmpty()) {
+            return null;
+        }
+        long floor = Math.max(required, published.getAsLong() - maxLag);
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.appliedSequence() >= floor && replica.appliedSequence() >= 0) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // Les pools restent internes : ni Spring Boot ni les clients ne doivent les confondre avec cette source
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+        throw new SQLException("DataSource of type [" + getClass().getName() + "] cannot be unwrapped as [" + iface.getName() + "]");
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource().close());
+        primary.close();
+    }
+
+    // Un replica et la derniere position du flux des modifications qui y est appliquee
+    // (-1 : contenu inconnu, en cours de resynchronisation)
+    public static final class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile long appliedSequence = -1;
+        private Counter routes;
+
+        // Constructeur manuel (sans Lombok)
+        public Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() { return name; }
+        public HikariDataSource dataSource() { return dataSource; }
+        public long appliedSequence() { return appliedSequence; }
+        public void appliedSequence(long sequence) { this.appliedSequence = sequence; }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.students.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+// Lecture de ses propres ecritures avec des replicas asynchrones (profil "replicas").
+// Session = en-tete X-API-Key, sinon adresse IP (cle non verifiee : une cle empruntee ne fait
+// qu'envoyer des lectures sur le primaire) :
+//  - une requete d'ecriture lit tout sur le primaire ;
+//  - a sa fin, la derniere position publiee est retenue pour le client ;
+//  - ses lectures suivantes ne vont que sur un replica ayant applique cette position.
+// Hors requete HTTP (demarrage, taches planifiees), tout va sur le primaire.
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final long PRIMARY_ONLY = Long.MAX_VALUE;
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final ThreadLocal<Long> REQUIRED = new ThreadLocal<>();
+
+    private final LongSupplier published;
+    private final Cache<String, Long> lastWrites;
+
+    // Constructeur manuel (sans Lombok) ; sessionTtl : duree pendant laquelle la position ecrite
+    // par un client est retenue (largement au-dela du retard normal des replicas)
+    ReadYourWritesFilter(LongSupplier published, Duration sessionTtl, long maxSessions) {
+        this.published = published;
+        this.lastWrites = Caffeine.newBuilder()
+            .expireAfterWrite(sessionTtl)
+            .maximumSize(maxSessions)
+            .build();
+    }
+
+    // Position minimale que doit avoir applique le replica qui sert la requete en cours
+    static long requiredPosition() {
+        Long required = REQUIRED.get();
+        return required == null ? PRIMARY_ONLY : required;
+    }
+
+    static String sessionKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(RateLimitFilter.API_KEY_HEADER);
+        return apiKey != null && !apiKey.isBlank() ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/students");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        String client = sessionKey(request);
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        Long lastWrite = lastWrites.getIfPresent(client);
+        REQUIRED.set(write ? PRIMARY_ONLY : lastWrite == null ? 0L : lastWrite);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            REQUIRED.remove();
+            if (write) {
+                // Toutes les modifications de la requete sont publiees a ce stade
+                long position = published.getAsLong();
+                lastWrites.asMap().merge(client, position, Math::max);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.students.config;
+
+import com.example.students.service.StudentChangeStream;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Profil "replicas" : primaire + replicas en lecture (voir application-replicas.properties).
+// Un pool Hikari par base, chacun avec ses metriques hikaricp.* (tag pool) ; aiguillage par
+// ReadWriteRoutingDataSource, coherence par client par ReadYourWritesFilter.
+@Configuration
+@Profile("replicas")
+public class ReplicaRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+        DataSourceProperties properties, Environment environment, MeterRegistry registry,
+        StudentChangeStream changeStream,
+        @Value("${students.replicas.urls}") List<String> urls,
+        @Value("${students.replicas.max-lag:1000}") long maxLag,
+        @Value("${spring.flyway.locations:classpath:db/migration}") String[] migrations) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(registry);
+        HikariDataSource primary = pool(properties.getUrl(), "primary", "spring.datasource.hikari",
+            properties, environment, metrics);
+        List<ReadWriteRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = pool(urls.get(i).trim(), "replica-" + (i + 1), "students.replicas.hikari",
+                properties, environment, metrics);
+            // Meme schema que le primaire ; le contenu est recopie par ReplicaSynchronizer
+            Flyway.configure().dataSource(replica).locations(migrations).load().migrate();
+            replicas.add(new ReadWriteRoutingDataSource.Replica(replica.getPoolName(), replica));
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, changeStream::published,
+            ReadYourWritesFilter::requiredPosition, maxLag, registry);
+    }
+
+    // DataSource de l'application (JPA, Flyway, JdbcTemplate)
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    static HikariDataSource pool(String url, String name, String prefix, DataSourceProperties properties,
+                                         Environment environment, MicrometerMetricsTrackerFactory metrics) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+        Binder.get(environment).bind(prefix, Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(metrics);
+        return pool;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+        StudentChangeStream changeStream,
+        @Value("${students.replicas.session-ttl:PT5M}") Duration sessionTtl,
+        @Value("${students.replicas.max-sessions:100000}") long maxSessions) {
+        return new ReadYourWritesFilter(changeStream::published, sessionTtl, maxSessions);
+    }
+
+    // Juste apres le limiteur de debit
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilterRegistration(ReadYourWritesFilter filter) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 110);
+        return registration;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.students.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Taches periodiques (reconciliation des statistiques, voir StudentStatistics)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
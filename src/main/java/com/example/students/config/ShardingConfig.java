@@ -0,0 +1,55 @@
+package com.example.students.config;
+
+import com.example.students.repository.SnowflakeIdGenerator;
+import com.example.students.repository.StudentShards;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Profil "sharded" (voir application-sharded.properties) : un pool Hikari par shard (metriques
+// hikaricp.*{pool=shard-N}), schema migre sur chaque shard avec la table des revendications d'email.
+// La DataSource de l'application (spring.datasource.*) reste utilisee hors StudentRepository.
+@Configuration
+@Profile("sharded")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public StudentShards studentShards(
+        DataSourceProperties properties, Environment environment, MeterRegistry registry,
+        @Value("${students.shards.urls}") List<String> urls,
+        @Value("${students.shards.parallelism:8}") int parallelism,
+        @Value("${spring.flyway.locations:classpath:db/migration}") String[] migrations) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(registry);
+        List<String> locations = new ArrayList<>(List.of(migrations));
+        locations.add("classpath:db/shard");
+        List<HikariDataSource> shards = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource shard = ReplicaRoutingConfig.pool(urls.get(i).trim(), "shard-" + i,
+                "students.shards.hikari", properties, environment, metrics);
+            Flyway.configure().dataSource(shard).locations(locations.toArray(String[]::new)).load().migrate();
+            shards.add(shard);
+        }
+        return new StudentShards(shards, parallelism);
+    }
+
+    // Un numero de noeud distinct par instance de l'application, sans valeur par defaut : deux
+    // instances demarrees avec le meme numero genereraient les memes ids
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(@Value("${students.shards.node-id:}") String nodeId) {
+        if (nodeId.isBlank()) {
+            throw new IllegalStateException("students.shards.node-id est obligatoire (0-"
+                + SnowflakeIdGenerator.MAX_NODE + ", distinct par instance)");
+        }
+        return new SnowflakeIdGenerator(Integer.parseInt(nodeId.trim()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.students.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// /actuator/snapshot : GET decrit l'instantane courant, POST en cree un nouveau.
+// BACKUP TO copie les pages de la base ouverte (ecritures concurrentes autorisees) ; l'archive
+// est ecrite a cote puis renommee, un instantane interrompu ne remplace donc jamais le precedent.
+// Absent du profil "sharded" : la base primaire ne contient alors pas les etudiants.
+@Component
+@Endpoint(id = "snapshot")
+@Profile("persistent & !sharded")
+public class SnapshotEndpoint {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path snapshot;
+
+    // Constructeur manuel (sans Lombok)
+    public SnapshotEndpoint(JdbcTemplate jdbcTemplate,
+                            @Value("${students.persistence.snapshot}") String snapshot) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshot = Path.of(snapshot).toAbsolutePath();
+    }
+
+    @ReadOperation
+    public Map<String, Object> describe() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("file", snapshot.toString());
+        result.put("exists", Files.isRegularFile(snapshot));
+        if (Files.isRegularFile(snapshot)) {
+            try {
+                result.put("bytes", Files.size(snapshot));
+                result.put("lastModified", Files.getLastModifiedTime(snapshot).toInstant().toString());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return result;
+    }
+
+    @WriteOperation
+    public Map<String, Object> create() {
+        long start = System.nanoTime();
+        Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(snapshot.getParent());
+            Files.deleteIfExists(temporary);
+            jdbcTemplate.execute("BACKUP TO '" + temporary.toString().replace("'", "''") + "'");
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Map<String, Object> result = describe();
+        result.put("millis", (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.students.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Compte les instructions SQL preparees par Hibernate sur le thread de la requete HTTP en cours
+// (voir SqlStatementMetricsFilter). Hors requete, aucun comptage.
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = CURRENT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    static void start() {
+        CURRENT.set(new int[1]);
+    }
+
+    static int stop() {
+        int[] count = CURRENT.get();
+        CURRENT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.students.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Nombre d'instructions SQL par requete /api (students.http.sql.statements, par route) ;
+// au-dela du seuil, la requete est comptee dans students.http.sql.excessive et journalisee.
+// Le corps des reponses en streaming, ecrit apres le retour du controleur, n'est pas compte.
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementMetricsFilter.class);
+
+    private final MeterRegistry registry;
+    private final int warnThreshold;
+
+    // Constructeur manuel (sans Lombok)
+    public SqlStatementMetricsFilter(MeterRegistry registry, int warnThreshold) {
+        this.registry = registry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        SqlStatementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = SqlStatementCounter.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            DistributionSummary.builder("students.http.sql.statements")
+                .description("Instructions SQL executees par requete HTTP")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(statements);
+            if (statements > warnThreshold) {
+                Counter.builder("students.http.sql.excessive")
+                    .description("Requetes HTTP depassant le seuil d'instructions SQL")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(registry)
+                    .increment();
+                log.warn("{} {} : {} instructions SQL (seuil {})", request.getMethod(), uri, statements, warnThreshold);
+            }
+        }
+    }
+}
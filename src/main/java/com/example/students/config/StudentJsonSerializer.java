@@ -0,0 +1,60 @@
+package com.example.students.config;
+
+import com.example.students.model.Student;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+// Ecriture directe des champs d'un Student (sans introspection ni acces reflexifs), noms de champs
+// pre-encodes ; meme sortie que la serialisation par defaut (ordre des champs, version ignoree).
+// Enregistre sur l'ObjectMapper de Spring Boot, donc aussi pour CBOR / Smile (SerializationConfig).
+@JsonComponent
+public class StudentJsonSerializer extends StdSerializer<Student> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializableString LAST_NAME = new SerializedString("lastName");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString AGE = new SerializedString("age");
+    private static final SerializableString MAJOR = new SerializedString("major");
+
+    public StudentJsonSerializer() {
+        super(Student.class);
+    }
+
+    @Override
+    public void serialize(Student student, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(student, 6);
+        generator.writeFieldName(ID);
+        if (student.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(student.getId());
+        }
+        writeString(generator, FIRST_NAME, student.getFirstName());
+        writeString(generator, LAST_NAME, student.getLastName());
+        writeString(generator, EMAIL, student.getEmail());
+        generator.writeFieldName(AGE);
+        if (student.getAge() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(student.getAge());
+        }
+        writeString(generator, MAJOR, student.getMajor());
+        generator.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator generator, SerializableString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.students.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Seau a jetons sans verrou (variante GCRA) : tout l'etat tient dans un AtomicLong, l'instant
+// (System.nanoTime) ou le seau sera de nouveau plein. Prendre un jeton decale cet instant d'un
+// intervalle d'emission ; la requete est refusee s'il depasse maintenant + capacite * intervalle.
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(double tokensPerSecond, int capacity, long now) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.capacityNanos = intervalNanos * capacity;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    // 0 si un jeton a ete pris, sinon delai en nanosecondes avant le prochain jeton disponible
+    long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            if (next - now > capacityNanos) {
+                return next - now - capacityNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Instant ou le seau sera plein : d'autant plus ancien que le dernier jeton pris l'est
+    long fullAt() {
+        return fullAt.get();
+    }
+
+    // Seau plein : il peut etre oublie sans changer le comportement du limiteur
+    boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
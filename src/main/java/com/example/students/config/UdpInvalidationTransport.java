@@ -0,0 +1,102 @@
+package com.example.students.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Transport UDP : un datagramme par invalidation, envoye a chaque pair (host:port) ; un thread
+// recoit sur le port local. Pas d'accuse de reception ni de reemission (voir InvalidationTransport).
+// Format : origine, cache, cle separes par '\n' ; cle absente = vider le cache.
+public class UdpInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(UdpInvalidationTransport.class);
+    private static final int MAX_DATAGRAM = 1024;
+
+    private final DatagramChannel channel;
+    private final List<InetSocketAddress> peers;
+    private final List<Consumer<Invalidation>> listeners = new CopyOnWriteArrayList<>();
+    private final Thread receiver;
+
+    // Constructeur manuel (sans Lombok) ; port 0 : port libre (voir localPort)
+    public UdpInvalidationTransport(InetSocketAddress bind, List<InetSocketAddress> peers) {
+        this.peers = List.copyOf(peers);
+        try {
+            this.channel = DatagramChannel.open().bind(bind);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.receiver = new Thread(this::receive, "cache-invalidation-receiver");
+        this.receiver.setDaemon(true);
+        this.receiver.start();
+    }
+
+    public int localPort() {
+        try {
+            return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        String text = invalidation.origin() + "\n" + invalidation.cache()
+            + (invalidation.key() == null ? "" : "\n" + invalidation.key());
+        ByteBuffer datagram = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        for (InetSocketAddress peer : peers) {
+            try {
+                channel.send(datagram.duplicate(), peer);
+            } catch (IOException e) {
+                log.warn("Invalidation non envoyee a {} : {}", peer, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Invalidation> listener) {
+        listeners.add(listener);
+    }
+
+    private void receive() {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_DATAGRAM);
+        while (channel.isOpen()) {
+            try {
+                buffer.clear();
+                channel.receive(buffer);
+                buffer.flip();
+                String[] parts = StandardCharsets.UTF_8.decode(buffer).toString().split("\n", 3);
+                if (parts.length < 2) {
+                    continue;
+                }
+                Invalidation invalidation = new Invalidation(parts[0], parts[1], parts.length == 3 ? parts[2] : null);
+                listeners.forEach(listener -> listener.accept(invalidation));
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Invalidation recue illisible : {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+            receiver.join(1_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,14 +1,27 @@
 package com.example.students.controller;
 
+import com.example.students.exception.PreconditionFailedException;
+import com.example.students.exception.StudentConflictException;
+import com.example.students.exception.StudentNotFoundException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import org.springframework.http.*;
 import org.springframework.validation.FieldError;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.support.WebExchangeBindException;
 import java.util.*;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Reponses RFC 7807 (application/problem+json) des cas attendus : le debut du document est
+    // pre-encode par statut, seul le detail est echappe puis insere. "message" reprend le detail
+    // pour les clients qui lisent le format d'erreur historique.
+    private static final ProblemTemplate NOT_FOUND = new ProblemTemplate(HttpStatus.NOT_FOUND);
+    private static final ProblemTemplate CONFLICT = new ProblemTemplate(HttpStatus.CONFLICT);
+    private static final ProblemTemplate PRECONDITION_FAILED = new ProblemTemplate(HttpStatus.PRECONDITION_FAILED);
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, String>> handleRuntimeException(RuntimeException ex) {
         Map<String, String> error = new HashMap<>();
@@ -16,15 +29,61 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(StudentNotFoundException.class)
+    public ResponseEntity<String> handleNotFound(StudentNotFoundException ex) {
+        return NOT_FOUND.render(ex.getMessage());
+    }
+
+    @ExceptionHandler(StudentConflictException.class)
+    public ResponseEntity<String> handleConflict(StudentConflictException ex) {
+        return CONFLICT.render(ex.getMessage());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<String> handlePreconditionFailed(PreconditionFailedException ex) {
+        return PRECONDITION_FAILED.render(ex.getMessage());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationErrors(
         MethodArgumentNotValidException ex) {
+        return validationErrors(ex.getBindingResult());
+    }
+
+    // Equivalent WebFlux (profil "reactive")
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleReactiveValidationErrors(
+        WebExchangeBindException ex) {
+        return validationErrors(ex.getBindingResult());
+    }
+
+    private ResponseEntity<Map<String, String>> validationErrors(BindingResult bindingResult) {
         Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach(error -> {
+        bindingResult.getAllErrors().forEach(error -> {
             String field = ((FieldError) error).getField();
             String message = error.getDefaultMessage();
             errors.put(field, message);
         });
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
     }
+
+    static final class ProblemTemplate {
+
+        private final HttpStatus status;
+        private final String prefix;
+
+        ProblemTemplate(HttpStatus status) {
+            this.status = status;
+            this.prefix = "{\"type\":\"about:blank\",\"title\":\"" + status.getReasonPhrase()
+                + "\",\"status\":" + status.value() + ",\"detail\":\"";
+        }
+
+        ResponseEntity<String> render(String detail) {
+            char[] escaped = JsonStringEncoder.getInstance().quoteAsString(detail);
+            String body = new StringBuilder(prefix.length() + 2 * escaped.length + 16)
+                .append(prefix).append(escaped).append("\",\"message\":\"").append(escaped).append("\"}")
+                .toString();
+            return ResponseEntity.status(status).contentType(MediaType.APPLICATION_PROBLEM_JSON).body(body);
+        }
+    }
 }
@@ -0,0 +1,84 @@
+package com.example.students.controller;
+
+import com.example.students.exception.StudentNotFoundException;
+import com.example.students.model.Student;
+import com.example.students.repository.ReactiveStudentRepository;
+import com.example.students.service.ReactiveStudentService;
+import com.example.students.service.StudentService;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.*;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Variante non bloquante de StudentController (profil "reactive") : memes routes, memes regles de validation ;
+// les ecritures passent par ReactiveStudentService (memes effets que StudentService)
+@RestController
+@RequestMapping("/api/students")
+@CrossOrigin(origins = "http://localhost:3000")
+@Profile("reactive")
+public class ReactiveStudentController {
+
+    private final ReactiveStudentRepository studentRepository;
+    private final ReactiveStudentService studentService;
+
+    // Constructeur manuel (sans Lombok)
+    public ReactiveStudentController(ReactiveStudentRepository studentRepository,
+                                     ReactiveStudentService studentService) {
+        this.studentRepository = studentRepository;
+        this.studentService = studentService;
+    }
+
+    @GetMapping
+    public Flux<Student> getAllStudents(
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) Long after) {
+        if (limit == null && after == null) {
+            return studentRepository.findAll();
+        }
+        int pageSize = limit == null ? StudentController.DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1) {
+            return Flux.error(new RuntimeException("Le parametre limit doit etre positif"));
+        }
+        return studentRepository.findByIdGreaterThan(after == null ? 0L : after,
+            Math.min(pageSize, StudentController.MAX_PAGE_SIZE));
+    }
+
+    // Flux NDJSON : chaque ligne est ecrite des qu'elle est lue
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Student> streamAllStudents() {
+        return studentRepository.findAll();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Student> getStudentById(@PathVariable Long id) {
+        return studentRepository.findById(id)
+            .switchIfEmpty(Mono.error(() -> new StudentNotFoundException(id)));
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Student> createStudent(@Valid @RequestBody Student student) {
+        return studentService.createStudent(student);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<Student> updateStudent(@PathVariable Long id, @Valid @RequestBody Student student) {
+        return studentService.updateStudent(id, student);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteStudent(@PathVariable Long id) {
+        return studentService.deleteStudent(id).thenReturn(ResponseEntity.noContent().build());
+    }
+
+    @GetMapping("/search")
+    public Flux<Student> searchStudents(
+        @RequestParam String query,
+        @RequestParam(required = false) Integer limit) {
+        int maxResults = limit == null ? StudentService.DEFAULT_SEARCH_LIMIT
+            : Math.min(limit, StudentController.MAX_PAGE_SIZE);
+        return studentRepository.search(query, maxResults);
+    }
+}
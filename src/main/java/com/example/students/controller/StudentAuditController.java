@@ -0,0 +1,43 @@
+package com.example.students.controller;
+
+import com.example.students.dto.AuditRecord;
+import com.example.students.service.AuditJournal;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+// Lecture du journal d'audit. Journal ecrit en differe : une modification toute recente peut
+// n'y apparaitre qu'apres quelques millisecondes.
+@RestController
+@RequestMapping("/api/students")
+@CrossOrigin(origins = "http://localhost:3000")
+@Profile("!reactive")
+public class StudentAuditController {
+
+    private final AuditJournal auditJournal;
+
+    // Constructeur manuel (sans Lombok)
+    public StudentAuditController(AuditJournal auditJournal) {
+        this.auditJournal = auditJournal;
+    }
+
+    @GetMapping("/{id}/history")
+    public List<AuditRecord> history(@PathVariable Long id) {
+        return auditJournal.history(id);
+    }
+
+    // Intervalle [from, to[ en ISO-8601 (ex. 2024-01-31T10:00:00Z), bornes optionnelles
+    @GetMapping("/audit")
+    public List<AuditRecord> audit(
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+        @RequestParam(defaultValue = "" + StudentController.DEFAULT_PAGE_SIZE) int limit) {
+        if (limit < 1) {
+            throw new RuntimeException("Le parametre limit doit etre positif");
+        }
+        return auditJournal.between(from, to, Math.min(limit, StudentController.MAX_PAGE_SIZE));
+    }
+}
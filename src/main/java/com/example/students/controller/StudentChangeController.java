@@ -0,0 +1,31 @@
+package com.example.students.controller;
+
+import com.example.students.service.StudentChangeStream;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Abonnement aux creations / modifications / suppressions (Server-Sent Events).
+// Reprise : en-tete Last-Event-ID (envoye automatiquement par EventSource) ou parametre since,
+// au format des ids d'evenements ("<epoque>-<sequence>").
+@RestController
+@RequestMapping("/api/students")
+@CrossOrigin(origins = "http://localhost:3000")
+@Profile("!reactive")
+public class StudentChangeController {
+
+    private final StudentChangeStream changeStream;
+
+    // Constructeur manuel (sans Lombok)
+    public StudentChangeController(StudentChangeStream changeStream) {
+        this.changeStream = changeStream;
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(
+        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+        @RequestParam(required = false) String since) {
+        return changeStream.subscribe(lastEventId != null ? lastEventId : since);
+    }
+}
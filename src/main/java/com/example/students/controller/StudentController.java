@@ -1,55 +1,192 @@
 package com.example.students.controller;
 
+import com.example.students.dto.BulkResult;
+import com.example.students.dto.StudentQuery;
+import com.example.students.dto.StudentStats;
+import com.example.students.exception.PreconditionFailedException;
 import com.example.students.model.Student;
+import com.example.students.service.StudentBulkService;
 import com.example.students.service.StudentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.BufferedOutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/students")
 @CrossOrigin(origins = "http://localhost:3000")
+@Profile("!reactive")
 public class StudentController {
 
+    static final String NDJSON = "application/x-ndjson";
+    static final String NEXT_CURSOR_HEADER = "X-Next-After";
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
     private final StudentService studentService;
+    private final StudentBulkService studentBulkService;
+    private final ObjectMapper objectMapper;
 
     // Constructeur manuel (sans Lombok)
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService, StudentBulkService studentBulkService,
+                             ObjectMapper objectMapper) {
         this.studentService = studentService;
+        this.studentBulkService = studentBulkService;
+        this.objectMapper = objectMapper;
     }
 
+    // Sans parametre : liste complete (contrat historique).
+    // Avec limit/after : page keyset, le curseur suivant est renvoye dans X-Next-After.
+    // Avec filtres (major, minAge, maxAge, emailDomain, name), sort ou fields : requete projetee
+    // ne renvoyant que les champs demandes (ex. fields=id,firstName&sort=age,desc).
+    // ETag de la collection resumant l'etat de la table (une requete d'agregat) : 304 sans lire les lignes.
     @GetMapping
-    public ResponseEntity<List<Student>> getAllStudents() {
-        return ResponseEntity.ok(studentService.getAllStudents());
+    public ResponseEntity<List<?>> getAllStudents(
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) Long after,
+        @RequestParam(required = false) String major,
+        @RequestParam(required = false) Integer minAge,
+        @RequestParam(required = false) Integer maxAge,
+        @RequestParam(required = false) String emailDomain,
+        @RequestParam(required = false) String name,
+        @RequestParam(required = false) String sort,
+        @RequestParam(required = false) String fields,
+        WebRequest request) {
+        if (request.checkNotModified(studentService.collectionETag())) {
+            return null;
+        }
+        boolean projected = major != null || minAge != null || maxAge != null || emailDomain != null
+            || name != null || sort != null || fields != null;
+        if (!projected && limit == null && after == null) {
+            return ResponseEntity.ok(studentService.getAllStudents());
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1) {
+            throw new RuntimeException("Le parametre limit doit etre positif");
+        }
+        pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (projected) {
+            StudentQuery query = StudentQuery.of(fields, major, minAge, maxAge, emailDomain, name, sort, after, pageSize);
+            List<Map<String, Object>> rows = studentService.findStudents(query);
+            if (rows.size() == pageSize && "id".equals(query.sortField()) && query.ascending()
+                && query.fields().contains("id")) {
+                response.header(NEXT_CURSOR_HEADER, String.valueOf(rows.get(rows.size() - 1).get("id")));
+            }
+            return response.body(rows);
+        }
+        List<Student> page = studentService.getStudentsPage(after, pageSize);
+        if (page.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    // Export NDJSON ligne par ligne (Accept: application/x-ndjson), memoire constante
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllStudents() {
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<Student> students = studentService.streamAllStudents();
+                 SequenceWriter writer = objectMapper.writer()
+                     .withRootValueSeparator("\n")
+                     .writeValues(new BufferedOutputStream(outputStream))) {
+                for (Student student : (Iterable<Student>) students::iterator) {
+                    writer.write(student);
+                }
+                writer.flush();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    // Agregats maintenus en memoire : cout constant quelle que soit la taille de la table
+    @GetMapping("/stats")
+    public ResponseEntity<StudentStats> getStatistics() {
+        return ResponseEntity.ok(studentService.getStatistics());
     }
 
+    // ETag fort = version de l'etudiant : si If-None-Match correspond, Spring repond 304
+    // sans serialiser le corps (l'etudiant vient du cache)
     @GetMapping("/{id}")
     public ResponseEntity<Student> getStudentById(@PathVariable Long id) {
-        return ResponseEntity.ok(studentService.getStudentById(id));
+        Student student = studentService.getStudentById(id);
+        return withETag(ResponseEntity.ok(), student).body(student);
     }
 
     @PostMapping
     public ResponseEntity<Student> createStudent(@Valid @RequestBody Student student) {
-        return ResponseEntity.status(HttpStatus.CREATED)
-            .body(studentService.createStudent(student));
+        Student created = studentService.createStudent(student);
+        return withETag(ResponseEntity.status(HttpStatus.CREATED), created).body(created);
     }
 
+    // If-Match optionnel : verrou optimiste, 412 si la version a change
     @PutMapping("/{id}")
     public ResponseEntity<Student> updateStudent(
         @PathVariable Long id,
-        @Valid @RequestBody Student student) {
-        return ResponseEntity.ok(studentService.updateStudent(id, student));
+        @Valid @RequestBody Student student,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Student updated = studentService.updateStudent(id, student, expectedVersion(ifMatch));
+        return withETag(ResponseEntity.ok(), updated).body(updated);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteStudent(@PathVariable Long id) {
-        studentService.deleteStudent(id);
+    public ResponseEntity<Void> deleteStudent(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        studentService.deleteStudent(id, expectedVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
+    // Operations en masse : chaque element est valide et rapporte individuellement
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResult> createStudents(@RequestBody List<Student> students) {
+        return ResponseEntity.ok(studentBulkService.createStudents(students));
+    }
+
+    @PutMapping("/bulk")
+    public ResponseEntity<BulkResult> updateStudents(@RequestBody List<Student> students) {
+        return ResponseEntity.ok(studentBulkService.updateStudents(students));
+    }
+
+    @DeleteMapping("/bulk")
+    public ResponseEntity<BulkResult> deleteStudents(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(studentBulkService.deleteStudents(ids));
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<List<Student>> searchStudents(@RequestParam String query) {
-        return ResponseEntity.ok(studentService.searchStudents(query));
+    public ResponseEntity<List<Student>> searchStudents(
+        @RequestParam String query,
+        @RequestParam(required = false) Integer limit) {
+        int maxResults = limit == null ? StudentService.DEFAULT_SEARCH_LIMIT : Math.min(limit, MAX_PAGE_SIZE);
+        return ResponseEntity.ok(studentService.searchStudents(query, maxResults));
+    }
+
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, Student student) {
+        return student.getVersion() == null ? builder : builder.eTag("\"" + student.getVersion() + "\"");
+    }
+
+    // If-Match: "<version>" ; "*" ou absent = pas de verification. Comparaison forte (RFC 9110) :
+    // un ETag faible ou illisible ne correspond jamais.
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // traite comme une version qui ne correspond pas
+            }
+        }
+        throw new PreconditionFailedException("If-Match ne correspond a aucune version: " + tag);
     }
 }
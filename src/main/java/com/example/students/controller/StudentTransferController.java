@@ -0,0 +1,61 @@
+package com.example.students.controller;
+
+import com.example.students.dto.ImportReport;
+import com.example.students.service.StudentTransferService;
+import com.example.students.service.StudentTransferService.Format;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Export / import de toute la table en CSV ou NDJSON, sans charger le fichier en memoire.
+// Import : format donne par le parametre format ou, a defaut, par le Content-Type du corps.
+@RestController
+@RequestMapping("/api/students")
+@CrossOrigin(origins = "http://localhost:3000")
+@Profile("!reactive")
+public class StudentTransferController {
+
+    private final StudentTransferService transferService;
+
+    // Constructeur manuel (sans Lombok)
+    public StudentTransferController(StudentTransferService transferService) {
+        this.transferService = transferService;
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "csv") String format) {
+        Format exportFormat = Format.of(format);
+        return ResponseEntity.ok()
+            .contentType(exportFormat.mediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("students." + exportFormat.extension()).build().toString())
+            .body(output -> transferService.export(exportFormat, output));
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<ImportReport> importStudents(
+        @RequestParam(required = false) String format,
+        @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+        InputStream body) throws IOException {
+        return ResponseEntity.ok(transferService.importStudents(importFormat(format, contentType), body));
+    }
+
+    private static Format importFormat(String format, String contentType) {
+        if (format != null) {
+            return Format.of(format);
+        }
+        if (contentType != null && contentType.contains("csv")) {
+            return Format.CSV;
+        }
+        if (contentType != null && (contentType.contains("ndjson") || contentType.contains("jsonl"))) {
+            return Format.NDJSON;
+        }
+        throw new RuntimeException("Format d'import non reconnu : Content-Type text/csv ou application/x-ndjson attendu");
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.students.dto;
+
+import com.example.students.model.Student;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+// Entree du journal d'audit ; student = etat apres la modification (absent pour une suppression)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AuditRecord(long sequence, Instant at, StudentChange.Type type, Long studentId, Student student) {}
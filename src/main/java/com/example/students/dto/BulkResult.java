@@ -0,0 +1,40 @@
+package com.example.students.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Rapport d'une operation en masse : un resultat par element, dans l'ordre de la requete
+public class BulkResult {
+
+    public static final String OK = "OK";
+    public static final String ERROR = "ERROR";
+
+    private final List<ItemResult> items = new ArrayList<>();
+    private int succeeded;
+    private int failed;
+
+    public void success(int index, Long id) {
+        items.add(new ItemResult(index, id, OK, null));
+        succeeded++;
+    }
+
+    public void failure(int index, Long id, String message) {
+        items.add(new ItemResult(index, id, ERROR, message));
+        failed++;
+    }
+
+    public int getProcessed() { return succeeded + failed; }
+    public int getSucceeded() { return succeeded; }
+    public int getFailed() { return failed; }
+
+    public List<ItemResult> getItems() {
+        items.sort(Comparator.comparingInt(ItemResult::index));
+        return items;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ItemResult(int index, Long id, String status, String message) {}
+}
@@ -0,0 +1,36 @@
+package com.example.students.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Rapport d'import : compteurs complets, erreurs detaillees (numero de ligne) limitees aux premieres
+public class ImportReport {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final List<LineError> errors = new ArrayList<>();
+    private long succeeded;
+    private long failed;
+
+    public void success() {
+        succeeded++;
+    }
+
+    public void failure(long line, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new LineError(line, message));
+        }
+    }
+
+    public long getProcessed() { return succeeded + failed; }
+    public long getSucceeded() { return succeeded; }
+    public long getFailed() { return failed; }
+    public List<LineError> getErrors() { return errors; }
+    public boolean isErrorsTruncated() { return failed > errors.size(); }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record LineError(long line, String message) {}
+}
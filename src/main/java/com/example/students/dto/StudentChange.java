@@ -0,0 +1,13 @@
+package com.example.students.dto;
+
+import com.example.students.model.Student;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+// Modification publiee sur le flux SSE ; sequence = partie numerique du Last-Event-ID pour la reprise
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StudentChange(long sequence, Type type, Long id, Student student, Instant at) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+}
@@ -0,0 +1,139 @@
+package com.example.students.dto;
+
+import com.example.students.model.Student;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Filtres, tri et champs demandes sur GET /api/students (projection partielle)
+public record StudentQuery(
+    List<String> fields,
+    String major,
+    Integer minAge,
+    Integer maxAge,
+    String emailDomain,
+    String namePrefix,
+    String sortField,
+    boolean ascending,
+    Long after,
+    int limit) {
+
+    public static final List<String> ALL_FIELDS = List.of("id", "firstName", "lastName", "email", "age", "major");
+    private static final Set<String> KNOWN_FIELDS = Set.copyOf(ALL_FIELDS);
+
+    // fields : "id,firstName" ; sort : "age" / "age,desc" / "-age"
+    public static StudentQuery of(String fields, String major, Integer minAge, Integer maxAge,
+                                  String emailDomain, String namePrefix, String sort, Long after, int limit) {
+        List<String> selected = fields == null || fields.isBlank()
+            ? ALL_FIELDS
+            : Arrays.stream(fields.split(",")).map(String::trim).filter(f -> !f.isEmpty()).distinct().toList();
+        selected.forEach(StudentQuery::checkField);
+
+        String sortField = "id";
+        boolean ascending = true;
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.trim().split(",");
+            sortField = parts[0].trim();
+            if (sortField.startsWith("-")) {
+                sortField = sortField.substring(1);
+                ascending = false;
+            }
+            if (parts.length > 1) {
+                ascending = !"desc".equalsIgnoreCase(parts[1].trim());
+            }
+            checkField(sortField);
+        }
+        if (after != null && !"id".equals(sortField)) {
+            throw new RuntimeException("Le curseur after n'est utilisable qu'avec le tri par id");
+        }
+        return new StudentQuery(selected, major, minAge, maxAge, emailDomain, namePrefix,
+            sortField, ascending, after, limit);
+    }
+
+    // Ordre demande puis id, NULL en premier en ordre croissant (comme H2) : pour les implementations
+    // qui trient ou fusionnent en memoire
+    public Comparator<Student> order() {
+        return comparator(sortField, ascending, ascending, false).thenComparing(Student::getId);
+    }
+
+    // Meme ordre pour un Sort Spring Data (findAll(Sort), findAll(Pageable)) : minuscules si
+    // ignoreCase, puis id
+    public static Comparator<Student> order(Sort sort) {
+        Comparator<Student> order = (a, b) -> 0;
+        for (Sort.Order field : sort) {
+            checkField(field.getProperty());
+            order = order.thenComparing(
+                comparator(field.getProperty(), field.isAscending(), nullsFirst(field), field.isIgnoreCase()));
+        }
+        return order.thenComparing(Student::getId);
+    }
+
+    // NULLS FIRST/LAST demandes, sinon ceux de H2 (NULL en premier en ordre croissant)
+    public static boolean nullsFirst(Sort.Order order) {
+        return switch (order.getNullHandling()) {
+            case NULLS_FIRST -> true;
+            case NULLS_LAST -> false;
+            case NATIVE -> order.isAscending();
+        };
+    }
+
+    private static Comparator<Student> comparator(String field, boolean ascending, boolean nullsFirst,
+                                                  boolean ignoreCase) {
+        return switch (field) {
+            case "id" -> by(Student::getId, ascending, nullsFirst);
+            case "firstName" -> by(text(Student::getFirstName, ignoreCase), ascending, nullsFirst);
+            case "lastName" -> by(text(Student::getLastName, ignoreCase), ascending, nullsFirst);
+            case "email" -> by(text(Student::getEmail, ignoreCase), ascending, nullsFirst);
+            case "age" -> by(Student::getAge, ascending, nullsFirst);
+            case "major" -> by(text(Student::getMajor, ignoreCase), ascending, nullsFirst);
+            default -> throw new RuntimeException("Champ inconnu: " + field);
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<Student> by(Function<Student, T> key,
+                                                                         boolean ascending, boolean nullsFirst) {
+        Comparator<T> values = ascending ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        return Comparator.comparing(key, nullsFirst ? Comparator.nullsFirst(values) : Comparator.nullsLast(values));
+    }
+
+    private static Function<Student, String> text(Function<Student, String> key, boolean ignoreCase) {
+        return ignoreCase ? student -> {
+            String value = key.apply(student);
+            return value == null ? null : value.toLowerCase(Locale.ROOT);
+        } : key;
+    }
+
+    // Champs demandes, dans l'ordre de la requete
+    public Map<String, Object> project(Student student) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, value(student, field));
+        }
+        return values;
+    }
+
+    public static Object value(Student student, String field) {
+        return switch (field) {
+            case "id" -> student.getId();
+            case "firstName" -> student.getFirstName();
+            case "lastName" -> student.getLastName();
+            case "email" -> student.getEmail();
+            case "age" -> student.getAge();
+            case "major" -> student.getMajor();
+            default -> throw new RuntimeException("Champ inconnu: " + field);
+        };
+    }
+
+    private static void checkField(String field) {
+        if (!KNOWN_FIELDS.contains(field)) {
+            throw new RuntimeException("Champ inconnu: " + field);
+        }
+    }
+}
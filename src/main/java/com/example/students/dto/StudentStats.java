@@ -0,0 +1,10 @@
+package com.example.students.dto;
+
+import java.util.Map;
+
+// Statistiques agregees : effectifs et age moyen par filiere, histogramme des ages
+public record StudentStats(long total, Double averageAge, Map<String, MajorStats> majors,
+                           Map<Integer, Long> ageHistogram) {
+
+    public record MajorStats(long count, Double averageAge) {}
+}
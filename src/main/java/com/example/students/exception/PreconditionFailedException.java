@@ -0,0 +1,9 @@
+package com.example.students.exception;
+
+// If-Match ne correspond plus a la version courante de l'etudiant (HTTP 412) ; sans pile d'appels
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message, null, false, false);
+    }
+}
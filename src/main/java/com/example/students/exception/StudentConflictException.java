@@ -0,0 +1,30 @@
+package com.example.students.exception;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+// Conflit avec l'etat courant, email deja utilise (HTTP 409) ; sans pile d'appels
+public class StudentConflictException extends RuntimeException {
+
+    public static final String EMAIL_EXISTS = "Un etudiant avec cet email existe deja";
+    public static final String EMAIL_IN_USE = "Cet email est deja utilise par un autre etudiant";
+    // Contrainte d'unicite de l'email (V1), reprise par le stockage reparti pour ses revendications
+    public static final String EMAIL_CONSTRAINT = "uk_students_email";
+
+    public StudentConflictException(String message) {
+        super(message, null, false, false);
+    }
+
+    // Seule la violation de uk_students_email est un conflit : les autres violations d'integrite
+    // (NOT NULL, CHECK, id refuse...) restent des erreurs de la requete
+    public static boolean isEmailConflict(DataIntegrityViolationException e) {
+        String constraint = EMAIL_CONSTRAINT.toUpperCase(Locale.ROOT);
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().toUpperCase(Locale.ROOT).contains(constraint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
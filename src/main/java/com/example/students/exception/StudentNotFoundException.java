@@ -0,0 +1,22 @@
+package com.example.students.exception;
+
+// Etudiant absent (HTTP 404). Cas attendu (id perime, balayage d'ids) : ni pile d'appels
+// capturee ni message construit tant que personne ne le lit.
+public class StudentNotFoundException extends RuntimeException {
+
+    private final Long id;
+
+    public StudentNotFoundException(Long id) {
+        super(null, null, false, false);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Etudiant non trouve avec l'id: " + id;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.students.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 
@@ -7,8 +8,10 @@ import jakarta.validation.constraints.*;
 @Table(name = "students")
 public class Student {
 
+    // Sequence a allocation groupee : Hibernate peut regrouper les INSERT en batch JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_seq")
+    @SequenceGenerator(name = "students_seq", sequenceName = "students_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Le prénom est obligatoire")
@@ -32,6 +35,19 @@ public class Student {
     @NotBlank(message = "La filière est obligatoire")
     private String major;
 
+    // Verrou optimiste, expose au client uniquement via l'ETag
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    // Colonnes generees par la base (LOWER(first_name) / LOWER(last_name), indexees),
+    // utilisees uniquement dans les filtres par prefixe de nom
+    @Column(insertable = false, updatable = false)
+    private String firstNameLower;
+
+    @Column(insertable = false, updatable = false)
+    private String lastNameLower;
+
     // Constructeurs
     public Student() {}
 
@@ -51,6 +67,7 @@ public class Student {
     public String getEmail() { return email; }
     public Integer getAge() { return age; }
     public String getMajor() { return major; }
+    public Long getVersion() { return version; }
 
     // Setters
     public void setId(Long id) { this.id = id; }
@@ -59,6 +76,7 @@ public class Student {
     public void setEmail(String email) { this.email = email; }
     public void setAge(Integer age) { this.age = age; }
     public void setMajor(String major) { this.major = major; }
+    public void setVersion(Long version) { this.version = version; }
 
     @Override
     public String toString() {
@@ -0,0 +1,119 @@
+package com.example.students.repository;
+
+import java.util.Arrays;
+
+// Table de hachage long -> long sans objets (adressage ouvert, sondage lineaire, suppression par
+// decalage arriere : ni Long ni entree allouee par operation). La cle 0 est reservee (case vide).
+// Non synchronisee : l'appelant protege les acces (OffHeapStudentStore).
+final class LongLongHashMap {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    LongLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) * 2 - 1);
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    int size() { return size; }
+
+    // Memoire occupee par les tableaux (octets)
+    long bytes() { return (long) keys.length * Long.BYTES * 2; }
+
+    long get(long key, long missing) {
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long current = keys[i];
+            if (current == key) {
+                return values[i];
+            }
+            if (current == 0) {
+                return missing;
+            }
+        }
+    }
+
+    void put(long key, long value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Cle 0 non supportee");
+        }
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            resize(keys.length * 2);
+        }
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long current = keys[i];
+            if (current == key) {
+                values[i] = value;
+                return;
+            }
+            if (current == 0) {
+                keys[i] = key;
+                values[i] = value;
+                size++;
+                return;
+            }
+        }
+    }
+
+    long remove(long key, long missing) {
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long current = keys[i];
+            if (current == 0) {
+                return missing;
+            }
+            if (current == key) {
+                long value = values[i];
+                shiftBack(i);
+                size--;
+                return value;
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    // Recolle derriere la case liberee les entrees de la meme chaine de sondage
+    private void shiftBack(int free) {
+        for (int i = (free + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            int home = index(keys[i]);
+            boolean movable = free <= i ? home <= free || home > i : home <= free && home > i;
+            if (movable) {
+                keys[free] = keys[i];
+                values[free] = values[i];
+                free = i;
+            }
+        }
+        keys[free] = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int j = index(oldKeys[i]);
+                while (keys[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private int index(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,383 @@
+package com.example.students.repository;
+
+import com.example.students.dto.StudentQuery;
+import com.example.students.model.Student;
+import org.springframework.aop.framework.AopInfrastructureBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.stream.StreamSupport;
+
+// Repository du profil "offheap" : lectures servies par OffHeapStudentStore (aucune requete, aucune
+// entite hydratee), ecritures deleguees au repository JPA puis appliquees au stockage (write-through).
+// Les ecritures faites dans une transaction englobante sont visibles avant son commit ; en cas de
+// rollback les lignes touchees sont relues en base. Tri et pages : tri en memoire du stockage.
+// AopInfrastructureBean : pas de proxy transactionnel (les @Transactional de l'interface le
+// declencheraient) ; chaque ecriture est deja transactionnelle dans le repository JPA, et un appel
+// via proxy CGLIB alloue a chaque lecture.
+@Component
+@Primary
+@Profile("offheap")
+public class OffHeapStudentRepository implements StudentRepository, AopInfrastructureBean {
+
+    private static final String SELECT = "SELECT id, first_name, last_name, email, age, major, version FROM students";
+    private static final int CHUNK_SIZE = 500;
+
+    private final StudentRepository jpaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile OffHeapStudentStore store;
+
+    // Constructeur manuel (sans Lombok)
+    public OffHeapStudentRepository(@Qualifier("studentRepository") StudentRepository jpaRepository,
+                                    JdbcTemplate jdbcTemplate) {
+        this.jpaRepository = jpaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        reload();
+    }
+
+    public OffHeapStudentStore store() { return store; }
+
+    // Recharge toute la table dans un nouveau stockage, substitue d'un bloc (lecture en flux)
+    public void reload() {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students", Long.class);
+        OffHeapStudentStore loaded = new OffHeapStudentStore((int) Math.min(Integer.MAX_VALUE / 64,
+            (rows == null ? 0 : rows) * 5 / 4 + 1024));
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT);
+            statement.setFetchSize(1000);
+            return statement;
+        }, resultSet -> {
+            loaded.upsert(toStudent(resultSet), resultSet.getLong("version"), true);
+        });
+        store = loaded;
+    }
+
+    // --- lectures ---
+
+    @Override
+    public Optional<Student> findById(Long id) {
+        return Optional.ofNullable(store.get(checkId(id)));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return store.contains(checkId(id));
+    }
+
+    @Override
+    public List<Student> findAll() {
+        return store.findAll();
+    }
+
+    // Tri en memoire, meme ordre que la requete JPA (StudentQuery.order), puis id
+    @Override
+    public List<Student> findAll(Sort sort) {
+        List<Student> students = store.findAll();
+        students.sort(StudentQuery.order(sort));
+        return students;
+    }
+
+    @Override
+    public Page<Student> findAll(Pageable pageable) {
+        List<Student> students = findAll(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(students);
+        }
+        int from = (int) Math.min(pageable.getOffset(), students.size());
+        int to = Math.min(students.size(), from + pageable.getPageSize());
+        return new PageImpl<>(new ArrayList<>(students.subList(from, to)), pageable, students.size());
+    }
+
+    @Override
+    public List<Student> findAllById(Iterable<Long> ids) {
+        List<Student> result = new ArrayList<>();
+        for (Long id : ids) {
+            Student student = store.get(checkId(id));
+            if (student != null) {
+                result.add(student);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long count() {
+        return store.size();
+    }
+
+    @Override
+    public List<Student> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName,
+                                                                                          String lastName) {
+        return store.search(firstName, lastName);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return store.emailOwner(email) >= 0;
+    }
+
+    @Override
+    public boolean existsByEmailAndIdNot(String email, Long id) {
+        long owner = store.emailOwner(email);
+        return owner >= 0 && (id == null || owner != id);
+    }
+
+    @Override
+    public List<Student> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit) {
+        if (after == null) {
+            return List.of();
+        }
+        return store.after(after, limit.isUnlimited() ? Integer.MAX_VALUE : limit.max());
+    }
+
+    @Override
+    public List<EmailOwner> findByEmailIn(Collection<String> emails) {
+        List<EmailOwner> owners = new ArrayList<>();
+        for (String email : new LinkedHashSet<>(emails)) {
+            long owner = store.emailOwner(email);
+            if (owner >= 0) {
+                owners.add(new Owner(owner, email));
+            }
+        }
+        return owners;
+    }
+
+    @Override
+    public List<MajorAgeCount> countByMajorAndAge() {
+        List<MajorAgeCount> counts = new ArrayList<>();
+        store.countByMajorAndAge().forEach((major, byAge) ->
+            byAge.forEach((age, total) -> counts.add(new Count(major, age, total))));
+        return counts;
+    }
+
+    // Lu en base : seul validateur commun aux ecritures faites hors de cette instance
+    @Override
+    public String revision() {
+        return jpaRepository.revision();
+    }
+
+    @Override
+    public List<Map<String, Object>> findProjected(StudentQuery query) {
+        String domain = query.emailDomain() == null ? null : "@" + query.emailDomain();
+        String prefix = query.namePrefix() == null ? null : query.namePrefix().toLowerCase(Locale.ROOT);
+        return store.select(query.major(), query.minAge(), query.maxAge()).stream()
+            .filter(student -> domain == null || (student.getEmail() != null && student.getEmail().endsWith(domain)))
+            .filter(student -> prefix == null || startsWith(student.getFirstName(), prefix)
+                || startsWith(student.getLastName(), prefix))
+            .filter(student -> query.after() == null || student.getId() > query.after())
+            .sorted(query.order())
+            .limit(query.limit())
+            .map(query::project)
+            .toList();
+    }
+
+    // --- ecritures ---
+
+    @Override
+    public <S extends Student> S save(S entity) {
+        S saved = jpaRepository.save(entity);
+        applySaved(List.of(saved));
+        return saved;
+    }
+
+    @Override
+    public <S extends Student> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = jpaRepository.saveAll(entities);
+        applySaved(saved);
+        return saved;
+    }
+
+    @Override
+    public void flush() {
+        jpaRepository.flush();
+    }
+
+    @Override
+    public Optional<PreviousState> updateById(Long id, String firstName, String lastName, String email,
+                                              Integer age, String major, Long version) {
+        Optional<PreviousState> previous = jpaRepository.updateById(id, firstName, lastName, email, age, major, version);
+        previous.ifPresent(state -> {
+            touched(List.of(id));
+            store.upsert(new Student(id, firstName, lastName, email, age, major), state.getVersion() + 1, false);
+        });
+        return previous;
+    }
+
+    @Override
+    public Optional<PreviousState> deleteStudentById(Long id, Long version) {
+        Optional<PreviousState> previous = jpaRepository.deleteStudentById(id, version);
+        previous.ifPresent(state -> applyDeleted(List.of(state)));
+        return previous;
+    }
+
+    @Override
+    public List<PreviousState> deleteAllReturningPrevious(Collection<Long> ids) {
+        List<PreviousState> previous = jpaRepository.deleteAllReturningPrevious(ids);
+        applyDeleted(previous);
+        return previous;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        deleteStudentById(checkId(id), null);
+    }
+
+    @Override
+    public void delete(Student entity) {
+        if (entity.getId() != null) {
+            deleteIds(List.of(entity.getId()));
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        deleteIds(StreamSupport.stream(ids.spliterator(), false).map(Long.class::cast).toList());
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Student> entities) {
+        deleteIds(StreamSupport.stream(entities.spliterator(), false)
+            .map(Student::getId).filter(Objects::nonNull).toList());
+    }
+
+    @Override
+    public void deleteAll() {
+        deleteAllInBatch();
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        jpaRepository.deleteAllInBatch();
+        touchedAll();
+        store.clear();
+    }
+
+    // --- interne ---
+
+    private void applySaved(List<? extends Student> saved) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Incremente les versions des entites modifiees avant de les recopier
+            jpaRepository.flush();
+            touched(saved.stream().map(Student::getId).toList());
+        }
+        for (Student student : saved) {
+            store.upsert(student, student.getVersion(), false);
+        }
+    }
+
+    private void applyDeleted(List<PreviousState> previous) {
+        touched(previous.stream().map(PreviousState::getId).toList());
+        for (PreviousState state : previous) {
+            store.delete(state.getId(), state.getVersion() + 1, false);
+        }
+    }
+
+    private void deleteIds(List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            deleteAllReturningPrevious(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+        }
+    }
+
+    // Retient les ids ecrits dans la transaction en cours pour les relire en cas de rollback
+    private void touched(Collection<Long> ids) {
+        RollbackRepair repair = repair();
+        if (repair != null) {
+            repair.ids.addAll(ids);
+        }
+    }
+
+    private void touchedAll() {
+        RollbackRepair repair = repair();
+        if (repair != null) {
+            repair.all = true;
+        }
+    }
+
+    private RollbackRepair repair() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        RollbackRepair repair = (RollbackRepair) TransactionSynchronizationManager.getResource(this);
+        if (repair == null) {
+            repair = new RollbackRepair();
+            TransactionSynchronizationManager.bindResource(this, repair);
+            TransactionSynchronizationManager.registerSynchronization(repair);
+        }
+        return repair;
+    }
+
+    private void reload(Collection<Long> ids) {
+        List<Long> all = List.copyOf(ids);
+        for (int from = 0; from < all.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = all.subList(from, Math.min(from + CHUNK_SIZE, all.size()));
+            Set<Long> missing = new HashSet<>(chunk);
+            jdbcTemplate.query(SELECT + " WHERE id IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")",
+                resultSet -> {
+                    Student student = toStudent(resultSet);
+                    missing.remove(student.getId());
+                    store.upsert(student, resultSet.getLong("version"), true);
+                }, chunk.toArray());
+            missing.forEach(id -> store.delete(id, -1, true));
+        }
+    }
+
+    private static Student toStudent(java.sql.ResultSet resultSet) throws java.sql.SQLException {
+        Student student = new Student(resultSet.getLong("id"), resultSet.getString("first_name"),
+            resultSet.getString("last_name"), resultSet.getString("email"),
+            resultSet.getObject("age", Integer.class), resultSet.getString("major"));
+        student.setVersion(resultSet.getLong("version"));
+        return student;
+    }
+
+    private static long checkId(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("L'id ne doit pas etre null");
+        }
+        return id;
+    }
+
+    private static boolean startsWith(String value, String lowerCasePrefix) {
+        return value != null && value.toLowerCase(Locale.ROOT).startsWith(lowerCasePrefix);
+    }
+
+    private final class RollbackRepair implements TransactionSynchronization {
+
+        private final Set<Long> ids = new HashSet<>();
+        private boolean all;
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OffHeapStudentRepository.this);
+            if (status == STATUS_COMMITTED) {
+                return;
+            }
+            if (all) {
+                reload();
+            } else {
+                reload(ids);
+            }
+        }
+    }
+
+    private record Owner(Long id, String email) implements EmailOwner {
+        public Long getId() { return id; }
+        public String getEmail() { return email; }
+    }
+
+    private record Count(String major, Integer age, Long total) implements MajorAgeCount {
+        public String getMajor() { return major; }
+        public Integer getAge() { return age; }
+        public Long getTotal() { return total; }
+    }
+}
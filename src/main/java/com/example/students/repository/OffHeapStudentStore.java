@@ -0,0 +1,675 @@
+package com.example.students.repository;
+
+import com.example.students.model.Student;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+// Stockage en colonnes hors tas (ByteBuffer directs), une colonne par champ :
+//   ids, versions (long, id 0 = emplacement libre) ; ages (int) ; majors (short : filiere internee) ;
+//   texts (int : position dans l'arene du bloc prenom/nom/email, longueur + UTF-8) ; emailHashes (int).
+// Index primitifs : id -> emplacement (LongLongHashMap), email -> emplacement (adressage ouvert),
+// ids tries pour la pagination par curseur. Aucun objet par ligne sur le tas : les Student ne sont
+// materialises qu'a la lecture. Lectures optimistes (StampedLock), ecritures exclusives.
+// Versions : une ecriture n'est appliquee que si sa version depasse celle connue pour l'id (ligne ou
+// suppression), l'ordre d'application peut donc differer de l'ordre des commits.
+public final class OffHeapStudentStore {
+
+    private static final int NO_AGE = Integer.MIN_VALUE;
+    private static final short NO_MAJOR = -1;
+    private static final int EMPTY = 0;
+    private static final int REMOVED = -1;
+    private static final int MIN_COMPACTION = 1 << 20;
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[Short.MAX_VALUE]);
+
+    private final StampedLock lock = new StampedLock();
+
+    private int capacity;
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private ByteBuffer ids;
+    private ByteBuffer versions;
+    private ByteBuffer ages;
+    private ByteBuffer majors;
+    private ByteBuffer texts;
+    private ByteBuffer emailHashes;
+
+    private ByteBuffer arena;
+    private int arenaUsed;
+    private int arenaGarbage;
+
+    private final LongLongHashMap slotsById;
+    private final LongLongHashMap deletedVersions = new LongLongHashMap(16);
+    // Emplacement + 1 ; EMPTY = case vide, REMOVED = case liberee (sondage continue)
+    private int[] emailTable;
+    private int emailEntries;
+    // Ids croissants ; les ids supprimes restent jusqu'au compactage (filtres a la lecture)
+    private long[] sortedIds;
+    private int sortedCount;
+    private int sortedGarbage;
+    private volatile String[] majorNames = new String[0];
+    private final Map<String, Short> majorCodes = new HashMap<>();
+
+    public OffHeapStudentStore(int expectedRows) {
+        capacity = Math.max(16, expectedRows);
+        ids = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+        versions = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+        ages = ByteBuffer.allocateDirect(capacity * Integer.BYTES);
+        majors = ByteBuffer.allocateDirect(capacity * Short.BYTES);
+        texts = ByteBuffer.allocateDirect(capacity * Integer.BYTES);
+        emailHashes = ByteBuffer.allocateDirect(capacity * Integer.BYTES);
+        arena = ByteBuffer.allocateDirect(capacity * 48);
+        slotsById = new LongLongHashMap(capacity);
+        emailTable = new int[Integer.highestOneBit(capacity * 4 - 1)];
+        sortedIds = new long[capacity];
+    }
+
+    // --- ecritures ---
+
+    // Insere ou remplace la ligne si version depasse la version connue (force : sans condition)
+    public boolean upsert(Student student, long version, boolean force) {
+        long id = student.getId();
+        long stamp = lock.writeLock();
+        try {
+            int slot = (int) slotsById.get(id, -1);
+            if (!force) {
+                long known = slot >= 0 ? versions.getLong(slot * 8) : deletedVersions.get(id, -1);
+                if (version <= known) {
+                    return false;
+                }
+            }
+            deletedVersions.remove(id, -1);
+            if (slot < 0) {
+                slot = allocateSlot();
+                slotsById.put(id, slot);
+                ids.putLong(slot * 8, id);
+                insertSorted(id);
+            } else {
+                removeEmail(slot);
+                arenaGarbage += textLength(texts.getInt(slot * 4));
+            }
+            versions.putLong(slot * 8, version);
+            ages.putInt(slot * 4, student.getAge() == null ? NO_AGE : student.getAge());
+            majors.putShort(slot * 2, majorCode(student.getMajor()));
+            texts.putInt(slot * 4, writeTexts(student.getFirstName(), student.getLastName(), student.getEmail()));
+            emailHashes.putInt(slot * 4, hash(student.getEmail()));
+            addEmail(slot);
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Supprime la ligne si elle est anterieure a version et retient la suppression (force : sans condition)
+    public boolean delete(long id, long version, boolean force) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = (int) slotsById.get(id, -1);
+            if (!force && slot >= 0 && versions.getLong(slot * 8) >= version) {
+                return false;
+            }
+            if (version > deletedVersions.get(id, -1)) {
+                deletedVersions.put(id, version);
+            }
+            if (slot < 0) {
+                return false;
+            }
+            removeSlot(slot);
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            slotsById.clear();
+            deletedVersions.clear();
+            Arrays.fill(emailTable, EMPTY);
+            emailEntries = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                ids.putLong(slot * 8, 0);
+            }
+            slotCount = 0;
+            freeCount = 0;
+            sortedCount = 0;
+            sortedGarbage = 0;
+            arenaUsed = 0;
+            arenaGarbage = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // --- lectures ---
+
+    // Chemin critique : pas de lambda ni de boite intermediaire, seul le Student renvoye est alloue
+    public Student get(long id) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Student student = read(id);
+                if (lock.validate(stamp)) {
+                    return student;
+                }
+            } catch (RuntimeException e) {
+                // etat incoherent lu pendant une ecriture : relu sous verrou
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return read(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Version de la ligne, -1 si absente (sans allocation)
+    public long version(long id) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                int slot = (int) slotsById.get(id, -1);
+                long version = slot >= 0 ? versions.getLong(slot * 8) : -1;
+                if (lock.validate(stamp)) {
+                    return version;
+                }
+            } catch (RuntimeException e) {
+                // etat incoherent lu pendant une ecriture : relu sous verrou
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            int slot = (int) slotsById.get(id, -1);
+            return slot >= 0 ? versions.getLong(slot * 8) : -1;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean contains(long id) {
+        return version(id) >= 0;
+    }
+
+    public int size() {
+        return optimistic(slotsById::size);
+    }
+
+    // Id du proprietaire de l'email, -1 si aucun
+    public long emailOwner(String email) {
+        if (email == null) {
+            return -1;
+        }
+        return optimistic(() -> {
+            int slot = findEmail(email);
+            return slot >= 0 ? ids.getLong(slot * 8) : -1L;
+        });
+    }
+
+    public List<Student> findAll() {
+        return optimistic(() -> {
+            List<Student> result = new ArrayList<>(slotsById.size());
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (ids.getLong(slot * 8) != 0) {
+                    result.add(materialize(slot));
+                }
+            }
+            return result;
+        });
+    }
+
+    // Pagination par curseur : ids > after, croissants
+    public List<Student> after(long after, int limit) {
+        return optimistic(() -> {
+            List<Student> result = new ArrayList<>(Math.min(limit, 1024));
+            for (int i = firstAfter(after); i < sortedCount && result.size() < limit; i++) {
+                int slot = (int) slotsById.get(sortedIds[i], -1);
+                if (slot >= 0) {
+                    result.add(materialize(slot));
+                }
+            }
+            return result;
+        });
+    }
+
+    // Filtres sur les colonnes primitives avant de materialiser la ligne
+    public List<Student> select(String major, Integer minAge, Integer maxAge) {
+        return optimistic(() -> {
+            short code = major == null ? NO_MAJOR : majorCodes.getOrDefault(major, Short.MIN_VALUE);
+            List<Student> result = new ArrayList<>();
+            if (code == Short.MIN_VALUE) {
+                return result;
+            }
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (ids.getLong(slot * 8) == 0
+                        || (major != null && majors.getShort(slot * 2) != code)) {
+                    continue;
+                }
+                int age = ages.getInt(slot * 4);
+                if ((minAge != null && (age == NO_AGE || age < minAge))
+                        || (maxAge != null && (age == NO_AGE || age > maxAge))) {
+                    continue;
+                }
+                result.add(materialize(slot));
+            }
+            return result;
+        });
+    }
+
+    // Sous-chaines insensibles a la casse : prenom contient firstName ou nom contient lastName
+    public List<Student> search(String firstName, String lastName) {
+        String first = firstName == null ? null : firstName.toLowerCase(Locale.ROOT);
+        String last = lastName == null ? null : lastName.toLowerCase(Locale.ROOT);
+        return optimistic(() -> {
+            List<Student> result = new ArrayList<>();
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (ids.getLong(slot * 8) == 0) {
+                    continue;
+                }
+                int position = texts.getInt(slot * 4);
+                if (contains(readText(position), first)
+                        || contains(readText(position + 2 + Math.max(0, arena.getShort(position))), last)) {
+                    result.add(materialize(slot));
+                }
+            }
+            return result;
+        });
+    }
+
+    // Nombre de lignes par (filiere, age) : cle = code filiere << 32 | age
+    public Map<String, Map<Integer, Long>> countByMajorAndAge() {
+        return optimistic(() -> {
+            Map<Long, Long> counts = new HashMap<>();
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (ids.getLong(slot * 8) != 0) {
+                    long key = ((long) majors.getShort(slot * 2) << 32) | (ages.getInt(slot * 4) & 0xFFFFFFFFL);
+                    counts.merge(key, 1L, Long::sum);
+                }
+            }
+            String[] names = majorNames;
+            Map<String, Map<Integer, Long>> result = new HashMap<>();
+            counts.forEach((key, total) -> {
+                short code = (short) (key >> 32);
+                int age = (int) (long) key;
+                result.computeIfAbsent(code == NO_MAJOR ? null : names[code], m -> new HashMap<>())
+                    .put(age == NO_AGE ? null : age, total);
+            });
+            return result;
+        });
+    }
+
+    // Octets hors tas reserves (colonnes + arene) et utilises
+    public long offHeapCapacity() {
+        return optimistic(() -> (long) ids.capacity() + versions.capacity() + ages.capacity()
+            + majors.capacity() + texts.capacity() + emailHashes.capacity() + arena.capacity());
+    }
+
+    public long offHeapUsed() {
+        return optimistic(() -> (long) slotCount * (8 + 8 + 4 + 2 + 4 + 4) + arenaUsed);
+    }
+
+    // Octets sur le tas : index et tableaux primitifs
+    public long heapIndexBytes() {
+        return optimistic(() -> slotsById.bytes() + deletedVersions.bytes() + (long) emailTable.length * 4
+            + (long) sortedIds.length * 8 + (long) freeSlots.length * 4);
+    }
+
+    // --- interne ---
+
+    private <T> T optimistic(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // etat incoherent lu pendant une ecriture : relu sous verrou
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Student read(long id) {
+        int slot = (int) slotsById.get(id, -1);
+        return slot < 0 ? null : materialize(slot);
+    }
+
+    private Student materialize(int slot) {
+        int position = texts.getInt(slot * 4);
+        String firstName = readText(position);
+        position += 2 + Math.max(0, arena.getShort(position));
+        String lastName = readText(position);
+        position += 2 + Math.max(0, arena.getShort(position));
+        String email = readText(position);
+        int age = ages.getInt(slot * 4);
+        short major = majors.getShort(slot * 2);
+        Student student = new Student(ids.getLong(slot * 8), firstName, lastName, email,
+            age == NO_AGE ? null : age, major == NO_MAJOR ? null : majorNames[major]);
+        student.setVersion(versions.getLong(slot * 8));
+        return student;
+    }
+
+    private static boolean contains(String value, String lowerCaseTerm) {
+        return value != null && lowerCaseTerm != null && value.toLowerCase(Locale.ROOT).contains(lowerCaseTerm);
+    }
+
+    private String readText(int position) {
+        short length = arena.getShort(position);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = SCRATCH.get();
+        arena.get(position + 2, bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private int textLength(int position) {
+        int start = position;
+        for (int field = 0; field < 3; field++) {
+            position += 2 + Math.max(0, arena.getShort(position));
+        }
+        return position - start;
+    }
+
+    private int writeTexts(String firstName, String lastName, String email) {
+        byte[] first = encode(firstName);
+        byte[] last = encode(lastName);
+        byte[] mail = encode(email);
+        int length = 6 + length(first) + length(last) + length(mail);
+        if (arenaUsed + length > arena.capacity()) {
+            compactArena(length);
+        }
+        int position = arenaUsed;
+        int cursor = putText(position, first);
+        cursor = putText(cursor, last);
+        putText(cursor, mail);
+        arenaUsed += length;
+        return position;
+    }
+
+    private int putText(int position, byte[] bytes) {
+        arena.putShort(position, (short) (bytes == null ? -1 : bytes.length));
+        if (bytes != null) {
+            arena.put(position + 2, bytes);
+        }
+        return position + 2 + length(bytes);
+    }
+
+    private static byte[] encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Texte trop long pour le stockage hors tas");
+        }
+        return bytes;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    // Recopie les blocs vivants dans une nouvelle arene (agrandie si necessaire)
+    private void compactArena(int extra) {
+        int live = arenaUsed - arenaGarbage;
+        int size = arena.capacity();
+        while (size < (long) live + extra + size / 4) {
+            size = (int) Math.min(Integer.MAX_VALUE - 8, size * 2L);
+        }
+        ByteBuffer target = ByteBuffer.allocateDirect(size);
+        int cursor = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (ids.getLong(slot * 8) == 0) {
+                continue;
+            }
+            int position = texts.getInt(slot * 4);
+            int length = textLength(position);
+            target.put(cursor, arena, position, length);
+            texts.putInt(slot * 4, cursor);
+            cursor += length;
+        }
+        arena = target;
+        arenaUsed = cursor;
+        arenaGarbage = 0;
+    }
+
+    private void compactIfNeeded() {
+        if (arenaGarbage > MIN_COMPACTION && arenaGarbage > arenaUsed / 2) {
+            compactArena(0);
+        }
+        if (sortedGarbage > 1024 && sortedGarbage > sortedCount / 4) {
+            int kept = 0;
+            for (int i = 0; i < sortedCount; i++) {
+                if (slotsById.get(sortedIds[i], -1) >= 0) {
+                    sortedIds[kept++] = sortedIds[i];
+                }
+            }
+            sortedCount = kept;
+            sortedGarbage = 0;
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == capacity) {
+            growColumns(capacity * 2);
+        }
+        return slotCount++;
+    }
+
+    private void removeSlot(int slot) {
+        slotsById.remove(ids.getLong(slot * 8), -1);
+        removeEmail(slot);
+        arenaGarbage += textLength(texts.getInt(slot * 4));
+        ids.putLong(slot * 8, 0);
+        sortedGarbage++;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void growColumns(int newCapacity) {
+        ids = grow(ids, newCapacity * Long.BYTES);
+        versions = grow(versions, newCapacity * Long.BYTES);
+        ages = grow(ages, newCapacity * Integer.BYTES);
+        majors = grow(majors, newCapacity * Short.BYTES);
+        texts = grow(texts, newCapacity * Integer.BYTES);
+        emailHashes = grow(emailHashes, newCapacity * Integer.BYTES);
+        capacity = newCapacity;
+    }
+
+    private static ByteBuffer grow(ByteBuffer column, int bytes) {
+        ByteBuffer target = ByteBuffer.allocateDirect(bytes);
+        target.put(0, column, 0, column.capacity());
+        return target;
+    }
+
+    private short majorCode(String major) {
+        if (major == null) {
+            return NO_MAJOR;
+        }
+        Short code = majorCodes.get(major);
+        if (code == null) {
+            String[] names = majorNames;
+            if (names.length == Short.MAX_VALUE) {
+                throw new IllegalStateException("Trop de filieres distinctes pour le stockage hors tas");
+            }
+            code = (short) names.length;
+            String[] copy = Arrays.copyOf(names, names.length + 1);
+            copy[code] = major;
+            majorNames = copy;
+            majorCodes.put(major, code);
+        }
+        return code;
+    }
+
+    // --- ids tries ---
+
+    private void insertSorted(long id) {
+        if (sortedCount == 0 || sortedIds[sortedCount - 1] < id) {
+            if (sortedCount == sortedIds.length) {
+                sortedIds = Arrays.copyOf(sortedIds, sortedCount * 2);
+            }
+            sortedIds[sortedCount++] = id;
+            return;
+        }
+        int index = Arrays.binarySearch(sortedIds, 0, sortedCount, id);
+        if (index >= 0) {
+            // id supprime puis recree : l'entree encore presente redevient valide
+            sortedGarbage--;
+            return;
+        }
+        int insertion = -index - 1;
+        if (sortedCount == sortedIds.length) {
+            sortedIds = Arrays.copyOf(sortedIds, sortedCount * 2);
+        }
+        System.arraycopy(sortedIds, insertion, sortedIds, insertion + 1, sortedCount - insertion);
+        sortedIds[insertion] = id;
+        sortedCount++;
+    }
+
+    private int firstAfter(long after) {
+        int index = Arrays.binarySearch(sortedIds, 0, sortedCount, after);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    // --- index des emails ---
+
+    private static int hash(String email) {
+        return email == null ? 0 : email.hashCode();
+    }
+
+    private int findEmail(String email) {
+        int hash = email.hashCode();
+        int mask = emailTable.length - 1;
+        for (int i = mix(hash) & mask, probes = 0; probes < emailTable.length; i = (i + 1) & mask, probes++) {
+            int entry = emailTable[i];
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (entry != REMOVED) {
+                int slot = entry - 1;
+                if (emailHashes.getInt(slot * 4) == hash && emailEquals(slot, email)) {
+                    return slot;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // Compare l'email stocke sans le decoder tant qu'il est en ASCII
+    private boolean emailEquals(int slot, String email) {
+        int position = texts.getInt(slot * 4);
+        position += 2 + Math.max(0, arena.getShort(position));
+        position += 2 + Math.max(0, arena.getShort(position));
+        short length = arena.getShort(position);
+        if (length < 0 || length < email.length()) {
+            return false;
+        }
+        if (length == email.length()) {
+            boolean ascii = true;
+            for (int i = 0; i < length; i++) {
+                byte b = arena.get(position + 2 + i);
+                if (b < 0) {
+                    ascii = false;
+                    break;
+                }
+                if (b != email.charAt(i)) {
+                    return false;
+                }
+            }
+            if (ascii) {
+                return true;
+            }
+        }
+        return email.equals(readText(position));
+    }
+
+    private void addEmail(int slot) {
+        if (arena.getShort(emailPosition(slot)) < 0) {
+            return;
+        }
+        if ((emailEntries + 1) * 2 > emailTable.length) {
+            rebuildEmailTable(emailTable.length);
+        }
+        int mask = emailTable.length - 1;
+        int i = mix(emailHashes.getInt(slot * 4)) & mask;
+        while (emailTable[i] != EMPTY && emailTable[i] != REMOVED) {
+            i = (i + 1) & mask;
+        }
+        if (emailTable[i] == EMPTY) {
+            emailEntries++;
+        }
+        emailTable[i] = slot + 1;
+    }
+
+    private void removeEmail(int slot) {
+        int mask = emailTable.length - 1;
+        for (int i = mix(emailHashes.getInt(slot * 4)) & mask; emailTable[i] != EMPTY; i = (i + 1) & mask) {
+            if (emailTable[i] == slot + 1) {
+                emailTable[i] = REMOVED;
+                return;
+            }
+        }
+    }
+
+    private int emailPosition(int slot) {
+        int position = texts.getInt(slot * 4);
+        position += 2 + Math.max(0, arena.getShort(position));
+        return position + 2 + Math.max(0, arena.getShort(position));
+    }
+
+    private void rebuildEmailTable(int size) {
+        int live = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (ids.getLong(slot * 8) != 0) {
+                live++;
+            }
+        }
+        // Cases liberees purgees ; agrandie seulement si les emails vivants l'exigent
+        while ((live + 1) * 2 > size) {
+            size *= 2;
+        }
+        int[] table = new int[size];
+        int mask = size - 1;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (ids.getLong(slot * 8) == 0 || arena.getShort(emailPosition(slot)) < 0) {
+                continue;
+            }
+            int i = mix(emailHashes.getInt(slot * 4)) & mask;
+            while (table[i] != EMPTY) {
+                i = (i + 1) & mask;
+            }
+            table[i] = slot + 1;
+        }
+        emailTable = table;
+        emailEntries = live;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
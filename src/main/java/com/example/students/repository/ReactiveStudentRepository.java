@@ -0,0 +1,140 @@
+package com.example.students.repository;
+
+import com.example.students.model.Student;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+// Acces R2DBC non bloquant a la table students pour le profil "reactive".
+// Le pool n'est pas expose comme bean : un bean ConnectionFactory desactiverait la DataSource JDBC.
+@Repository
+@Profile("reactive")
+public class ReactiveStudentRepository {
+
+    private static final String COLUMNS = "id, first_name, last_name, email, age, major";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveStudentRepository(@Value("${students.r2dbc.url}") String url,
+                                     @Value("${students.r2dbc.pool.max-size:20}") int maxPoolSize,
+                                     @Value("${spring.datasource.username}") String username,
+                                     @Value("${spring.datasource.password}") String password) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+            .option(ConnectionFactoryOptions.USER, username)
+            .option(ConnectionFactoryOptions.PASSWORD, password)
+            .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+            .builder(ConnectionFactories.get(options))
+            .maxSize(maxPoolSize)
+            .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionPool.dispose();
+    }
+
+    public Flux<Student> findAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM students ORDER BY id")
+            .map(ReactiveStudentRepository::toStudent)
+            .all();
+    }
+
+    public Flux<Student> findByIdGreaterThan(long after, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM students WHERE id > :after ORDER BY id LIMIT :limit")
+            .bind("after", after)
+            .bind("limit", limit)
+            .map(ReactiveStudentRepository::toStudent)
+            .all();
+    }
+
+    public Mono<Student> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM students WHERE id = :id")
+            .bind("id", id)
+            .map(ReactiveStudentRepository::toStudent)
+            .one();
+    }
+
+    // % et _ saisis par le client sont cherches tels quels (ESCAPE), minuscules independantes de la locale
+    public Flux<Student> search(String query, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM students WHERE first_name_lower LIKE :pattern "
+                + "ESCAPE '\\' OR last_name_lower LIKE :pattern ESCAPE '\\' ORDER BY id LIMIT :limit")
+            .bind("pattern", "%" + StudentQueryRepositoryImpl.escapeLike(query.toLowerCase(Locale.ROOT)) + "%")
+            .bind("limit", limit)
+            .map(ReactiveStudentRepository::toStudent)
+            .all();
+    }
+
+    // Chaque NEXT VALUE reserve un bloc d'allocationSize ids (optimiseur pooled-lo cote JPA) :
+    // les ids restent uniques entre les deux piles, au prix de trous dans la numerotation
+    public Mono<Student> insert(Student student) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM FINAL TABLE (INSERT INTO students (" + COLUMNS + ") "
+                + "VALUES (NEXT VALUE FOR students_seq, :firstName, :lastName, :email, :age, :major))")
+            .bind("firstName", student.getFirstName())
+            .bind("lastName", student.getLastName())
+            .bind("email", student.getEmail())
+            .bind("age", student.getAge())
+            .bind("major", student.getMajor())
+            .map(ReactiveStudentRepository::toStudent)
+            .one();
+    }
+
+    // Ecritures renvoyant l'etat precedent de la ligne (table delta OLD TABLE de H2, comme
+    // StudentRepository) : vide = etudiant inexistant ; alimente les statistiques incrementales
+    public Mono<StudentRepository.PreviousState> updateById(Long id, Student student) {
+        return databaseClient.sql("SELECT id, major, age, version FROM OLD TABLE (UPDATE students SET "
+                + "first_name = :firstName, last_name = :lastName, email = :email, age = :age, major = :major, "
+                + "version = version + 1 WHERE id = :id)")
+            .bind("id", id)
+            .bind("firstName", student.getFirstName())
+            .bind("lastName", student.getLastName())
+            .bind("email", student.getEmail())
+            .bind("age", student.getAge())
+            .bind("major", student.getMajor())
+            .map(ReactiveStudentRepository::toPrevious)
+            .one();
+    }
+
+    public Mono<StudentRepository.PreviousState> deleteById(Long id) {
+        return databaseClient.sql("SELECT id, major, age, version FROM OLD TABLE (DELETE FROM students WHERE id = :id)")
+            .bind("id", id)
+            .map(ReactiveStudentRepository::toPrevious)
+            .one();
+    }
+
+    private static Student toStudent(Readable row) {
+        return new Student(
+            row.get("id", Long.class),
+            row.get("first_name", String.class),
+            row.get("last_name", String.class),
+            row.get("email", String.class),
+            row.get("age", Integer.class),
+            row.get("major", String.class));
+    }
+
+    private static StudentRepository.PreviousState toPrevious(Readable row) {
+        return new Previous(row.get("id", Long.class), row.get("major", String.class),
+            row.get("age", Integer.class), row.get("version", Long.class));
+    }
+
+    private record Previous(Long id, String major, Integer age, Long version)
+        implements StudentRepository.PreviousState {
+        public Long getId() { return id; }
+        public String getMajor() { return major; }
+        public Integer getAge() { return age; }
+        public Long getVersion() { return version; }
+    }
+}
@@ -0,0 +1,590 @@
+package com.example.students.repository;
+
+import com.example.students.dto.StudentQuery;
+import com.example.students.exception.StudentConflictException;
+import com.example.students.model.Student;
+import org.springframework.aop.framework.AopInfrastructureBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+// Repository du profil "sharded" : chaque etudiant vit dans le shard de hash(id) (StudentShards),
+// ids Snowflake. Unicite des emails : revendication dans student_emails du shard de hash(email)
+// avant toute ecriture de ligne, liberee apres (ou en cas d'echec). Lectures multi-shards en
+// parallele, fusionnees dans l'ordre demande. Pas de transaction distribuee : chaque instruction est
+// validee sur son shard ; seuls les conflits d'email (detectes avant d'ecrire) laissent saveAll
+// sans effet.
+// AopInfrastructureBean : pas de proxy transactionnel, aucune transaction JPA n'est concernee.
+@Component
+@Primary
+@Profile("sharded")
+public class ShardedStudentRepository implements StudentRepository, AopInfrastructureBean {
+
+    private static final String COLUMNS = "id, first_name, last_name, email, age, major, version";
+    private static final String PREVIOUS_COLUMNS = "id, major, age, version, email";
+    private static final Map<String, String> COLUMN_BY_FIELD = Map.of("id", "id", "firstName", "first_name",
+        "lastName", "last_name", "email", "email", "age", "age", "major", "major");
+
+    private static final RowMapper<Student> STUDENT = (resultSet, row) -> {
+        Student student = new Student(resultSet.getLong("id"), resultSet.getString("first_name"),
+            resultSet.getString("last_name"), resultSet.getString("email"),
+            resultSet.getObject("age", Integer.class), resultSet.getString("major"));
+        student.setVersion(resultSet.getLong("version"));
+        return student;
+    };
+    private static final RowMapper<Previous> PREVIOUS = (resultSet, row) -> new Previous(resultSet.getLong("id"),
+        resultSet.getString("major"), resultSet.getObject("age", Integer.class), resultSet.getLong("version"),
+        resultSet.getString("email"));
+
+    private final StudentShards shards;
+    private final SnowflakeIdGenerator idGenerator;
+    private final Duration orphanClaimTimeout;
+
+    // Constructeur manuel (sans Lombok)
+    public ShardedStudentRepository(StudentShards shards, SnowflakeIdGenerator idGenerator,
+                                    @Value("${students.shards.orphan-claim-timeout:PT1M}") Duration orphanClaimTimeout) {
+        this.shards = shards;
+        this.idGenerator = idGenerator;
+        this.orphanClaimTimeout = orphanClaimTimeout;
+    }
+
+    // --- lectures ---
+
+    @Override
+    public Optional<Student> findById(Long id) {
+        return shardOf(checkId(id)).query("SELECT " + COLUMNS + " FROM students WHERE id = ?", STUDENT, id)
+            .stream().findFirst();
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return !shardOf(checkId(id)).queryForList("SELECT id FROM students WHERE id = ?", Long.class, id).isEmpty();
+    }
+
+    @Override
+    public List<Student> findAll() {
+        return merge(shards.scatter(shard -> shard.query("SELECT " + COLUMNS + " FROM students", STUDENT)),
+            Comparator.comparing(Student::getId), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Student> findAll(Sort sort) {
+        Comparator<Student> order = StudentQuery.order(sort);
+        return merge(shards.scatter(shard -> shard.query("SELECT " + COLUMNS + " FROM students" + orderBy(sort),
+            STUDENT)), order, Integer.MAX_VALUE);
+    }
+
+    // Chaque shard renvoie ses offset + size premieres lignes, la fusion garde la page demandee
+    @Override
+    public Page<Student> findAll(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAll(pageable.getSort()));
+        }
+        Comparator<Student> order = StudentQuery.order(pageable.getSort());
+        int end = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+        List<Student> first = merge(shards.scatter(shard -> shard.query("SELECT " + COLUMNS + " FROM students"
+            + orderBy(pageable.getSort()) + " LIMIT ?", STUDENT, end)), order, end);
+        int from = (int) Math.min(pageable.getOffset(), first.size());
+        return new PageImpl<>(new ArrayList<>(first.subList(from, first.size())), pageable, count());
+    }
+
+    @Override
+    public List<Student> findAllById(Iterable<Long> ids) {
+        Map<Integer, List<Long>> byShard = new HashMap<>();
+        for (Long id : ids) {
+            byShard.computeIfAbsent(shards.shardOf(checkId(id)), shard -> new ArrayList<>()).add(id);
+        }
+        if (byShard.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return merge(shards.onShards(byShard, (shard, group) -> shard.query("SELECT " + COLUMNS
+                + " FROM students WHERE id IN (" + placeholders(group.size()) + ")", STUDENT, group.toArray())),
+            Comparator.comparing(Student::getId), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long count() {
+        return shards.scatter(shard -> shard.queryForObject("SELECT COUNT(*) FROM students", Long.class))
+            .stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public List<Student> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName,
+                                                                                          String lastName) {
+        return merge(shards.scatter(shard -> shard.query("SELECT " + COLUMNS + " FROM students "
+                + "WHERE first_name_lower LIKE ? ESCAPE '\\' OR last_name_lower LIKE ? ESCAPE '\\'",
+                STUDENT, containing(firstName), containing(lastName))),
+            Comparator.comparing(Student::getId), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return owner(email) != null;
+    }
+
+    @Override
+    public boolean existsByEmailAndIdNot(String email, Long id) {
+        Long owner = owner(email);
+        return owner != null && !owner.equals(id);
+    }
+
+    // Chaque shard renvoie sa page, la fusion garde les limit premiers ids
+    @Override
+    public List<Student> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit) {
+        if (after == null) {
+            return new ArrayList<>();
+        }
+        int max = limit.isUnlimited() ? Integer.MAX_VALUE : limit.max();
+        return merge(shards.scatter(shard -> shard.query("SELECT " + COLUMNS + " FROM students WHERE id > ? "
+                + "ORDER BY id LIMIT ?", STUDENT, after, max)),
+            Comparator.comparing(Student::getId), max);
+    }
+
+    @Override
+    public List<EmailOwner> findByEmailIn(Collection<String> emails) {
+        Map<Integer, List<String>> byShard = new HashMap<>();
+        for (String email : new LinkedHashSet<>(emails)) {
+            byShard.computeIfAbsent(shards.shardOfEmail(email), shard -> new ArrayList<>()).add(email);
+        }
+        if (byShard.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<EmailOwner> owners = new ArrayList<>();
+        shards.onShards(byShard, (shard, group) -> shard.query("SELECT student_id, email FROM student_emails "
+                + "WHERE email IN (" + placeholders(group.size()) + ")",
+                (resultSet, row) -> (EmailOwner) new Owner(resultSet.getLong("student_id"), resultSet.getString("email")),
+                group.toArray()))
+            .forEach(owners::addAll);
+        return owners;
+    }
+
+    @Override
+    public List<MajorAgeCount> countByMajorAndAge() {
+        Map<List<Object>, Long> totals = new HashMap<>();
+        shards.scatter(shard -> shard.query("SELECT major, age, COUNT(*) AS total FROM students GROUP BY major, age",
+                (resultSet, row) -> new Count(resultSet.getString("major"), resultSet.getObject("age", Integer.class),
+                    resultSet.getLong("total"))))
+            .forEach(counts -> counts.forEach(count ->
+                totals.merge(Arrays.asList(count.major(), count.age()), count.total(), Long::sum)));
+        List<MajorAgeCount> counts = new ArrayList<>(totals.size());
+        totals.forEach((key, total) -> counts.add(new Count((String) key.get(0), (Integer) key.get(1), total)));
+        return counts;
+    }
+
+    // Etat de chaque shard, dans l'ordre des shards
+    @Override
+    public String revision() {
+        return String.join(".", shards.scatter(shard -> shard.queryForObject("SELECT CONCAT(COUNT(*), '-', "
+            + "COALESCE(SUM(id), 0), '-', COALESCE(SUM(version), 0)) FROM students", String.class)));
+    }
+
+    // Meme requete filtree, triee et limitee sur chaque shard, fusion dans l'ordre de la requete
+    @Override
+    public List<Map<String, Object>> findProjected(StudentQuery query) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM students WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (query.major() != null) {
+            sql.append(" AND major = ?");
+            args.add(query.major());
+        }
+        if (query.minAge() != null) {
+            sql.append(" AND age >= ?");
+            args.add(query.minAge());
+        }
+        if (query.maxAge() != null) {
+            sql.append(" AND age <= ?");
+            args.add(query.maxAge());
+        }
+        if (query.emailDomain() != null) {
+            sql.append(" AND email LIKE ? ESCAPE '\\'");
+            args.add("%@" + StudentQueryRepositoryImpl.escapeLike(query.emailDomain()));
+        }
+        if (query.namePrefix() != null) {
+            String prefix = StudentQueryRepositoryImpl.escapeLike(query.namePrefix().toLowerCase(Locale.ROOT)) + "%";
+            sql.append(" AND (first_name_lower LIKE ? ESCAPE '\\' OR last_name_lower LIKE ? ESCAPE '\\')");
+            args.add(prefix);
+            args.add(prefix);
+        }
+        if (query.after() != null) {
+            sql.append(" AND id > ?");
+            args.add(query.after());
+        }
+        sql.append(" ORDER BY ").append(COLUMN_BY_FIELD.get(query.sortField()))
+            .append(query.ascending() ? " ASC" : " DESC");
+        if (!"id".equals(query.sortField())) {
+            sql.append(", id ASC");
+        }
+        sql.append(" LIMIT ?");
+        args.add(query.limit());
+        return merge(shards.scatter(shard -> shard.query(sql.toString(), STUDENT, args.toArray())),
+            query.order(), query.limit())
+            .stream().map(query::project).toList();
+    }
+
+    // --- ecritures ---
+
+    @Override
+    public <S extends Student> S save(S entity) {
+        return saveAll(List.of(entity)).get(0);
+    }
+
+    // 1. revendication des nouveaux emails (tout ou rien) ; 2. lignes, en parallele par shard ;
+    // 3. liberation des anciens emails
+    @Override
+    public <S extends Student> List<S> saveAll(Iterable<S> entities) {
+        List<S> students = new ArrayList<>();
+        entities.forEach(students::add);
+        Map<Long, Student> existing = findAllById(students.stream().map(Student::getId).filter(Objects::nonNull)
+            .toList()).stream().collect(Collectors.toMap(Student::getId, Function.identity()));
+        List<S> inserts = new ArrayList<>();
+        List<S> updates = new ArrayList<>();
+        List<Claim> wanted = new ArrayList<>();
+        for (S student : students) {
+            Student current = student.getId() == null ? null : existing.get(student.getId());
+            if (current == null) {
+                if (student.getVersion() != null) {
+                    throw optimisticFailure(student.getId());
+                }
+                // Ids generes uniquement (JPA refuse aussi l'entite) : un id client croiserait les ids Snowflake
+                if (student.getId() != null) {
+                    throw new DataIntegrityViolationException("Etudiant inexistant avec l'id: " + student.getId()
+                        + " (l'id d'un nouvel etudiant est genere)");
+                }
+                student.setId(idGenerator.nextId());
+                inserts.add(student);
+                wanted.add(new Claim(student.getEmail(), student.getId()));
+            } else {
+                if (student.getVersion() != null && !student.getVersion().equals(current.getVersion())) {
+                    throw optimisticFailure(student.getId());
+                }
+                student.setVersion(current.getVersion());
+                updates.add(student);
+                if (!Objects.equals(student.getEmail(), current.getEmail())) {
+                    wanted.add(new Claim(student.getEmail(), student.getId()));
+                }
+            }
+        }
+        List<Claim> claimed = claimAll(wanted);
+        try {
+            if (!inserts.isEmpty()) {
+                shards.onShards(byShard(inserts), (shard, group) -> shard.batchUpdate("INSERT INTO students "
+                    + "(id, first_name, last_name, email, age, major, version) VALUES (?, ?, ?, ?, ?, ?, 0)",
+                    group.stream().map(s -> new Object[] {s.getId(), s.getFirstName(), s.getLastName(),
+                        s.getEmail(), s.getAge(), s.getMajor()}).toList()));
+            }
+            if (!updates.isEmpty()) {
+                shards.onShards(byShard(updates), (shard, group) -> {
+                    for (Student s : group) {
+                        if (shard.update("UPDATE students SET first_name = ?, last_name = ?, email = ?, age = ?, "
+                                + "major = ?, version = version + 1 WHERE id = ? AND version = ?", s.getFirstName(),
+                                s.getLastName(), s.getEmail(), s.getAge(), s.getMajor(), s.getId(), s.getVersion()) == 0) {
+                            throw optimisticFailure(s.getId());
+                        }
+                    }
+                    return null;
+                });
+            }
+        } catch (RuntimeException e) {
+            releaseAll(claimed);
+            throw e;
+        }
+        inserts.forEach(student -> student.setVersion(0L));
+        List<Claim> released = new ArrayList<>();
+        for (S student : updates) {
+            Student current = existing.get(student.getId());
+            if (!Objects.equals(student.getEmail(), current.getEmail())) {
+                released.add(new Claim(current.getEmail(), student.getId()));
+            }
+            student.setVersion(current.getVersion() + 1);
+        }
+        releaseAll(released);
+        return students;
+    }
+
+    // Chaque instruction est validee sur son shard : rien a envoyer
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public Optional<PreviousState> updateById(Long id, String firstName, String lastName, String email,
+                                              Integer age, String major, Long version) {
+        JdbcTemplate shard = shardOf(checkId(id));
+        List<Long> current = shard.queryForList("SELECT version FROM students WHERE id = ?", Long.class, id);
+        if (current.isEmpty() || (version != null && !version.equals(current.get(0)))) {
+            return Optional.empty();
+        }
+        boolean claimed = claim(email, id);
+        List<Previous> previous;
+        try {
+            previous = shard.query("SELECT " + PREVIOUS_COLUMNS + " FROM OLD TABLE (UPDATE students SET "
+                + "first_name = ?, last_name = ?, email = ?, age = ?, major = ?, version = version + 1 "
+                + "WHERE id = ? AND (CAST(? AS BIGINT) IS NULL OR version = ?))",
+                PREVIOUS, firstName, lastName, email, age, major, id, version, version);
+        } catch (RuntimeException e) {
+            if (claimed) {
+                release(email, id);
+            }
+            throw e;
+        }
+        if (previous.isEmpty()) {
+            if (claimed) {
+                release(email, id);
+            }
+            return Optional.empty();
+        }
+        if (!Objects.equals(previous.get(0).email(), email)) {
+            release(previous.get(0).email(), id);
+        }
+        return Optional.of(previous.get(0));
+    }
+
+    @Override
+    public Optional<PreviousState> deleteStudentById(Long id, Long version) {
+        List<Previous> previous = shardOf(checkId(id)).query("SELECT " + PREVIOUS_COLUMNS + " FROM OLD TABLE "
+            + "(DELETE FROM students WHERE id = ? AND (CAST(? AS BIGINT) IS NULL OR version = ?))",
+            PREVIOUS, id, version, version);
+        previous.forEach(state -> release(state.email(), state.id()));
+        return previous.stream().<PreviousState>map(state -> state).findFirst();
+    }
+
+    @Override
+    public List<PreviousState> deleteAllReturningPrevious(Collection<Long> ids) {
+        Map<Integer, List<Long>> byShard = new HashMap<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            byShard.computeIfAbsent(shards.shardOf(checkId(id)), shard -> new ArrayList<>()).add(id);
+        }
+        if (byShard.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<PreviousState> deleted = new ArrayList<>();
+        List<Claim> released = new ArrayList<>();
+        shards.onShards(byShard, (shard, group) -> shard.query("SELECT " + PREVIOUS_COLUMNS + " FROM OLD TABLE "
+                + "(DELETE FROM students WHERE id IN (" + placeholders(group.size()) + "))", PREVIOUS, group.toArray()))
+            .forEach(rows -> rows.forEach(state -> {
+                deleted.add(state);
+                released.add(new Claim(state.email(), state.id()));
+            }));
+        releaseAll(released);
+        return deleted;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        deleteStudentById(id, null);
+    }
+
+    @Override
+    public void delete(Student entity) {
+        if (entity.getId() != null) {
+            deleteAllReturningPrevious(List.of(entity.getId()));
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        deleteAllReturningPrevious(StreamSupport.stream(ids.spliterator(), false).map(Long.class::cast).toList());
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Student> entities) {
+        deleteAllReturningPrevious(StreamSupport.stream(entities.spliterator(), false)
+            .map(Student::getId).filter(Objects::nonNull).toList());
+    }
+
+    @Override
+    public void deleteAll() {
+        deleteAllInBatch();
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        shards.scatter(shard -> shard.update("DELETE FROM students"));
+        shards.scatter(shard -> shard.update("DELETE FROM student_emails"));
+    }
+
+    // --- revendications d'email ---
+
+    private Long owner(String email) {
+        if (email == null) {
+            return null;
+        }
+        return emailShard(email).queryForList("SELECT student_id FROM student_emails WHERE email = ?",
+            Long.class, email).stream().findFirst().orElse(null);
+    }
+
+    // true si la revendication est creee par cet appel (a liberer en cas d'echec), false si l'email
+    // appartient deja a id ; DuplicateKeyException s'il appartient a un autre etudiant
+    private boolean claim(String email, long id) {
+        JdbcTemplate shard = emailShard(email);
+        while (true) {
+            try {
+                shard.update("INSERT INTO student_emails (email, student_id) VALUES (?, ?)", email, id);
+                return true;
+            } catch (DuplicateKeyException e) {
+                Long owner = owner(email);
+                if (owner == null) {
+                    // liberee entre-temps
+                    continue;
+                }
+                if (owner == id) {
+                    return false;
+                }
+                // Revendication orpheline (arret entre revendication et ecriture de la ligne) : reprise
+                if (!existsById(owner) && shard.update("UPDATE student_emails SET student_id = ?, "
+                        + "claimed_at = CURRENT_TIMESTAMP WHERE email = ? AND student_id = ? AND claimed_at < ?",
+                        id, email, owner, Timestamp.from(Instant.now().minus(orphanClaimTimeout))) == 1) {
+                    return true;
+                }
+                throw new DuplicateKeyException(StudentConflictException.EMAIL_CONSTRAINT + " : " + email, e);
+            }
+        }
+    }
+
+    // Tout ou rien : en cas de conflit, les revendications deja creees sont liberees
+    private List<Claim> claimAll(List<Claim> claims) {
+        if (claims.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, List<Claim>> byShard = new HashMap<>();
+        for (Claim claim : claims) {
+            byShard.computeIfAbsent(shards.shardOfEmail(claim.email()), shard -> new ArrayList<>()).add(claim);
+        }
+        List<ClaimResult> results = shards.onShards(byShard, (shard, group) -> {
+            List<Claim> created = new ArrayList<>();
+            for (Claim claim : group) {
+                try {
+                    if (claim(claim.email(), claim.studentId())) {
+                        created.add(claim);
+                    }
+                } catch (RuntimeException e) {
+                    return new ClaimResult(created, e);
+                }
+            }
+            return new ClaimResult(created, null);
+        });
+        List<Claim> created = results.stream().flatMap(result -> result.created().stream()).toList();
+        results.stream().map(ClaimResult::failure).filter(Objects::nonNull).findFirst().ifPresent(failure -> {
+            releaseAll(created);
+            throw failure;
+        });
+        return created;
+    }
+
+    private void release(String email, long id) {
+        emailShard(email).update("DELETE FROM student_emails WHERE email = ? AND student_id = ?", email, id);
+    }
+
+    private void releaseAll(List<Claim> claims) {
+        if (claims.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<Claim>> byShard = new HashMap<>();
+        for (Claim claim : claims) {
+            byShard.computeIfAbsent(shards.shardOfEmail(claim.email()), shard -> new ArrayList<>()).add(claim);
+        }
+        shards.onShards(byShard, (shard, group) -> shard.batchUpdate(
+            "DELETE FROM student_emails WHERE email = ? AND student_id = ?",
+            group.stream().map(claim -> new Object[] {claim.email(), claim.studentId()}).toList()));
+    }
+
+    // --- interne ---
+
+    private JdbcTemplate shardOf(long id) {
+        return shards.shard(shards.shardOf(id));
+    }
+
+    private JdbcTemplate emailShard(String email) {
+        return shards.shard(shards.shardOfEmail(email));
+    }
+
+    private <S extends Student> Map<Integer, List<S>> byShard(List<S> students) {
+        Map<Integer, List<S>> byShard = new HashMap<>();
+        for (S student : students) {
+            byShard.computeIfAbsent(shards.shardOf(student.getId()), shard -> new ArrayList<>()).add(student);
+        }
+        return byShard;
+    }
+
+    // Fusion des resultats par shard (chacun deja limite) : tri global puis limite
+    private static <T> List<T> merge(List<List<T>> perShard, Comparator<? super T> order, int limit) {
+        List<T> all = new ArrayList<>();
+        perShard.forEach(all::addAll);
+        all.sort(order);
+        return all.size() > limit ? new ArrayList<>(all.subList(0, limit)) : all;
+    }
+
+    // Meme ordre que StudentQuery.order(sort) : sens et NULLS explicites, LOWER() si ignoreCase, puis id
+    private static String orderBy(Sort sort) {
+        StringBuilder sql = new StringBuilder(" ORDER BY ");
+        for (Sort.Order order : sort) {
+            String column = COLUMN_BY_FIELD.get(order.getProperty());
+            boolean text = !"id".equals(column) && !"age".equals(column);
+            sql.append(order.isIgnoreCase() && text ? "LOWER(" + column + ")" : column)
+                .append(order.isAscending() ? " ASC" : " DESC")
+                .append(StudentQuery.nullsFirst(order) ? " NULLS FIRST" : " NULLS LAST")
+                .append(", ");
+        }
+        return sql.append("id ASC").toString();
+    }
+
+    private static String containing(String term) {
+        return term == null ? null : "%" + StudentQueryRepositoryImpl.escapeLike(term.toLowerCase(Locale.ROOT)) + "%";
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static long checkId(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("L'id ne doit pas etre null");
+        }
+        return id;
+    }
+
+    private static ObjectOptimisticLockingFailureException optimisticFailure(Long id) {
+        return new ObjectOptimisticLockingFailureException(Student.class, id);
+    }
+
+    private record Claim(String email, long studentId) {}
+
+    private record ClaimResult(List<Claim> created, RuntimeException failure) {}
+
+    private record Previous(Long id, String major, Integer age, Long version, String email) implements PreviousState {
+        public Long getId() { return id; }
+        public String getMajor() { return major; }
+        public Integer getAge() { return age; }
+        public Long getVersion() { return version; }
+    }
+
+    private record Owner(Long id, String email) implements EmailOwner {
+        public Long getId() { return id; }
+        public String getEmail() { return email; }
+    }
+
+    private record Count(String major, Integer age, Long total) implements MajorAgeCount {
+        public String getMajor() { return major; }
+        public Integer getAge() { return age; }
+        public Long getTotal() { return total; }
+    }
+}
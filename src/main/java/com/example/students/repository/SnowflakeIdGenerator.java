@@ -0,0 +1,55 @@
+package com.example.students.repository;
+
+import java.time.Clock;
+import java.time.Instant;
+
+// Ids uniques sans coordination (profil "sharded") : 41 bits de millisecondes depuis EPOCH, 5 bits de
+// noeud, 7 bits de sequence (128 ids par milliseconde et par noeud). Croissants par noeud. 53 bits au
+// total : les ids restent exacts en JSON pour les clients JavaScript (Number.MAX_SAFE_INTEGER) jusqu'en 2093.
+// Horloge qui recule ou sequence epuisee : on continue sur la derniere milliseconde utilisee
+// (emprunt sur le futur) plutot que de bloquer.
+public final class SnowflakeIdGenerator {
+
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    static final int NODE_BITS = 5;
+    static final int SEQUENCE_BITS = 7;
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long node;
+    private final Clock clock;
+    private long lastMillis = -1;
+    private long sequence;
+
+    public SnowflakeIdGenerator(int node) {
+        this(node, Clock.systemUTC());
+    }
+
+    SnowflakeIdGenerator(int node, Clock clock) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Numero de noeud hors limites (0-" + MAX_NODE + "): " + node);
+        }
+        this.node = node;
+        this.clock = clock;
+    }
+
+    public synchronized long nextId() {
+        long millis = clock.millis() - EPOCH.toEpochMilli();
+        if (millis > lastMillis) {
+            lastMillis = millis;
+            sequence = 0;
+        } else if (++sequence > SEQUENCE_MASK) {
+            lastMillis++;
+            sequence = 0;
+        }
+        return (lastMillis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    public static Instant timestamp(long id) {
+        return EPOCH.plusMillis(id >>> (NODE_BITS + SEQUENCE_BITS));
+    }
+
+    public static int node(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE);
+    }
+}
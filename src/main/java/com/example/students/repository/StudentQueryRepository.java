@@ -0,0 +1,12 @@
+package com.example.students.repository;
+
+import com.example.students.dto.StudentQuery;
+
+import java.util.List;
+import java.util.Map;
+
+// Fragment de StudentRepository : requetes filtrees ne selectionnant que les colonnes demandees
+public interface StudentQueryRepository {
+
+    List<Map<String, Object>> findProjected(StudentQuery query);
+}
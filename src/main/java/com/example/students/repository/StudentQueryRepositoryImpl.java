@@ -0,0 +1,97 @@
+package com.example.students.repository;
+
+import com.example.students.dto.StudentQuery;
+import com.example.students.model.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Criteria API : SELECT des seules colonnes demandees (tuples, pas d'entites hydratees)
+public class StudentQueryRepositoryImpl implements StudentQueryRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+
+    // Constructeur manuel (sans Lombok)
+    public StudentQueryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Map<String, Object>> findProjected(StudentQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+        Root<Student> root = criteria.from(Student.class);
+
+        criteria.multiselect(query.fields().stream()
+            .<Selection<?>>map(field -> root.get(field).alias(field))
+            .toList());
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.major() != null) {
+            predicates.add(cb.equal(root.get("major"), query.major()));
+        }
+        if (query.minAge() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("age"), query.minAge()));
+        }
+        if (query.maxAge() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("age"), query.maxAge()));
+        }
+        if (query.emailDomain() != null) {
+            predicates.add(cb.like(root.get("email"), "%@" + escapeLike(query.emailDomain()), LIKE_ESCAPE));
+        }
+        if (query.namePrefix() != null) {
+            // Colonnes generees indexees (voir V3__search_indexes.sql). H2 n'utilise aucun des deux index
+            // pour "a LIKE ? OR b LIKE ?" (parcours de la cle primaire) : id IN (sous-requete UNION
+            // sous-requete), une par index
+            String prefix = escapeLike(query.namePrefix().toLowerCase(Locale.ROOT)) + "%";
+            HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+            predicates.add(root.get("id").in(hcb.union(
+                idsLike(criteria, cb, "firstNameLower", prefix),
+                idsLike(criteria, cb, "lastNameLower", prefix))));
+        }
+        if (query.after() != null) {
+            predicates.add(cb.greaterThan(root.get("id"), query.after()));
+        }
+        criteria.where(predicates.toArray(Predicate[]::new));
+
+        Path<Object> sortPath = root.get(query.sortField());
+        List<Order> orders = new ArrayList<>(2);
+        orders.add(query.ascending() ? cb.asc(sortPath) : cb.desc(sortPath));
+        if (!"id".equals(query.sortField())) {
+            orders.add(cb.asc(root.get("id")));
+        }
+        criteria.orderBy(orders);
+
+        List<Tuple> rows = entityManager.createQuery(criteria)
+            .setMaxResults(query.limit())
+            .getResultList();
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String field : query.fields()) {
+                values.put(field, row.get(field));
+            }
+            result.add(values);
+        }
+        return result;
+    }
+
+    private static Subquery<Long> idsLike(CriteriaQuery<?> criteria, CriteriaBuilder cb, String field, String pattern) {
+        Subquery<Long> ids = criteria.subquery(Long.class);
+        Root<Student> student = ids.from(Student.class);
+        return ids.select(student.get("id")).where(cb.like(student.get(field), pattern, LIKE_ESCAPE));
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
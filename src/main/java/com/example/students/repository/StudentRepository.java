@@ -1,14 +1,87 @@
 package com.example.students.repository;
 
 import com.example.students.model.Student;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.ListPagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+// CRUD, tri et pages seulement (pas de requetes par Example) : contrat tenu aussi par les
+// implementations hors JPA (OffHeapStudentRepository, ShardedStudentRepository)
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends ListCrudRepository<Student, Long>,
+        ListPagingAndSortingRepository<Student, Long>, StudentQueryRepository {
+    // Methodes de SimpleJpaRepository exposees par le repository JPA
+    void flush();
+    void deleteAllInBatch();
+
     List<Student> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
         String firstName, String lastName);
     boolean existsByEmail(String email);
     boolean existsByEmailAndIdNot(String email, Long id);
+
+    // Pagination par curseur (keyset) : WHERE id > :after ORDER BY id LIMIT :limit
+    List<Student> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // Ecritures en une seule instruction renvoyant l'etat precedent de la ligne (table delta
+    // OLD TABLE de H2) : aucune ligne = etudiant inexistant ; l'unicite de l'email est garantie
+    // par la contrainte UNIQUE de la base. L'ancien etat alimente les statistiques incrementales.
+    // Requetes natives : le contexte de persistance n'est pas vide, a appeler hors transaction englobante.
+    // version : version attendue (If-Match), null pour ne pas la verifier
+    @Transactional
+    @Query(value = "SELECT id, major, age, version FROM OLD TABLE (UPDATE students SET first_name = :firstName, "
+        + "last_name = :lastName, email = :email, age = :age, major = :major, version = version + 1 "
+        + "WHERE id = :id AND (CAST(:version AS BIGINT) IS NULL OR version = :version))", nativeQuery = true)
+    Optional<PreviousState> updateById(@Param("id") Long id, @Param("firstName") String firstName,
+                                       @Param("lastName") String lastName, @Param("email") String email,
+                                       @Param("age") Integer age, @Param("major") String major,
+                                       @Param("version") Long version);
+
+    @Transactional
+    @Query(value = "SELECT id, major, age, version FROM OLD TABLE (DELETE FROM students "
+        + "WHERE id = :id AND (CAST(:version AS BIGINT) IS NULL OR version = :version))", nativeQuery = true)
+    Optional<PreviousState> deleteStudentById(@Param("id") Long id, @Param("version") Long version);
+
+    // Suppression en masse : un seul DELETE ... WHERE id IN (...) qui renvoie les lignes supprimees
+    @Transactional
+    @Query(value = "SELECT id, major, age, version FROM OLD TABLE (DELETE FROM students WHERE id IN (:ids))", nativeQuery = true)
+    List<PreviousState> deleteAllReturningPrevious(@Param("ids") Collection<Long> ids);
+
+    // Projections pour les operations en masse : une seule requete IN par lot
+    List<EmailOwner> findByEmailIn(Collection<String> emails);
+
+    // Etat de la table resume en une chaine (nombre de lignes, somme des ids, somme des versions) :
+    // toute creation, modification ou suppression le change, quelle que soit l'instance ou le chemin
+    // d'ecriture (ids jamais reutilises, version incrementee a chaque modification)
+    @Query(value = "SELECT CONCAT(COUNT(*), '-', COALESCE(SUM(id), 0), '-', COALESCE(SUM(version), 0)) "
+        + "FROM students", nativeQuery = true)
+    String revision();
+
+    // Reconciliation des statistiques : GROUP BY sur (major, age), couvert par idx_students_major_age
+    @Query("select s.major as major, s.age as age, count(s) as total from Student s group by s.major, s.age")
+    List<MajorAgeCount> countByMajorAndAge();
+
+    interface EmailOwner {
+        Long getId();
+        String getEmail();
+    }
+
+    interface PreviousState {
+        Long getId();
+        String getMajor();
+        Integer getAge();
+        Long getVersion();
+    }
+
+    interface MajorAgeCount {
+        String getMajor();
+        Integer getAge();
+        Long getTotal();
+    }
 }
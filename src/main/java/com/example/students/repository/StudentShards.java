@@ -0,0 +1,111 @@
+package com.example.students.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// Bases du profil "sharded" et execution parallele par shard.
+// Routage : shard = hash(id) mod N (ids Snowflake melanges : les bits de poids faible ne suffisent
+// pas), revendications d'email dans le shard de hash(email). N est fixe : pas de reequilibrage.
+public final class StudentShards implements Closeable {
+
+    private final List<DataSource> dataSources;
+    private final List<JdbcTemplate> templates;
+    private final ExecutorService executor;
+
+    public StudentShards(List<? extends DataSource> dataSources, int parallelism) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("Au moins un shard est requis");
+        }
+        this.dataSources = List.copyOf(dataSources);
+        this.templates = this.dataSources.stream().map(JdbcTemplate::new).toList();
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), task -> {
+            Thread thread = new Thread(task, "student-shard-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int size() { return templates.size(); }
+
+    public JdbcTemplate shard(int index) { return templates.get(index); }
+
+    public int shardOf(long id) {
+        return Math.floorMod(mix(id), templates.size());
+    }
+
+    // String.hashCode est specifie : meme shard quelle que soit la JVM
+    public int shardOfEmail(String email) {
+        return Math.floorMod(mix(email.hashCode()), templates.size());
+    }
+
+    // Meme operation sur tous les shards, en parallele ; resultats dans l'ordre des shards
+    public <T> List<T> scatter(Function<JdbcTemplate, T> operation) {
+        List<Integer> all = new ArrayList<>(templates.size());
+        for (int i = 0; i < templates.size(); i++) {
+            all.add(i);
+        }
+        return run(all, (shard, index) -> operation.apply(shard));
+    }
+
+    // Une operation par groupe (cle = shard), en parallele ; resultats dans l'ordre des groupes
+    public <G, T> List<T> onShards(Map<Integer, G> groups, BiFunction<JdbcTemplate, G, T> operation) {
+        return run(List.copyOf(groups.keySet()), (shard, index) -> operation.apply(shard, groups.get(index)));
+    }
+
+    private <T> List<T> run(List<Integer> shards, BiFunction<JdbcTemplate, Integer, T> operation) {
+        if (shards.size() == 1) {
+            // Un seul shard concerne : pas de changement de thread
+            return List.of(operation.apply(templates.get(shards.get(0)), shards.get(0)));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (Integer index : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> operation.apply(templates.get(index), index), executor));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // Finaliseur de MurmurHash3 (64 bits)
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,553 @@
+package com.example.students.service;
+
+import com.example.students.dto.AuditRecord;
+import com.example.students.dto.StudentChange;
+import com.example.students.model.Student;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Journal d'audit des ecritures, en differe : append() ne fait que reserver un numero (CAS) et
+// deposer la modification dans un anneau ; un unique thread ecrivain la serialise dans des segments
+// de taille fixe projetes en memoire (audit-<premier numero>.log), puis force sur disque chaque lot
+// ecrit (fsync groupe). Au demarrage, les segments sont relus : la fin est le premier
+// enregistrement incomplet ou au CRC invalide (ecriture interrompue par un arret brutal). Un
+// enregistrement dont l'ecriture a echoue laisse un trou dans la numerotation, accepte a la reprise.
+//
+// Enregistrement : longueur (int, octets apres le CRC), CRC32C, numero, horodatage (ms), id, type,
+// etudiant en JSON (vide pour une suppression). Une longueur nulle marque la fin d'un segment.
+//
+// Retention : a chaque nouveau segment (et au demarrage), les plus anciens sont supprimes, projection
+// liberee, s'ils sont plus vieux que retention ou au-dela de max-size ; leurs positions sont retirees
+// de l'index par etudiant (une liste primitive de positions par etudiant).
+@Component
+public class AuditJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditJournal.class);
+
+    private static final int FRAME_SIZE = 8;
+    private static final int BODY_HEADER_SIZE = 8 + 8 + 8 + 1;
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final StudentChange.Type[] TYPES = StudentChange.Type.values();
+    // Le lot est force sur disque au plus tard tous les MAX_BATCH enregistrements
+    private static final int MAX_BATCH = 4096;
+    // Liberation immediate d'une projection (sun.misc.Unsafe#invokeCleaner) ; null : liberee par le GC
+    private static final MethodHandle UNMAP = unmapHandle();
+
+    private record Pending(long sequence, long timestamp, StudentChange.Type type, long studentId, Student student) {}
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Duration retention;
+    private final int maxSegments;
+    private final ObjectWriter studentWriter;
+    private final ObjectReader studentReader;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    private final AtomicReferenceArray<Pending> ring;
+    private final int mask;
+    // Dernier numero reserve par un producteur / retire de l'anneau / ecrit / force sur disque
+    private final AtomicLong claimed;
+    private volatile long consumed;
+    private volatile long written;
+    private volatile long durable;
+
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    // Positions (numero de segment << 32 | decalage) des enregistrements de chaque etudiant
+    private final Map<Long, Positions> positionsByStudent = new ConcurrentHashMap<>();
+    // Lecteurs (history, between) contre suppression des segments expires
+    private final ReadWriteLock retentionLock = new ReentrantReadWriteLock();
+    private int nextSegmentNumber;
+    private final Object durability = new Object();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AuditJournal(ObjectMapper objectMapper,
+                        @Value("${students.audit.dir:./data/audit}") String directory,
+                        @Value("${students.audit.segment-size:64MB}") DataSize segmentSize,
+                        @Value("${students.audit.buffer-size:8192}") int bufferSize,
+                        @Value("${students.audit.retention:P30D}") Duration retention,
+                        @Value("${students.audit.max-size:4GB}") DataSize maxSize) throws IOException {
+        this.directory = Path.of(directory);
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, segmentSize.toBytes());
+        this.retention = retention;
+        this.maxSegments = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxSize.toBytes() / this.segmentSize));
+        this.studentWriter = objectMapper.writerFor(Student.class);
+        this.studentReader = objectMapper.readerFor(Student.class);
+        int capacity = Integer.highestOneBit(Math.max(bufferSize, 2) * 2 - 1);
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+
+        Files.createDirectories(this.directory);
+        this.lockChannel = FileChannel.open(this.directory.resolve("audit.lock"),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Journal d'audit deja ouvert par un autre processus: " + this.directory);
+        }
+        long last = recover();
+        dropExpired();
+        this.claimed = new AtomicLong(last);
+        this.consumed = last;
+        this.written = last;
+        this.durable = last;
+        this.writer = new Thread(this::writeLoop, "audit-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Appele par les threads des requetes : aucune entree-sortie, attente seulement si l'anneau est plein
+    // Apres fermeture (arret de l'application), la modification n'est que journalisee : l'ecriture
+    // en base a deja eu lieu et ne doit pas echouer pour autant
+    public long append(StudentChange.Type type, Long studentId, Student student) {
+        if (!running) {
+            log.warn("Journal d'audit ferme : {} de l'etudiant {} non enregistre", type, studentId);
+            return -1;
+        }
+        long sequence = claimed.incrementAndGet();
+        while (sequence - ring.length() > consumed) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(10_000);
+        }
+        ring.set((int) (sequence & mask), new Pending(sequence, System.currentTimeMillis(), type, studentId, student));
+        LockSupport.unpark(writer);
+        return sequence;
+    }
+
+    public long lastSequence() { return claimed.get(); }
+    public long durableSequence() { return durable; }
+
+    // Attend que tout ce qui a ete ajoute jusqu'ici soit sur disque
+    public boolean flush(Duration timeout) throws InterruptedException {
+        long target = claimed.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (durability) {
+            while (durable < target) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !writer.isAlive()) {
+                    return false;
+                }
+                LockSupport.unpark(writer);
+                durability.wait(Math.max(1, remaining / 1_000_000));
+            }
+        }
+        return true;
+    }
+
+    // Lecture : seuls les enregistrements deja ecrits dans un segment sont visibles
+    public List<AuditRecord> history(long studentId) {
+        retentionLock.readLock().lock();
+        try {
+            Positions positions = positionsByStudent.get(studentId);
+            if (positions == null) {
+                return List.of();
+            }
+            long[] all = positions.toArray();
+            int first = segments.get(0).number;
+            List<AuditRecord> records = new ArrayList<>(all.length);
+            for (long position : all) {
+                records.add(read(segments.get((int) (position >>> 32) - first), (int) position));
+            }
+            return records;
+        } finally {
+            retentionLock.readLock().unlock();
+        }
+    }
+
+    public List<AuditRecord> between(Instant from, Instant to, int limit) {
+        long fromMillis = from == null ? Long.MIN_VALUE : from.toEpochMilli();
+        long toMillis = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+        List<AuditRecord> records = new ArrayList<>();
+        retentionLock.readLock().lock();
+        try {
+            collect(fromMillis, toMillis, limit, records);
+        } finally {
+            retentionLock.readLock().unlock();
+        }
+        return records;
+    }
+
+    private void collect(long fromMillis, long toMillis, int limit, List<AuditRecord> records) {
+        for (Segment segment : segments) {
+            if (segment.position == 0 || segment.maxTimestamp < fromMillis || segment.minTimestamp >= toMillis) {
+                continue;
+            }
+            int end = segment.position;
+            for (int offset = 0; offset < end && records.size() < limit; ) {
+                int length = segment.buffer.getInt(offset);
+                long timestamp = segment.buffer.getLong(offset + FRAME_SIZE + 8);
+                if (timestamp >= fromMillis && timestamp < toMillis) {
+                    records.add(read(segment, offset));
+                }
+                offset += FRAME_SIZE + length;
+            }
+        }
+    }
+
+    private AuditRecord read(Segment segment, int offset) {
+        MappedByteBuffer buffer = segment.buffer;
+        int length = buffer.getInt(offset);
+        int body = offset + FRAME_SIZE;
+        int type = buffer.get(body + 24);
+        Student student = null;
+        int payloadLength = length - BODY_HEADER_SIZE;
+        if (payloadLength > 0) {
+            byte[] payload = new byte[payloadLength];
+            buffer.get(body + BODY_HEADER_SIZE, payload);
+            try {
+                student = studentReader.readValue(payload);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return new AuditRecord(buffer.getLong(body), Instant.ofEpochMilli(buffer.getLong(body + 8)),
+            TYPES[type], buffer.getLong(body + 16), student);
+    }
+
+    // ===================== Ecriture (thread unique) =====================
+
+    private void writeLoop() {
+        long next = written + 1;
+        while (running || next <= claimed.get()) {
+            int batch = 0;
+            Pending pending;
+            int index = (int) (next & mask);
+            while (batch < MAX_BATCH && (pending = ring.get(index)) != null && pending.sequence() == next) {
+                ring.set(index, null);
+                consumed = next;
+                try {
+                    write(pending);
+                } catch (IOException | RuntimeException e) {
+                    // Rien n'est ecrit pour ce numero : la reprise accepte le trou
+                    log.error("Enregistrement d'audit {} perdu", pending.sequence(), e);
+                }
+                next++;
+                index = (int) (next & mask);
+                batch++;
+            }
+            if (batch == 0) {
+                LockSupport.parkNanos(this, 1_000_000);
+                continue;
+            }
+            written = next - 1;
+            if (!segments.isEmpty()) {
+                segments.get(segments.size() - 1).force();
+            }
+            synchronized (durability) {
+                durable = written;
+                durability.notifyAll();
+            }
+        }
+    }
+
+    private void write(Pending pending) throws IOException {
+        byte[] payload = pending.student() == null ? new byte[0] : studentWriter.writeValueAsBytes(pending.student());
+        int length = BODY_HEADER_SIZE + payload.length;
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.position + FRAME_SIZE + length > segmentSize) {
+            if (FRAME_SIZE + length > segmentSize) {
+                throw new IllegalStateException("Enregistrement plus grand qu'un segment: " + length);
+            }
+            if (segment != null) {
+                segment.force();
+            }
+            segment = openSegment(pending.sequence());
+            segments.add(segment);
+            dropExpired();
+        }
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = segment.position;
+        int body = offset + FRAME_SIZE;
+        buffer.putLong(body, pending.sequence());
+        buffer.putLong(body + 8, pending.timestamp());
+        buffer.putLong(body + 16, pending.studentId());
+        buffer.put(body + 24, (byte) pending.type().ordinal());
+        buffer.put(body + BODY_HEADER_SIZE, payload);
+        buffer.putInt(offset + 4, crc(buffer, body, length));
+        buffer.putInt(offset, length);
+        segment.indexed(pending.timestamp());
+        segment.position = body + length;
+        addPosition(pending.studentId(), position(segment.number, offset));
+    }
+
+    private Segment openSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(SEGMENT_PREFIX + String.format("%020d", firstSequence) + SEGMENT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // La projection reste valide apres la fermeture du canal
+            return new Segment(path, nextSegmentNumber++, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        }
+    }
+
+    // ===================== Retention =====================
+
+    // Segments expires ou en surnombre, sauf le segment courant ; thread ecrivain ou constructeur
+    private void dropExpired() throws IOException {
+        long limit = System.currentTimeMillis() - retention.toMillis();
+        int expired = 0;
+        while (expired < segments.size() - 1 && (segments.size() - expired > maxSegments
+                || segments.get(expired).maxTimestamp < limit)) {
+            expired++;
+        }
+        if (expired == 0) {
+            return;
+        }
+        List<Segment> dropped = new ArrayList<>(segments.subList(0, expired));
+        long firstKept = position(segments.get(expired).number, 0);
+        retentionLock.writeLock().lock();
+        try {
+            segments.subList(0, expired).clear();
+            positionsByStudent.entrySet().removeIf(entry -> entry.getValue().dropBefore(firstKept));
+        } finally {
+            retentionLock.writeLock().unlock();
+        }
+        for (Segment segment : dropped) {
+            unmap(segment.buffer);
+            Files.deleteIfExists(segment.path);
+        }
+        log.info("Journal d'audit : {} segment(s) expire(s) supprime(s)", dropped.size());
+    }
+
+    private void addPosition(long studentId, long position) {
+        positionsByStudent.computeIfAbsent(studentId, id -> new Positions()).add(position);
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (UNMAP != null) {
+            try {
+                UNMAP.invokeExact((ByteBuffer) buffer);
+            } catch (Throwable e) {
+                log.warn("Projection d'un segment d'audit non liberee : {}", e.toString());
+            }
+        }
+    }
+
+    private static MethodHandle unmapHandle() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // ===================== Reprise au demarrage =====================
+
+    private long recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                    && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .sorted()
+                .toList();
+        }
+        long last = 0;
+        for (int i = 0; i < files.size(); i++) {
+            Segment segment;
+            try (FileChannel channel = FileChannel.open(files.get(i), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                segment = new Segment(files.get(i), nextSegmentNumber++, channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(channel.size(), segmentSize)));
+            }
+            segments.add(segment);
+            // Premier segment conserve : les precedents ont pu etre supprimes par la retention
+            boolean valid = scan(segment, i == 0 ? -1 : last);
+            last = Math.max(last, segment.lastSequence);
+            if (!valid) {
+                for (Path later : files.subList(i + 1, files.size())) {
+                    Files.move(later, later.resolveSibling(later.getFileName() + ".corrupt"));
+                    log.warn("Segment d'audit {} ecarte : il suit un enregistrement invalide", later);
+                }
+                break;
+            }
+        }
+        if (!segments.isEmpty()) {
+            // Apres un arret brutal, des pages ecrites plus loin que la fin retenue peuvent contenir des
+            // enregistrements valides d'apparence : la suite du dernier segment est remise a zero
+            segments.get(segments.size() - 1).truncate();
+            log.info("Journal d'audit {} : {} segment(s), dernier enregistrement {}", directory, segments.size(), last);
+        }
+        return last;
+    }
+
+    // Relit un segment jusqu'a la premiere longueur nulle ; false si un enregistrement est invalide
+    // (incomplet, CRC different ou numero non croissant ; previous = -1 : premier numero libre).
+    // Les numeros peuvent sauter : enregistrements perdus a l'ecriture
+    private boolean scan(Segment segment, long previous) {
+        MappedByteBuffer buffer = segment.buffer;
+        int capacity = buffer.capacity();
+        int offset = 0;
+        boolean valid = true;
+        while (offset + FRAME_SIZE <= capacity) {
+            int length = buffer.getInt(offset);
+            if (length == 0) {
+                break;
+            }
+            int body = offset + FRAME_SIZE;
+            if (length < BODY_HEADER_SIZE || length > capacity - body
+                    || buffer.getInt(offset + 4) != crc(buffer, body, length)
+                    || (previous >= 0 && buffer.getLong(body) <= previous)) {
+                valid = false;
+                break;
+            }
+            previous = buffer.getLong(body);
+            segment.lastSequence = previous;
+            segment.indexed(buffer.getLong(body + 8));
+            addPosition(buffer.getLong(body + 16), position(segment.number, offset));
+            offset = body + length;
+        }
+        segment.position = offset;
+        segment.forced = offset;
+        return valid;
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException, IOException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(10_000);
+        lock.release();
+        lockChannel.close();
+    }
+
+    private static int crc(MappedByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private static long position(int segment, int offset) {
+        return ((long) segment << 32) | offset;
+    }
+
+    // Positions croissantes des enregistrements d'un etudiant, tableau primitif extensible.
+    // Ajouts et suppressions par le seul thread ecrivain, lectures concurrentes
+    private static final class Positions {
+
+        private long[] positions = new long[2];
+        private int size;
+
+        synchronized void add(long position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        // Retire les positions anterieures a first ; true si la liste est alors vide
+        synchronized boolean dropBefore(long first) {
+            int kept = 0;
+            while (kept < size && positions[kept] < first) {
+                kept++;
+            }
+            if (kept > 0) {
+                size -= kept;
+                positions = Arrays.copyOfRange(positions, kept, kept + Math.max(size, 2));
+            }
+            return size == 0;
+        }
+
+        synchronized long[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final int number;
+        private final MappedByteBuffer buffer;
+        // Fin des donnees ecrites, publiee apres chaque enregistrement (lecteurs concurrents)
+        private volatile int position;
+        private volatile long minTimestamp = Long.MAX_VALUE;
+        private volatile long maxTimestamp = Long.MIN_VALUE;
+        private long lastSequence;
+        private int forced;
+
+        Segment(Path path, int number, MappedByteBuffer buffer) {
+            this.path = path;
+            this.number = number;
+            this.buffer = buffer;
+        }
+
+        void indexed(long timestamp) {
+            if (timestamp < minTimestamp) {
+                minTimestamp = timestamp;
+            }
+            if (timestamp > maxTimestamp) {
+                maxTimestamp = timestamp;
+            }
+        }
+
+        void force() {
+            int end = position;
+            if (end > forced) {
+                buffer.force(forced, end - forced);
+                forced = end;
+            }
+        }
+
+        // Remet a zero la suite des donnees ; seules les pages non nulles sont modifiees
+        void truncate() {
+            boolean dirty = false;
+            int capacity = buffer.capacity();
+            int offset = position;
+            for (; offset + 8 <= capacity; offset += 8) {
+                if (buffer.getLong(offset) != 0) {
+                    buffer.putLong(offset, 0);
+                    dirty = true;
+                }
+            }
+            for (; offset < capacity; offset++) {
+                if (buffer.get(offset) != 0) {
+                    buffer.put(offset, (byte) 0);
+                    dirty = true;
+                }
+            }
+            if (dirty) {
+                buffer.force();
+            }
+        }
+    }
+}
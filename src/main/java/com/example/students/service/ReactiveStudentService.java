@@ -0,0 +1,84 @@
+package com.example.students.service;
+
+import com.example.students.config.CacheConfig;
+import com.example.students.exception.StudentConflictException;
+import com.example.students.exception.StudentNotFoundException;
+import com.example.students.model.Student;
+import com.example.students.repository.ReactiveStudentRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+// Ecritures du profil "reactive" : memes effets que StudentService apres l'ecriture en base (index de
+// recherche, statistiques, journal d'audit et flux des modifications, eviction du cache), appliques
+// sur le thread R2DBC qui recoit le resultat (operations en memoire, sans attente)
+@Service
+@Profile("reactive")
+public class ReactiveStudentService {
+
+    private final ReactiveStudentRepository studentRepository;
+    private final StudentSearchIndex searchIndex;
+    private final StudentStatistics statistics;
+    private final StudentModificationTracker modificationTracker;
+    private final Cache studentCache;
+
+    // Constructeur manuel (sans Lombok)
+    public ReactiveStudentService(ReactiveStudentRepository studentRepository, StudentSearchIndex searchIndex,
+                                  StudentStatistics statistics, StudentModificationTracker modificationTracker,
+                                  CacheManager cacheManager) {
+        this.studentRepository = studentRepository;
+        this.searchIndex = searchIndex;
+        this.statistics = statistics;
+        this.modificationTracker = modificationTracker;
+        this.studentCache = cacheManager.getCache(CacheConfig.STUDENTS_CACHE);
+    }
+
+    // L'id est attribue par la sequence, celui du client est ignore
+    public Mono<Student> createStudent(Student student) {
+        return studentRepository.insert(student)
+            .onErrorMap(ReactiveStudentService::isEmailConflict,
+                e -> new StudentConflictException(StudentConflictException.EMAIL_EXISTS))
+            .doOnNext(saved -> {
+                searchIndex.index(saved);
+                statistics.added(saved.getMajor(), saved.getAge());
+                modificationTracker.created(saved);
+            });
+    }
+
+    public Mono<Student> updateStudent(Long id, Student studentDetails) {
+        return studentRepository.updateById(id, studentDetails)
+            .onErrorMap(ReactiveStudentService::isEmailConflict,
+                e -> new StudentConflictException(StudentConflictException.EMAIL_IN_USE))
+            .switchIfEmpty(Mono.error(() -> new StudentNotFoundException(id)))
+            .map(previous -> {
+                Student student = new Student(id, studentDetails.getFirstName(), studentDetails.getLastName(),
+                    studentDetails.getEmail(), studentDetails.getAge(), studentDetails.getMajor());
+                student.setVersion(previous.getVersion() + 1);
+                searchIndex.index(student);
+                statistics.changed(previous.getMajor(), previous.getAge(), student.getMajor(), student.getAge());
+                modificationTracker.updated(student);
+                studentCache.evict(id);
+                return student;
+            });
+    }
+
+    public Mono<Void> deleteStudent(Long id) {
+        return studentRepository.deleteById(id)
+            .switchIfEmpty(Mono.error(() -> new StudentNotFoundException(id)))
+            .doOnNext(previous -> {
+                searchIndex.remove(id);
+                statistics.removed(previous.getMajor(), previous.getAge());
+                modificationTracker.deleted(id);
+                studentCache.evict(id);
+            })
+            .then();
+    }
+
+    private static boolean isEmailConflict(Throwable e) {
+        return e instanceof DataIntegrityViolationException violation
+            && StudentConflictException.isEmailConflict(violation);
+    }
+}
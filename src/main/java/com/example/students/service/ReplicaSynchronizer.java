@@ -0,0 +1,187 @@
+package com.example.students.service;
+
+import com.example.students.config.ReadWriteRoutingDataSource;
+import com.example.students.config.ReadWriteRoutingDataSource.Replica;
+import com.example.students.dto.StudentChange;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+
+// Replication logique vers les replicas locaux (profil "replicas", students.replicas.local-sync) :
+// un thread rejoue sur chaque replica, par lot et dans l'ordre, les modifications du flux
+// StudentChangeStream. Les snapshots sont publies apres le commit, hors transaction : deux mises a
+// jour du meme etudiant peuvent arriver dans le desordre. Le flux ne sert donc qu'a connaitre les
+// ids modifies ; leur etat courant est relu sur le primaire et le MERGE n'ecrase jamais une version
+// plus recente. Replica neuf ou trop en retard (journal ecrase) : copie complete de la table depuis
+// le primaire, puis rejeu des modifications publiees depuis (MERGE / DELETE idempotents).
+// Avec de vrais replicas (replication de la base), desactiver local-sync et publier la position
+// appliquee via Replica.appliedSequence.
+@Component
+@Profile("replicas")
+@ConditionalOnProperty(name = "students.replicas.local-sync", havingValue = "true", matchIfMissing = true)
+public class ReplicaSynchronizer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaSynchronizer.class);
+    private static final int COPY_BATCH = 1000;
+    private static final String UPSERT = "MERGE INTO students t USING (VALUES (CAST(? AS BIGINT), "
+        + "CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS INT), CAST(? AS VARCHAR), "
+        + "CAST(? AS BIGINT))) s(id, first_name, last_name, email, age, major, version) ON t.id = s.id "
+        + "WHEN MATCHED AND t.version < s.version THEN UPDATE SET first_name = s.first_name, "
+        + "last_name = s.last_name, email = s.email, age = s.age, major = s.major, version = s.version "
+        + "WHEN NOT MATCHED THEN INSERT (id, first_name, last_name, email, age, major, version) "
+        + "VALUES (s.id, s.first_name, s.last_name, s.email, s.age, s.major, s.version)";
+    private static final String COLUMNS = "SELECT id, first_name, last_name, email, age, major, version FROM students";
+    private static final String SELECT_ALL = COLUMNS + " ORDER BY id";
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final StudentChangeStream changeStream;
+    private final long intervalNanos;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    // Constructeur manuel (sans Lombok)
+    public ReplicaSynchronizer(ReadWriteRoutingDataSource routingDataSource, StudentChangeStream changeStream,
+                               @Value("${students.replicas.sync-interval:PT0.01S}") Duration interval) {
+        this.routingDataSource = routingDataSource;
+        this.changeStream = changeStream;
+        this.intervalNanos = interval.toNanos();
+        this.worker = new Thread(this::run, "replica-sync");
+        this.worker.setDaemon(true);
+    }
+
+    // Apres Flyway et le demarrage complet : le primaire est pret a etre copie
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join(5_000);
+    }
+
+    private void run() {
+        while (running) {
+            synchronize();
+            LockSupport.parkNanos(intervalNanos);
+        }
+    }
+
+    // Une passe sur chaque replica ; un echec remet le replica en resynchronisation complete
+    public synchronized void synchronize() {
+        for (Replica replica : routingDataSource.replicas()) {
+            try {
+                if (replica.appliedSequence() < 0 || !apply(replica)) {
+                    copy(replica);
+                    apply(replica);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Synchronisation du replica {} en echec, copie complete au prochain passage : {}",
+                    replica.name(), e.getMessage());
+                replica.appliedSequence(-1);
+            }
+        }
+    }
+
+    // false si le journal ne contient plus toutes les modifications manquantes
+    private boolean apply(Replica replica) {
+        long applied = replica.appliedSequence();
+        long upTo = changeStream.published();
+        if (upTo == applied) {
+            return true;
+        }
+        List<StudentChange> changes = changeStream.eventsAfter(applied, upTo);
+        if (changes == null) {
+            return false;
+        }
+        // Etat courant des ids modifies, au moins aussi recent que chacun des snapshots publies
+        Set<Long> missing = new LinkedHashSet<>();
+        for (StudentChange change : changes) {
+            missing.add(change.id());
+        }
+        List<Long> ids = new ArrayList<>(missing);
+        JdbcTemplate source = new JdbcTemplate(routingDataSource.primary());
+        List<Object[]> upserts = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += COPY_BATCH) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + COPY_BATCH));
+            String in = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            source.query(COLUMNS + " WHERE id IN (" + in + ")", rs -> {
+                upserts.add(row(rs));
+                missing.remove(rs.getLong(1));
+            }, chunk.toArray());
+        }
+        // Ids absents du primaire : supprimes (les ids ne sont jamais reutilises)
+        List<Object[]> deletes = new ArrayList<>(missing.size());
+        for (Long id : missing) {
+            deletes.add(new Object[] {id});
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(replica.dataSource());
+        transaction(replica).executeWithoutResult(status -> {
+            if (!deletes.isEmpty()) {
+                jdbc.batchUpdate("DELETE FROM students WHERE id = ?", deletes);
+            }
+            if (!upserts.isEmpty()) {
+                jdbc.batchUpdate(UPSERT, upserts);
+            }
+        });
+        replica.appliedSequence(upTo);
+        return true;
+    }
+
+    // Copie de la table dans une seule transaction du replica ; la position est relevee avant la
+    // lecture du primaire, les modifications concurrentes seront donc rejouees ensuite
+    private void copy(Replica replica) {
+        long start = System.nanoTime();
+        replica.appliedSequence(-1);
+        long position = changeStream.published();
+        JdbcTemplate source = new JdbcTemplate(routingDataSource.primary());
+        source.setFetchSize(COPY_BATCH);
+        JdbcTemplate target = new JdbcTemplate(replica.dataSource());
+        int[] copied = new int[1];
+        transaction(replica).executeWithoutResult(status -> {
+            target.update("DELETE FROM students");
+            List<Object[]> batch = new ArrayList<>(COPY_BATCH);
+            source.query(SELECT_ALL, rs -> {
+                batch.add(row(rs));
+                if (batch.size() == COPY_BATCH) {
+                    copied[0] += target.batchUpdate(UPSERT, batch).length;
+                    batch.clear();
+                }
+            });
+            copied[0] += target.batchUpdate(UPSERT, batch).length;
+        });
+        replica.appliedSequence(position);
+        log.info("Replica {} copie depuis le primaire : {} lignes en {} ms", replica.name(), copied[0],
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static TransactionTemplate transaction(Replica replica) {
+        return new TransactionTemplate(new DataSourceTransactionManager(replica.dataSource()));
+    }
+
+    private static Object[] row(ResultSet rs) throws SQLException {
+        return new Object[] {rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+            rs.getObject(5), rs.getString(6), rs.getLong(7)};
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.students.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Regroupement des lectures concurrentes identiques (single flight) : le premier appel pour une
+// cle execute la lecture, les appels qui arrivent pendant qu'elle est en cours attendent son
+// resultat (ou son exception) au lieu de relancer la requete. L'entree disparait a la fin de la
+// lecture : rien n'est mis en cache. Reserve aux lectures sans effet de bord.
+public class SingleFlight<K, V> implements MeterBinder {
+
+    private final String name;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder followers = new LongAdder();
+
+    // Constructeur manuel (sans Lombok)
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> current = inFlight.putIfAbsent(key, mine);
+        if (current != null) {
+            followers.increment();
+            return await(current);
+        }
+        leaders.increment();
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // Apres une ecriture : la lecture deja en cours a pu lire l'ancien etat, elle se termine
+    // pour ses appelants mais les appels suivants en relancent une
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public long leaders() { return leaders.sum(); }
+    public long followers() { return followers.sum(); }
+
+    // L'exception du premier appel est relancee telle quelle
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("students.single-flight.calls", leaders, LongAdder::sum)
+            .description("Lectures executees (leader) ou partagees (follower)")
+            .tags("name", name, "role", "leader").register(registry);
+        FunctionCounter.builder("students.single-flight.calls", followers, LongAdder::sum)
+            .description("Lectures executees (leader) ou partagees (follower)")
+            .tags("name", name, "role", "follower").register(registry);
+        Gauge.builder("students.single-flight.in-flight", inFlight, ConcurrentMap::size)
+            .description("Lectures en cours partageables")
+            .tag("name", name).register(registry);
+    }
+}
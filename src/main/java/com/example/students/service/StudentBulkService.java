@@ -0,0 +1,266 @@
+package com.example.students.service;
+
+import com.example.students.config.CacheConfig;
+import com.example.students.dto.BulkResult;
+import com.example.students.exception.StudentConflictException;
+import com.example.students.model.Student;
+import com.example.students.repository.StudentRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Operations en masse : verifications ensemblistes puis ecriture par lots JDBC
+@Service
+@Timed(value = "students.service", description = "Duree des operations en masse")
+public class StudentBulkService {
+
+    // Lignes par transaction (et par clause IN) : 10 batches JDBC de hibernate.jdbc.batch_size (50),
+    // 10 blocs d'allocationSize (50) de la sequence ; multiple des deux pour ne pas finir sur un batch partiel
+    static final int CHUNK_SIZE = 500;
+
+    private final StudentRepository studentRepository;
+    private final StudentSearchIndex searchIndex;
+    private final StudentStatistics statistics;
+    private final StudentModificationTracker modificationTracker;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache studentCache;
+
+    // Constructeur manuel (sans Lombok)
+    public StudentBulkService(StudentRepository studentRepository, StudentSearchIndex searchIndex,
+                              StudentStatistics statistics, StudentModificationTracker modificationTracker,
+                              Validator validator, TransactionTemplate transactionTemplate,
+                              CacheManager cacheManager) {
+        this.studentRepository = studentRepository;
+        this.searchIndex = searchIndex;
+        this.statistics = statistics;
+        this.modificationTracker = modificationTracker;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.studentCache = cacheManager.getCache(CacheConfig.STUDENTS_CACHE);
+    }
+
+    public BulkResult createStudents(List<Student> students) {
+        BulkResult result = new BulkResult();
+        Map<Integer, Student> valid = validate(students, result);
+        // L'id est attribue par la sequence, celui du client est ignore
+        valid.values().forEach(student -> student.setId(null));
+        rejectDuplicateEmails(valid, emailOwners(valid.values()), result);
+
+        List<Integer> indexes = new ArrayList<>(valid.keySet());
+        for (int from = 0; from < indexes.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + CHUNK_SIZE, indexes.size()));
+            List<Student> toInsert = chunk.stream().map(valid::get).toList();
+            try {
+                List<Student> saved = studentRepository.saveAll(toInsert);
+                for (int i = 0; i < chunk.size(); i++) {
+                    searchIndex.index(saved.get(i));
+                    statistics.added(saved.get(i).getMajor(), saved.get(i).getAge());
+                    modificationTracker.created(saved.get(i));
+                    result.success(chunk.get(i), saved.get(i).getId());
+                }
+            } catch (DataIntegrityViolationException e) {
+                // Course avec une autre ecriture : on rejoue le lot element par element
+                for (Integer index : chunk) {
+                    Student student = valid.get(index);
+                    student.setId(null);
+                    try {
+                        Student saved = studentRepository.save(student);
+                        searchIndex.index(saved);
+                        statistics.added(saved.getMajor(), saved.getAge());
+                        modificationTracker.created(saved);
+                        result.success(index, saved.getId());
+                    } catch (DataIntegrityViolationException ex) {
+                        result.failure(index, null, StudentConflictException.isEmailConflict(ex)
+                            ? StudentConflictException.EMAIL_EXISTS : ex.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public BulkResult updateStudents(List<Student> students) {
+        BulkResult result = new BulkResult();
+        Map<Integer, Student> valid = validate(students, result);
+        valid.entrySet().removeIf(entry -> {
+            if (entry.getValue().getId() == null) {
+                result.failure(entry.getKey(), null, "L'id est obligatoire");
+                return true;
+            }
+            return false;
+        });
+        rejectDuplicateEmails(valid, emailOwners(valid.values()), result);
+
+        List<Integer> indexes = new ArrayList<>(valid.keySet());
+        for (int from = 0; from < indexes.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + CHUNK_SIZE, indexes.size()));
+            Map<Long, Student> before = new HashMap<>();
+            List<Student> updated;
+            try {
+                updated = update(chunk, valid, before);
+            } catch (DataIntegrityViolationException | ObjectOptimisticLockingFailureException e) {
+                // Conflit avec une autre ecriture : le lot est annule, on le rejoue ligne par ligne
+                // pour n'ecarter que les lignes en cause
+                for (Integer index : chunk) {
+                    Long id = valid.get(index).getId();
+                    Map<Long, Student> previous = new HashMap<>();
+                    try {
+                        applied(result, index, id, update(List.of(index), valid, previous).get(0), previous);
+                    } catch (DataIntegrityViolationException ex) {
+                        result.failure(index, id, StudentConflictException.isEmailConflict(ex)
+                            ? StudentConflictException.EMAIL_IN_USE : ex.getMostSpecificCause().getMessage());
+                    } catch (ObjectOptimisticLockingFailureException ex) {
+                        result.failure(index, id, "L'etudiant " + id + " a ete modifie entre-temps");
+                    }
+                }
+                continue;
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                applied(result, chunk.get(i), valid.get(chunk.get(i)).getId(), updated.get(i), before);
+            }
+        }
+        return result;
+    }
+
+    // Une transaction pour les lignes du lot ; null a la place d'un etudiant introuvable.
+    // before : age et filiere avant modification, pour les statistiques
+    private List<Student> update(List<Integer> chunk, Map<Integer, Student> valid, Map<Long, Student> before) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, Student> existing = studentRepository
+                .findAllById(chunk.stream().map(index -> valid.get(index).getId()).toList())
+                .stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+            List<Student> changed = new ArrayList<>(chunk.size());
+            for (Integer index : chunk) {
+                Student details = valid.get(index);
+                Student student = existing.get(details.getId());
+                if (student == null) {
+                    changed.add(null);
+                    continue;
+                }
+                before.putIfAbsent(student.getId(),
+                    new Student(null, null, null, null, student.getAge(), student.getMajor()));
+                student.setFirstName(details.getFirstName());
+                student.setLastName(details.getLastName());
+                student.setEmail(details.getEmail());
+                student.setAge(details.getAge());
+                student.setMajor(details.getMajor());
+                changed.add(student);
+            }
+            // Les modifications sont envoyees en un seul batch au commit (dirty checking) ;
+            // saveAll ne fait que rattacher les entites gerees, mais ecrit celles d'un stockage
+            // qui ne renvoie pas d'entites gerees (profil offheap)
+            List<Student> toSave = changed.stream().filter(Objects::nonNull).toList();
+            if (!toSave.isEmpty()) {
+                Iterator<Student> saved = studentRepository.saveAll(toSave).iterator();
+                changed.replaceAll(student -> student == null ? null : saved.next());
+            }
+            return changed;
+        });
+    }
+
+    private void applied(BulkResult result, int index, Long id, Student student, Map<Long, Student> before) {
+        if (student == null) {
+            result.failure(index, id, "Etudiant non trouve avec l'id: " + id);
+            return;
+        }
+        searchIndex.index(student);
+        Student previous = before.remove(id);
+        if (previous != null) {
+            statistics.changed(previous.getMajor(), previous.getAge(), student.getMajor(), student.getAge());
+        }
+        // Suivi avant l'eviction, comme dans StudentService (@CacheEvict s'applique au retour)
+        modificationTracker.updated(student);
+        studentCache.evict(id);
+        result.success(index, id);
+    }
+
+    public BulkResult deleteStudents(List<Long> ids) {
+        BulkResult result = new BulkResult();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            // Un seul DELETE ... WHERE id IN (...) par lot, qui renvoie les lignes supprimees
+            List<Long> candidates = chunk.stream().filter(Objects::nonNull).distinct().toList();
+            Map<Long, StudentRepository.PreviousState> existing = candidates.isEmpty()
+                ? Map.of()
+                : studentRepository.deleteAllReturningPrevious(candidates).stream()
+                    .collect(Collectors.toMap(StudentRepository.PreviousState::getId, Function.identity()));
+            Set<Long> deleted = new HashSet<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                Long id = chunk.get(i);
+                StudentRepository.PreviousState previous = existing.get(id);
+                if (previous != null && deleted.add(id)) {
+                    searchIndex.remove(id);
+                    statistics.removed(previous.getMajor(), previous.getAge());
+                    modificationTracker.deleted(id);
+                    studentCache.evict(id);
+                    result.success(from + i, id);
+                } else {
+                    result.failure(from + i, id, "Etudiant non trouve avec l'id: " + id);
+                }
+            }
+        }
+        return result;
+    }
+
+    private Map<Integer, Student> validate(List<Student> students, BulkResult result) {
+        Map<Integer, Student> valid = new LinkedHashMap<>();
+        for (int index = 0; index < students.size(); index++) {
+            Student student = students.get(index);
+            if (student == null) {
+                result.failure(index, null, "Element vide");
+                continue;
+            }
+            Set<ConstraintViolation<Student>> violations = validator.validate(student);
+            if (violations.isEmpty()) {
+                valid.put(index, student);
+            } else {
+                result.failure(index, student.getId(), violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            }
+        }
+        return valid;
+    }
+
+    // Doublons dans la requete elle-meme ou avec un autre etudiant deja en base
+    private void rejectDuplicateEmails(Map<Integer, Student> valid, Map<String, Long> owners,
+                                       BulkResult result) {
+        Set<String> seen = new HashSet<>();
+        valid.entrySet().removeIf(entry -> {
+            Student student = entry.getValue();
+            Long owner = owners.get(student.getEmail());
+            if (!seen.add(student.getEmail())) {
+                result.failure(entry.getKey(), student.getId(), "Email en double dans la requete");
+                return true;
+            }
+            if (owner != null && !owner.equals(student.getId())) {
+                result.failure(entry.getKey(), student.getId(), StudentConflictException.EMAIL_EXISTS);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private Map<String, Long> emailOwners(Collection<Student> students) {
+        List<String> emails = students.stream().map(Student::getEmail).distinct().toList();
+        Map<String, Long> owners = new HashMap<>();
+        for (int from = 0; from < emails.size(); from += CHUNK_SIZE) {
+            studentRepository.findByEmailIn(emails.subList(from, Math.min(from + CHUNK_SIZE, emails.size())))
+                .forEach(owner -> owners.put(owner.getEmail(), owner.getId()));
+        }
+        return owners;
+    }
+}
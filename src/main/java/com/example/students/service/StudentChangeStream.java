@@ -0,0 +1,280 @@
+package com.example.students.service;
+
+import com.example.students.dto.StudentChange;
+import com.example.students.model.Student;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Flux SSE des modifications : un journal circulaire partage et un simple curseur par abonne.
+// Un abonne inactif ne coute que son curseur et son SseEmitter (aucun thread, aucune file).
+// Un abonne en retard de plus de maxLag evenements recoit le dernier etat de chaque etudiant
+// (fusion), et un evenement "reset" si le journal a deja ecrase ce qu'il n'a pas lu.
+// Ids d'evenements "<epoque>-<sequence>" : l'epoque change a chaque demarrage, un Last-Event-ID
+// d'un demarrage precedent (ou d'une autre instance) recoit donc un "reset".
+// Envoi bloque plus de send-timeout (client qui ne lit plus) : l'abonne est deconnecte et un thread
+// remplace celui qui reste bloque dans l'ecriture, les autres abonnes continuent d'etre servis.
+@Component
+public class StudentChangeStream {
+
+    private static final long IDLE = Long.MIN_VALUE;
+    private static final long STALLED = Long.MIN_VALUE + 1;
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicReferenceArray<StudentChange> journal;
+    private final int mask;
+    private final int maxLag;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final ThreadPoolExecutor dispatcher;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Dernier numero publie ; les numeros 1..published sont contigus dans le journal
+    private volatile long published;
+
+    public StudentChangeStream(@Value("${students.changes.buffer-size:4096}") int bufferSize,
+                               @Value("${students.changes.max-lag:256}") int maxLag,
+                               @Value("${students.changes.dispatch-threads:2}") int dispatchThreads,
+                               @Value("${students.changes.timeout:PT30M}") Duration timeout,
+                               @Value("${students.changes.send-timeout:PT5S}") Duration sendTimeout) {
+        int capacity = Integer.highestOneBit(Math.max(bufferSize, 2) * 2 - 1);
+        this.journal = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.maxLag = maxLag;
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("student-changes-");
+        threadFactory.setDaemon(true);
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), threadFactory);
+    }
+
+    public StudentChange publish(StudentChange.Type type, Long id, Student student) {
+        StudentChange change;
+        synchronized (this) {
+            change = new StudentChange(published + 1, type, id, student, Instant.now());
+            journal.set((int) (change.sequence() & mask), change);
+            published = change.sequence();
+        }
+        subscribers.forEach(Subscriber::signal);
+        return change;
+    }
+
+    // lastEventId : dernier evenement recu par le client (reprise), null pour ne recevoir que la suite
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(new SseEmitter(timeoutMillis), lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, lastEventId == null ? published : cursor(lastEventId));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        subscriber.signal();
+        return emitter;
+    }
+
+    public long published() { return published; }
+    public String eventId(long sequence) { return epoch + "-" + sequence; }
+    public int subscriberCount() { return subscribers.size(); }
+
+    // Detecte les connexions fermees cote client, et maintient les proxys ouverts
+    @Scheduled(fixedRateString = "${students.changes.heartbeat:PT15S}")
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    // Avant l'arret du serveur web : les connexions ouvertes sont terminees proprement
+    // Envoi en cours depuis plus de send-timeout : abonne retire et thread de remplacement
+    @Scheduled(fixedRateString = "${students.changes.stall-check:PT1S}")
+    public void dropStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long start = subscriber.sending.get();
+            if (start != IDLE && start != STALLED && now - start > sendTimeoutNanos
+                && subscriber.sending.compareAndSet(start, STALLED)) {
+                subscribers.remove(subscriber);
+                resizeDispatcher(1);
+            }
+        }
+    }
+
+    int dispatcherThreads() { return dispatcher.getCorePoolSize(); }
+
+    private void resizeDispatcher(int delta) {
+        synchronized (dispatcher) {
+            // Agrandir : maximum puis coeur ; reduire : coeur puis maximum
+            if (delta > 0) {
+                dispatcher.setMaximumPoolSize(dispatcher.getMaximumPoolSize() + delta);
+                dispatcher.setCorePoolSize(dispatcher.getCorePoolSize() + delta);
+            } else {
+                dispatcher.setCorePoolSize(dispatcher.getCorePoolSize() + delta);
+                dispatcher.setMaximumPoolSize(dispatcher.getMaximumPoolSize() + delta);
+            }
+        }
+    }
+
+    // Sequence d'un Last-Event-ID ; -1 (resynchronisation) s'il vient d'une autre epoque
+    private long cursor(String lastEventId) {
+        String prefix = epoch + "-";
+        if (lastEventId.startsWith(prefix)) {
+            try {
+                return Long.parseLong(lastEventId.substring(prefix.length()));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void closeSubscriptions() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.clear();
+        dispatcher.shutdownNow();
+    }
+
+    // Evenements (cursor, upTo] ; null si une partie a ete ecrasee dans le journal
+    // (ou si le curseur vient d'un demarrage precedent) : l'abonne doit se resynchroniser
+    List<StudentChange> eventsAfter(long cursor, long upTo) {
+        if (cursor < 0 || cursor > upTo || upTo - cursor > journal.length()) {
+            return null;
+        }
+        List<StudentChange> events = new ArrayList<>((int) (upTo - cursor));
+        for (long sequence = cursor + 1; sequence <= upTo; sequence++) {
+            StudentChange change = journal.get((int) (sequence & mask));
+            if (change == null || change.sequence() != sequence) {
+                return null;
+            }
+            events.add(change);
+        }
+        return events;
+    }
+
+    // Ne garde que le dernier evenement par etudiant, dans l'ordre des sequences
+    static List<StudentChange> coalesce(List<StudentChange> events) {
+        Map<Long, StudentChange> latest = new LinkedHashMap<>();
+        for (StudentChange change : events) {
+            latest.remove(change.id());
+            latest.put(change.id(), change);
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Debut (nanoTime) de l'envoi en cours, IDLE hors envoi, STALLED si declare bloque
+        private final AtomicLong sending = new AtomicLong(IDLE);
+        private volatile boolean heartbeat;
+        // Lu et ecrit uniquement par drain(), execute par un seul thread a la fois
+        private long cursor;
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        void heartbeat() {
+            heartbeat = true;
+            signal();
+        }
+
+        void signal() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                deliver();
+            } catch (IOException | IllegalStateException e) {
+                // Client deconnecte, emetteur termine ou abonne trop lent
+                subscribers.remove(this);
+                if (sending.get() == STALLED) {
+                    emitter.complete();
+                }
+                scheduled.set(false);
+                return;
+            }
+            scheduled.set(false);
+            if ((published != cursor || heartbeat) && subscribers.contains(this)) {
+                signal();
+            }
+        }
+
+        private void deliver() throws IOException {
+            long upTo = published;
+            if (upTo != cursor) {
+                List<StudentChange> events = eventsAfter(cursor, upTo);
+                if (events == null) {
+                    send(SseEmitter.event().id(eventId(upTo)).name("reset")
+                        .data(Map.of("sequence", upTo), MediaType.APPLICATION_JSON));
+                } else {
+                    for (StudentChange change : events.size() > maxLag ? coalesce(events) : events) {
+                        send(SseEmitter.event()
+                            .id(eventId(change.sequence()))
+                            .name(change.type().name().toLowerCase(Locale.ROOT))
+                            .data(change, MediaType.APPLICATION_JSON));
+                    }
+                }
+                cursor = upTo;
+                heartbeat = false;
+            } else if (heartbeat) {
+                heartbeat = false;
+                send(SseEmitter.event().comment("ping"));
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            if (sending.get() == STALLED) {
+                throw new IOException("Abonne deconnecte (envoi bloque)");
+            }
+            long start = System.nanoTime();
+            sending.set(start);
+            try {
+                emitter.send(event);
+            } finally {
+                // Declare bloque pendant l'envoi : le thread de remplacement n'est plus necessaire
+                if (!sending.compareAndSet(start, IDLE)) {
+                    resizeDispatcher(-1);
+                }
+            }
+            if (sending.get() == STALLED) {
+                throw new IOException("Abonne deconnecte (envoi bloque)");
+            }
+        }
+    }
+}
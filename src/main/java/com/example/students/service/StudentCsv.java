@@ -0,0 +1,151 @@
+package com.example.students.service;
+
+import com.example.students.model.Student;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Format CSV (RFC 4180) des imports / exports : en-tete obligatoire, champs entre guillemets si besoin
+final class StudentCsv {
+
+    static final String HEADER = "id,firstName,lastName,email,age,major";
+    private static final List<String> REQUIRED = List.of("firstName", "lastName", "email", "age", "major");
+
+    private StudentCsv() {}
+
+    static void appendField(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            line.append(value);
+        } else {
+            line.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+
+    // Lecture enregistrement par enregistrement : un champ entre guillemets peut contenir des fins de
+    // ligne (appendField les ecrit telles quelles), l'enregistrement continue alors sur les lignes
+    // suivantes. Les fins de ligne d'un champ sont relues comme '\n'
+    static final class RecordReader {
+
+        private final BufferedReader reader;
+        private long lines;
+        private long firstLine;
+
+        RecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        // null en fin de flux
+        String next() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            firstLine = ++lines;
+            int quotes = quotes(line);
+            if (quotes % 2 == 0) {
+                return line;
+            }
+            StringBuilder record = new StringBuilder(line);
+            while (quotes % 2 != 0 && (line = reader.readLine()) != null) {
+                lines++;
+                record.append('\n').append(line);
+                quotes += quotes(line);
+            }
+            return record.toString();
+        }
+
+        // Numero de la premiere ligne du dernier enregistrement lu
+        long line() {
+            return firstLine;
+        }
+
+        // Guillemets doubles ("") compris : leur nombre pair laisse l'etat ouvert / ferme inchange
+        private static int quotes(String line) {
+            int quotes = 0;
+            for (int i = 0; i < line.length(); i++) {
+                if (line.charAt(i) == '"') {
+                    quotes++;
+                }
+            }
+            return quotes;
+        }
+    }
+
+    // Colonnes identifiees par leur nom dans l'en-tete : l'ordre est libre, id est ignore
+    static Map<String, Integer> columns(String header) {
+        if (header == null) {
+            throw new RuntimeException("Fichier CSV vide");
+        }
+        List<String> names = split(header.startsWith("﻿") ? header.substring(1) : header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        for (String required : REQUIRED) {
+            if (!columns.containsKey(required)) {
+                throw new RuntimeException("Colonne manquante dans l'en-tete CSV: " + required);
+            }
+        }
+        return columns;
+    }
+
+    static Student parse(String line, Map<String, Integer> columns) {
+        List<String> fields = split(line);
+        if (fields.size() < columns.size()) {
+            throw new IllegalArgumentException("Nombre de colonnes invalide: " + fields.size());
+        }
+        String age = field(fields, columns, "age");
+        Integer parsedAge = null;
+        if (age != null && !age.isBlank()) {
+            try {
+                parsedAge = Integer.valueOf(age.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("age: valeur non numerique '" + age + "'");
+            }
+        }
+        return new Student(null, field(fields, columns, "firstName"), field(fields, columns, "lastName"),
+            field(fields, columns, "email"), parsedAge, field(fields, columns, "major"));
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        return fields.get(columns.get(name));
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Guillemet non ferme");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
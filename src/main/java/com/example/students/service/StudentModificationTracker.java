@@ -0,0 +1,48 @@
+package com.example.students.service;
+
+import com.example.students.dto.StudentChange;
+import com.example.students.model.Student;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Point de passage de toutes les ecritures des services, apres l'ecriture en base :
+// publication sur le flux SSE des modifications, ajout au journal d'audit et avis aux abonnes (onChange).
+@Component
+public class StudentModificationTracker {
+
+    private final StudentChangeStream changeStream;
+    private final AuditJournal auditJournal;
+    private final List<Consumer<Long>> listeners = new CopyOnWriteArrayList<>();
+
+    // Constructeur manuel (sans Lombok)
+    public StudentModificationTracker(StudentChangeStream changeStream, AuditJournal auditJournal) {
+        this.changeStream = changeStream;
+        this.auditJournal = auditJournal;
+    }
+
+    public void created(Student student) {
+        record(StudentChange.Type.CREATED, student.getId(), student);
+    }
+
+    public void updated(Student student) {
+        record(StudentChange.Type.UPDATED, student.getId(), student);
+    }
+
+    public void deleted(Long id) {
+        record(StudentChange.Type.DELETED, id, null);
+    }
+
+    // Id de chaque etudiant cree, modifie ou supprime, avant l'eviction de son entree en cache
+    public void onChange(Consumer<Long> listener) {
+        listeners.add(listener);
+    }
+
+    private void record(StudentChange.Type type, Long id, Student student) {
+        listeners.forEach(listener -> listener.accept(id));
+        auditJournal.append(type, id, student);
+        changeStream.publish(type, id, student);
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.students.service;
+
+import com.example.students.model.Student;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Index inverse en memoire (sous-chaines de 1 a 3 caracteres) sur prenom et nom. Memes resultats que
+// la requete LIKE de repli (StudentService) : sous-chaine du prenom ou du nom, sans distinction de
+// casse, accents compris ; classement commun (rank).
+// Listes d'ids en tableaux primitifs tries (8 octets par entree, pas de Long ni de noeud de Set) ;
+// index() / remove() d'un meme id serialises par documents.compute.
+@Component
+public class StudentSearchIndex {
+
+    private static final int GRAM_SIZE = 3;
+
+    private final boolean enabled;
+    private final Map<Long, IndexedStudent> documents = new ConcurrentHashMap<>();
+    private final Map<String, Posting> postings = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public StudentSearchIndex(@Value("${students.search.index.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public boolean isReady() { return ready; }
+    public int size() { return documents.size(); }
+
+    public void rebuild(Stream<Student> students) {
+        ready = false;
+        documents.clear();
+        postings.clear();
+        students.forEach(this::index);
+        postings.values().forEach(Posting::trim);
+        ready = true;
+    }
+
+    public void index(Student student) {
+        IndexedStudent document = new IndexedStudent(copyOf(student));
+        long id = student.getId();
+        documents.compute(student.getId(), (key, previous) -> {
+            Set<String> keys = document.keys();
+            if (previous != null) {
+                for (String stale : previous.keys()) {
+                    if (!keys.contains(stale)) {
+                        removePosting(stale, id);
+                    }
+                }
+            }
+            keys.forEach(gram -> postings.compute(gram, (k, posting) -> {
+                Posting ids = posting == null ? new Posting() : posting;
+                ids.add(id);
+                return ids;
+            }));
+            return document;
+        });
+    }
+
+    public void remove(Long id) {
+        documents.computeIfPresent(id, (key, previous) -> {
+            previous.keys().forEach(gram -> removePosting(gram, id));
+            return null;
+        });
+    }
+
+    public List<Student> search(String query, int limit) {
+        String term = normalize(query);
+        if (term.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        long[] candidates;
+        if (term.length() < GRAM_SIZE) {
+            Posting ids = postings.get(term);
+            candidates = ids == null ? new long[0] : ids.toArray();
+        } else {
+            candidates = intersect(grams(term));
+        }
+        Ranking ranking = new Ranking(term, limit);
+        for (long id : candidates) {
+            IndexedStudent document = documents.get(id);
+            if (document != null) {
+                ranking.offer(document);
+            }
+        }
+        return ranking.results();
+    }
+
+    // Classement des etudiants renvoyes par la requete LIKE de repli, identique a celui de search
+    public static List<Student> rank(Collection<Student> students, String query, int limit) {
+        String term = normalize(query);
+        if (term.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        Ranking ranking = new Ranking(term, limit);
+        for (Student student : students) {
+            ranking.offer(new IndexedStudent(student));
+        }
+        return ranking.results();
+    }
+
+    // Copie de la plus courte liste, filtree par recherche dichotomique dans les autres
+    private long[] intersect(Set<String> grams) {
+        List<Posting> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Posting ids = postings.get(gram);
+            if (ids == null) {
+                return new long[0];
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Posting::size));
+        long[] result = lists.get(0).toArray();
+        int size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            Posting other = lists.get(i);
+            int kept = 0;
+            for (int j = 0; j < size; j++) {
+                if (other.contains(result[j])) {
+                    result[kept++] = result[j];
+                }
+            }
+            size = kept;
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private void removePosting(String key, long id) {
+        postings.computeIfPresent(key, (k, ids) -> ids.remove(id) ? null : ids);
+    }
+
+    // Minuscules seulement, comme LOWER/UPPER de la requete LIKE (ni accents retires, ni espaces)
+    static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private static Student copyOf(Student student) {
+        return new Student(student.getId(), student.getFirstName(), student.getLastName(),
+            student.getEmail(), student.getAge(), student.getMajor());
+    }
+
+    private record Match(Student student, int score) {}
+
+    // Les limit meilleurs documents contenant le terme : score decroissant, puis id croissant
+    private static final class Ranking {
+
+        private final String term;
+        private final int limit;
+        private final PriorityQueue<Match> best = new PriorityQueue<>(Comparator.comparingInt(Match::score)
+            .thenComparing(Comparator.comparingLong((Match m) -> m.student().getId()).reversed()));
+
+        Ranking(String term, int limit) {
+            this.term = term;
+            this.limit = limit;
+        }
+
+        void offer(IndexedStudent document) {
+            int score = document.score(term);
+            if (score > 0) {
+                best.offer(new Match(document.student(), score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+
+        List<Student> results() {
+            List<Student> results = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                results.add(best.poll().student());
+            }
+            Collections.reverse(results);
+            return results;
+        }
+    }
+
+    // Ids tries d'une cle. Ecritures sous le verrou de postings.compute, lectures concurrentes
+    // sous le verrou de l'instance
+    private static final class Posting {
+
+        private long[] ids = new long[2];
+        private int size;
+
+        synchronized void add(long id) {
+            // Ids le plus souvent croissants : ajout en fin sans recherche
+            int position = size > 0 && ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertion = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, insertion, ids, insertion + 1, size - insertion);
+            ids[insertion] = id;
+            size++;
+        }
+
+        // true si la liste est vide apres suppression
+        synchronized boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+            return size == 0;
+        }
+
+        synchronized boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        synchronized int size() { return size; }
+
+        synchronized long[] toArray() { return Arrays.copyOf(ids, size); }
+
+        synchronized void trim() {
+            if (ids.length > size) {
+                ids = Arrays.copyOf(ids, Math.max(size, 1));
+            }
+        }
+    }
+
+    private static final class IndexedStudent {
+
+        private final Student student;
+        private final String[] fields;
+
+        IndexedStudent(Student student) {
+            this.student = student;
+            this.fields = new String[] {normalize(student.getFirstName()), normalize(student.getLastName())};
+        }
+
+        Student student() { return student; }
+
+        // Toutes les sous-chaines de 1 a GRAM_SIZE caracteres
+        Set<String> keys() {
+            Set<String> keys = new HashSet<>();
+            for (String field : fields) {
+                for (int i = 0; i < field.length(); i++) {
+                    for (int end = i + 1; end <= Math.min(field.length(), i + GRAM_SIZE); end++) {
+                        keys.add(field.substring(i, end));
+                    }
+                }
+            }
+            return keys;
+        }
+
+        // Egalite > debut de champ > debut de mot > sous-chaine, prenom et nom a egalite
+        int score(String term) {
+            int score = 0;
+            for (String field : fields) {
+                int position = field.indexOf(term);
+                if (position < 0) {
+                    continue;
+                }
+                int quality;
+                if (field.length() == term.length()) {
+                    quality = 8;
+                } else if (position == 0) {
+                    quality = 4;
+                } else if (!Character.isLetterOrDigit(field.charAt(position - 1))) {
+                    quality = 2;
+                } else {
+                    quality = 1;
+                }
+                score += quality;
+            }
+            return score;
+        }
+    }
+}
@@ -1,56 +1,201 @@
 package com.example.students.service;
 
+import com.example.students.config.CacheConfig;
+import com.example.students.dto.StudentQuery;
+import com.example.students.dto.StudentStats;
+import com.example.students.exception.PreconditionFailedException;
+import com.example.students.exception.StudentConflictException;
+import com.example.students.exception.StudentNotFoundException;
 import com.example.students.model.Student;
 import com.example.students.repository.StudentRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
+// Lectures en transaction readOnly (ici ou dans le repository) : servies par un replica avec le profil "replicas"
 @Service
+@Timed(value = "students.service", description = "Duree des methodes de StudentService")
 public class StudentService {
 
+    // Taille des lots lus a chaque requete lors du streaming de la table complete
+    static final int STREAM_CHUNK_SIZE = 500;
+    public static final int DEFAULT_SEARCH_LIMIT = 100;
+
     private final StudentRepository studentRepository;
+    private final StudentSearchIndex searchIndex;
+    private final StudentStatistics statistics;
+    private final StudentModificationTracker modificationTracker;
+    private final SingleFlight<Long, Student> lookups = new SingleFlight<>("by-id");
+    private final SingleFlight<SearchKey, List<Student>> searches = new SingleFlight<>("search");
 
     // Constructeur manuel (sans Lombok)
-    public StudentService(StudentRepository studentRepository) {
+    public StudentService(StudentRepository studentRepository, StudentSearchIndex searchIndex,
+                          StudentStatistics statistics, StudentModificationTracker modificationTracker) {
         this.studentRepository = studentRepository;
+        this.searchIndex = searchIndex;
+        this.statistics = statistics;
+        this.modificationTracker = modificationTracker;
+        // Une lecture par id lancee avant l'ecriture n'est pas partagee avec les appels suivants :
+        // l'ancienne ligne serait rangee dans le cache par un appel posterieur a l'eviction
+        modificationTracker.onChange(lookups::forget);
+    }
+
+    // Construit l'index de recherche une fois l'application demarree ;
+    // tant qu'il n'est pas pret, la recherche passe par la requete LIKE
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSearchIndex() {
+        if (searchIndex.isEnabled()) {
+            try (Stream<Student> students = streamAllStudents()) {
+                searchIndex.rebuild(students);
+            }
+        }
     }
 
+    @Transactional(readOnly = true)
     public List<Student> getAllStudents() {
         return studentRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public List<Student> getStudentsPage(Long after, int limit) {
+        return studentRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, Limit.of(limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findStudents(StudentQuery query) {
+        return studentRepository.findProjected(query);
+    }
+
+    // ETag de la collection tire de l'etat de la base : change aussi avec les ecritures des autres
+    // instances et celles qui ne passent pas par ce service
+    @Transactional(readOnly = true)
+    public String collectionETag() {
+        return "\"" + studentRepository.revision() + "\"";
+    }
+
+    // Parcourt toute la table par lots keyset successifs : chaque lot est une requete courte,
+    // la memoire reste bornee a STREAM_CHUNK_SIZE entites quelle que soit la taille de la table
+    // (open-in-view desactive : chaque lot est detache a la fin de sa transaction)
+    public Stream<Student> streamAllStudents() {
+        return Stream.iterate(
+                getStudentsPage(null, STREAM_CHUNK_SIZE),
+                page -> !page.isEmpty(),
+                page -> page.size() < STREAM_CHUNK_SIZE
+                    ? List.of()
+                    : getStudentsPage(page.get(page.size() - 1).getId(), STREAM_CHUNK_SIZE))
+            .flatMap(List::stream);
+    }
+
+    // Lectures concurrentes du meme id regroupees (findById est lui-meme en transaction readOnly) :
+    // hors transaction ici, les appels en attente ne tiennent pas de connexion
+    // sync : chargement par Cache.get(key, loader), versionne avec le cache proche multi-instances
+    @Cacheable(cacheNames = CacheConfig.STUDENTS_CACHE, key = "#id", sync = true)
     public Student getStudentById(Long id) {
-        return studentRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Etudiant non trouve avec l'id: " + id));
+        return lookups.execute(id, () ->
+            studentRepository.findById(id).orElseThrow(() -> new StudentNotFoundException(id)));
     }
 
     public Student createStudent(Student student) {
-        if (studentRepository.existsByEmail(student.getEmail())) {
-            throw new RuntimeException("Un etudiant avec cet email existe deja");
+        // L'id est attribue par la sequence, celui du client est ignore
+        student.setId(null);
+        Student saved;
+        try {
+            saved = studentRepository.save(student);
+        } catch (DataIntegrityViolationException e) {
+            if (!StudentConflictException.isEmailConflict(e)) {
+                throw e;
+            }
+            throw new StudentConflictException(StudentConflictException.EMAIL_EXISTS);
         }
-        return studentRepository.save(student);
+        searchIndex.index(saved);
+        statistics.added(saved.getMajor(), saved.getAge());
+        modificationTracker.created(saved);
+        return saved;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.STUDENTS_CACHE, key = "#id")
     public Student updateStudent(Long id, Student studentDetails) {
-        Student student = getStudentById(id);
-        if (studentRepository.existsByEmailAndIdNot(studentDetails.getEmail(), id)) {
-            throw new RuntimeException("Cet email est deja utilise par un autre etudiant");
+        return updateStudent(id, studentDetails, null);
+    }
+
+    // expectedVersion : version attendue (If-Match), null pour ecraser sans verification
+    @CacheEvict(cacheNames = CacheConfig.STUDENTS_CACHE, key = "#id")
+    public Student updateStudent(Long id, Student studentDetails, Long expectedVersion) {
+        StudentRepository.PreviousState previous;
+        try {
+            previous = studentRepository.updateById(id, studentDetails.getFirstName(),
+                studentDetails.getLastName(), studentDetails.getEmail(),
+                studentDetails.getAge(), studentDetails.getMajor(), expectedVersion)
+                .orElseThrow(() -> missingOrStale(id, expectedVersion));
+        } catch (DataIntegrityViolationException e) {
+            if (!StudentConflictException.isEmailConflict(e)) {
+                throw e;
+            }
+            throw new StudentConflictException(StudentConflictException.EMAIL_IN_USE);
         }
-        student.setFirstName(studentDetails.getFirstName());
-        student.setLastName(studentDetails.getLastName());
-        student.setEmail(studentDetails.getEmail());
-        student.setAge(studentDetails.getAge());
-        student.setMajor(studentDetails.getMajor());
-        return studentRepository.save(student);
+        Student student = new Student(id, studentDetails.getFirstName(), studentDetails.getLastName(),
+            studentDetails.getEmail(), studentDetails.getAge(), studentDetails.getMajor());
+        student.setVersion(previous.getVersion() + 1);
+        searchIndex.index(student);
+        statistics.changed(previous.getMajor(), previous.getAge(), student.getMajor(), student.getAge());
+        modificationTracker.updated(student);
+        return student;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.STUDENTS_CACHE, key = "#id")
     public void deleteStudent(Long id) {
-        Student student = getStudentById(id);
-        studentRepository.delete(student);
+        deleteStudent(id, null);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.STUDENTS_CACHE, key = "#id")
+    public void deleteStudent(Long id, Long expectedVersion) {
+        StudentRepository.PreviousState previous = studentRepository.deleteStudentById(id, expectedVersion)
+            .orElseThrow(() -> missingOrStale(id, expectedVersion));
+        searchIndex.remove(id);
+        statistics.removed(previous.getMajor(), previous.getAge());
+        modificationTracker.deleted(id);
+    }
+
+    // Aucune ligne touchee : etudiant absent, ou present avec une autre version que celle attendue
+    private RuntimeException missingOrStale(Long id, Long expectedVersion) {
+        if (expectedVersion != null && studentRepository.existsById(id)) {
+            return new PreconditionFailedException("L'etudiant " + id + " a ete modifie entre-temps");
+        }
+        return new StudentNotFoundException(id);
+    }
+
+    public StudentStats getStatistics() {
+        return statistics.snapshot();
     }
 
     public List<Student> searchStudents(String query) {
-        return studentRepository
-            .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(query, query);
+        return searchStudents(query, DEFAULT_SEARCH_LIMIT);
     }
+
+    // Index pret ou non, memes resultats dans le meme ordre (classement de StudentSearchIndex)
+    public List<Student> searchStudents(String query, int limit) {
+        if (searchIndex.isReady()) {
+            return searchIndex.search(query, limit);
+        }
+        return searches.execute(new SearchKey(query, limit), () -> StudentSearchIndex.rank(
+            studentRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(query, query),
+            query, limit));
+    }
+
+    public List<SingleFlight<?, ?>> singleFlights() {
+        return List.of(lookups, searches);
+    }
+
+    // Recherche hors index memoire (reconstruction en cours) : un appel peut recevoir le resultat d'une
+    // requete identique lancee juste avant une ecriture ; rien n'est mis en cache
+    private record SearchKey(String query, int limit) {}
 }
@@ -0,0 +1,111 @@
+package com.example.students.service;
+
+import com.example.students.dto.StudentStats;
+import com.example.students.repository.StudentRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Agregats maintenus en memoire a chaque ecriture (compteurs LongAdder, sans verrou) :
+// la lecture ne depend que du nombre de filieres et d'ages distincts, pas de la taille de la table.
+// Une reconciliation periodique par GROUP BY corrige toute derive (ecritures hors service, courses).
+@Component
+public class StudentStatistics {
+
+    private final StudentRepository studentRepository;
+    private volatile Aggregates aggregates = new Aggregates();
+
+    // Constructeur manuel (sans Lombok)
+    public StudentStatistics(StudentRepository studentRepository) {
+        this.studentRepository = studentRepository;
+    }
+
+    public void added(String major, Integer age) {
+        aggregates.add(major, age, 1);
+    }
+
+    public void removed(String major, Integer age) {
+        aggregates.add(major, age, -1);
+    }
+
+    public void changed(String oldMajor, Integer oldAge, String newMajor, Integer newAge) {
+        Aggregates current = aggregates;
+        current.add(oldMajor, oldAge, -1);
+        current.add(newMajor, newAge, 1);
+    }
+
+    // Les ecritures concurrentes a la reconstruction peuvent etre perdues : la reconciliation
+    // suivante les rattrape
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${students.stats.reconcile-interval:PT5M}",
+        initialDelayString = "${students.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        Aggregates rebuilt = new Aggregates();
+        for (StudentRepository.MajorAgeCount row : studentRepository.countByMajorAndAge()) {
+            rebuilt.add(row.getMajor(), row.getAge(), row.getTotal());
+        }
+        aggregates = rebuilt;
+    }
+
+    public StudentStats snapshot() {
+        Aggregates current = aggregates;
+        Map<String, StudentStats.MajorStats> majors = new TreeMap<>();
+        current.majors.forEach((major, counters) -> {
+            long count = counters.count.sum();
+            if (count > 0) {
+                majors.put(major, new StudentStats.MajorStats(count, counters.averageAge()));
+            }
+        });
+        Map<Integer, Long> ages = new TreeMap<>();
+        current.ages.forEach((age, count) -> {
+            long value = count.sum();
+            if (value > 0) {
+                ages.put(age, value);
+            }
+        });
+        return new StudentStats(current.total.count.sum(), current.total.averageAge(), majors, ages);
+    }
+
+    private static final class Aggregates {
+
+        final Counters total = new Counters();
+        final Map<String, Counters> majors = new ConcurrentHashMap<>();
+        final Map<Integer, LongAdder> ages = new ConcurrentHashMap<>();
+
+        void add(String major, Integer age, long delta) {
+            total.add(age, delta);
+            if (major != null) {
+                majors.computeIfAbsent(major, m -> new Counters()).add(age, delta);
+            }
+            if (age != null) {
+                ages.computeIfAbsent(age, a -> new LongAdder()).add(delta);
+            }
+        }
+    }
+
+    private static final class Counters {
+
+        final LongAdder count = new LongAdder();
+        final LongAdder ageSum = new LongAdder();
+        final LongAdder ageCount = new LongAdder();
+
+        void add(Integer age, long delta) {
+            count.add(delta);
+            if (age != null) {
+                ageSum.add(age * delta);
+                ageCount.add(delta);
+            }
+        }
+
+        Double averageAge() {
+            long n = ageCount.sum();
+            return n > 0 ? (double) ageSum.sum() / n : null;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.students.service;
+
+import com.example.students.dto.BulkResult;
+import com.example.students.dto.ImportReport;
+import com.example.students.model.Student;
+import com.example.students.repository.StudentShards;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// Export / import de la table complete en memoire bornee :
+// export par curseur JDBC en avant seulement, import lu enregistrement par enregistrement et ecrit par lots.
+// Profil "sharded" : export shard par shard (ordre des ids au sein de chaque shard), import par le
+// StudentRepository comme les autres ecritures.
+@Service
+public class StudentTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentTransferService.class);
+
+    private static final String EXPORT_SQL =
+        "SELECT id, first_name, last_name, email, age, major FROM students ORDER BY id";
+    // Journalisation de la progression d'un import tous les N lots
+    private static final int PROGRESS_EVERY_CHUNKS = 20;
+
+    public enum Format {
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"),
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType mediaType() { return mediaType; }
+        public String extension() { return extension; }
+
+        public static Format of(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Format inconnu: " + value + " (csv ou ndjson)");
+            }
+        }
+    }
+
+    private final List<JdbcTemplate> sources;
+    private final StudentBulkService bulkService;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    // Constructeur manuel (sans Lombok)
+    public StudentTransferService(JdbcTemplate jdbcTemplate, ObjectProvider<StudentShards> shards,
+                                  StudentBulkService bulkService, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${students.transfer.fetch-size:1000}") int fetchSize) {
+        StudentShards sharded = shards.getIfAvailable();
+        this.sources = sharded == null ? List.of(jdbcTemplate)
+            : IntStream.range(0, sharded.size()).mapToObj(sharded::shard).toList();
+        this.bulkService = bulkService;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.importedRows = meterRegistry.counter("students.import.rows", "result", "ok");
+        this.rejectedRows = meterRegistry.counter("students.import.rows", "result", "error");
+    }
+
+    public void export(Format format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == Format.CSV ? csvWriter(writer) : ndjsonWriter(writer);
+        try {
+            for (JdbcTemplate source : sources) {
+                export(source, rowWriter);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void export(JdbcTemplate source, RowWriter rowWriter) {
+        source.execute((ConnectionCallback<Void>) connection -> {
+            // H2 produit alors les lignes a la demande au lieu de materialiser tout le resultat
+            setLazyExecution(connection, true);
+            try (PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        rowWriter.write(rows);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                setLazyExecution(connection, false);
+            }
+            return null;
+        });
+    }
+
+    public ImportReport importStudents(Format format, InputStream input) throws IOException {
+        ImportReport report = new ImportReport();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        // CSV : un enregistrement peut s'etendre sur plusieurs lignes, numero de sa premiere ligne
+        StudentCsv.RecordReader records = format == Format.CSV ? new StudentCsv.RecordReader(reader) : null;
+        Map<String, Integer> columns = records != null ? StudentCsv.columns(records.next()) : null;
+        ObjectReader studentReader = objectMapper.readerFor(Student.class);
+        List<Student> chunk = new ArrayList<>(StudentBulkService.CHUNK_SIZE);
+        List<Long> lineNumbers = new ArrayList<>(StudentBulkService.CHUNK_SIZE);
+        long lineNumber = 0;
+        long chunks = 0;
+        String line;
+        while ((line = records != null ? records.next() : reader.readLine()) != null) {
+            lineNumber = records != null ? records.line() : lineNumber + 1;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                chunk.add(columns != null ? StudentCsv.parse(line, columns) : studentReader.readValue(line));
+                lineNumbers.add(lineNumber);
+            } catch (IllegalArgumentException | JsonProcessingException e) {
+                report.failure(lineNumber, e instanceof JsonProcessingException json
+                    ? "JSON invalide: " + json.getOriginalMessage() : e.getMessage());
+                rejectedRows.increment();
+            }
+            if (chunk.size() == StudentBulkService.CHUNK_SIZE) {
+                write(chunk, lineNumbers, report);
+                if (++chunks % PROGRESS_EVERY_CHUNKS == 0) {
+                    log.info("Import en cours : {} lignes traitees, {} rejetees", report.getProcessed(), report.getFailed());
+                }
+            }
+        }
+        write(chunk, lineNumbers, report);
+        log.info("Import termine : {} lignes, {} importees, {} rejetees",
+            report.getProcessed(), report.getSucceeded(), report.getFailed());
+        return report;
+    }
+
+    private void write(List<Student> chunk, List<Long> lineNumbers, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        for (BulkResult.ItemResult item : bulkService.createStudents(chunk).getItems()) {
+            if (BulkResult.OK.equals(item.status())) {
+                report.success();
+                importedRows.increment();
+            } else {
+                report.failure(lineNumbers.get(item.index()), item.message());
+                rejectedRows.increment();
+            }
+        }
+        chunk.clear();
+        lineNumbers.clear();
+    }
+
+    private static void setLazyExecution(java.sql.Connection connection, boolean lazy) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + lazy);
+        }
+    }
+
+    private interface RowWriter {
+        void write(ResultSet row) throws SQLException, IOException;
+    }
+
+    private static RowWriter csvWriter(Writer writer) throws IOException {
+        writer.write(StudentCsv.HEADER);
+        writer.write('\n');
+        StringBuilder line = new StringBuilder(128);
+        return row -> {
+            line.setLength(0);
+            line.append(row.getLong(1));
+            for (int column = 2; column <= 6; column++) {
+                line.append(',');
+                StudentCsv.appendField(line, row.getString(column));
+            }
+            writer.append(line).append('\n');
+        };
+    }
+
+    private RowWriter ndjsonWriter(Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.setRootValueSeparator(null);
+        return row -> {
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.getLong(1));
+            generator.writeStringField("firstName", row.getString(2));
+            generator.writeStringField("lastName", row.getString(3));
+            generator.writeStringField("email", row.getString(4));
+            int age = row.getInt(5);
+            if (row.wasNull()) {
+                generator.writeNullField("age");
+            } else {
+                generator.writeNumberField("age", age);
+            }
+            generator.writeStringField("major", row.getString(6));
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        };
+    }
+}
@@ -1,6 +0,0 @@
-INSERT INTO students (first_name, last_name, email, age, major) VALUES
-('Ahmed', 'Ben Ali', 'ahmed.benali@email.com', 21, 'Informatique'),
-('Fatima', 'Zahra', 'fatima.zahra@email.com', 22, 'Mathematiques'),
-('Mohamed', 'Trabelsi', 'med.trabelsi@email.com', 20, 'Physique'),
-('Sarra', 'Mansouri', 'sarra.mansouri@email.com', 23, 'Economie'),
-('Yassine', 'Khelifi', 'yassine.khelifi@email.com', 24, 'Informatique');
@@ -0,0 +1,12 @@
+-- Ids alloues par blocs de 50 (optimiseur pooled-lo cote Hibernate)
+CREATE SEQUENCE students_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE students (
+    id         BIGINT       NOT NULL PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    age        INTEGER,
+    major      VARCHAR(255),
+    CONSTRAINT uk_students_email UNIQUE (email)
+);
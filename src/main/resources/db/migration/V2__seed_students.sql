@@ -0,0 +1,9 @@
+-- Jeu de donnees initial
+INSERT INTO students (id, first_name, last_name, email, age, major) VALUES
+(1, 'Ahmed', 'Ben Ali', 'ahmed.benali@email.com', 21, 'Informatique'),
+(2, 'Fatima', 'Zahra', 'fatima.zahra@email.com', 22, 'Mathematiques'),
+(3, 'Mohamed', 'Trabelsi', 'med.trabelsi@email.com', 20, 'Physique'),
+(4, 'Sarra', 'Mansouri', 'sarra.mansouri@email.com', 23, 'Economie'),
+(5, 'Yassine', 'Khelifi', 'yassine.khelifi@email.com', 24, 'Informatique');
+
+ALTER SEQUENCE students_seq RESTART WITH 6;
@@ -0,0 +1,9 @@
+-- H2 n'indexe pas directement une expression : LOWER(first_name) / LOWER(last_name)
+-- sont materialises en colonnes generees puis indexes (recherche par prefixe insensible a la casse)
+ALTER TABLE students ADD COLUMN first_name_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(first_name));
+ALTER TABLE students ADD COLUMN last_name_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(last_name));
+CREATE INDEX idx_students_first_name_lower ON students (first_name_lower);
+CREATE INDEX idx_students_last_name_lower ON students (last_name_lower);
+
+-- Filtres par filiere puis tranche d'age
+CREATE INDEX idx_students_major_age ON students (major, age);
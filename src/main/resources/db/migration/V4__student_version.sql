@@ -0,0 +1,2 @@
+-- Verrou optimiste (@Version) : incremente a chaque modification, expose comme ETag
+ALTER TABLE students ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
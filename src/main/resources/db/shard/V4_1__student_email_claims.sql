@@ -0,0 +1,12 @@
+-- Bases de shard (profil "sharded") : ids attribues par le generateur Snowflake, pas par la sequence ;
+-- le jeu de donnees initial (V2) est retire, ses lignes ne sont pas reparties entre les shards
+DELETE FROM students;
+
+-- Unicite globale des emails : une revendication par email, dans le shard de hash(email).
+-- claimed_at : une revendication sans ligne etudiant (arret entre les deux ecritures) est reprise
+-- apres un delai
+CREATE TABLE student_emails (
+    email      VARCHAR(255) NOT NULL PRIMARY KEY,
+    student_id BIGINT       NOT NULL,
+    claimed_at TIMESTAMP    DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
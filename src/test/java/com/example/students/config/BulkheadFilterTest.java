@@ -0,0 +1,101 @@
+package com.example.students.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadFilterTest {
+
+    @Test
+    void filter_shouldRejectWith503_whenAllPermitsAreTaken() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BulkheadFilter filter = new BulkheadFilter(registry, 1, 1, Duration.ofMillis(10));
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<MockHttpServletResponse> slow = executor.submit(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/students/1"), response, (req, res) -> {
+                inside.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            return response;
+        });
+        assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/students/2"), rejected, new MockFilterChain());
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals("application/problem+json;charset=UTF-8", rejected.getContentType());
+        assertEquals(1.0, registry.get("students.http.rejected").tag("reason", "bulkhead").counter().count());
+        assertEquals(1, filter.inFlight());
+
+        release.countDown();
+        assertEquals(200, slow.get(5, TimeUnit.SECONDS).getStatus());
+        executor.shutdown();
+        MockHttpServletResponse accepted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/students/2"), accepted, new MockFilterChain());
+        assertEquals(200, accepted.getStatus());
+        assertEquals(0, filter.inFlight());
+    }
+
+    @Test
+    void filter_shouldRejectWithoutWaiting_whenQueueIsFull() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BulkheadFilter filter = new BulkheadFilter(registry, 1, 1, Duration.ofSeconds(30));
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<MockHttpServletResponse> running = executor.submit(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/students/1"), response, (req, res) -> {
+                inside.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            return response;
+        });
+        assertTrue(inside.await(5, TimeUnit.SECONDS));
+        Future<MockHttpServletResponse> waiting = executor.submit(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/students/2"), response, new MockFilterChain());
+            return response;
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (filter.queued() < 1 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1, filter.queued());
+
+        long start = System.nanoTime();
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/students/3"), rejected, new MockFilterChain());
+        assertEquals(503, rejected.getStatus());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+        release.countDown();
+        assertEquals(200, running.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(200, waiting.get(5, TimeUnit.SECONDS).getStatus());
+        executor.shutdown();
+        assertEquals(0, filter.queued());
+    }
+}
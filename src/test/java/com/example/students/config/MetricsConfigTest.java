@@ -0,0 +1,39 @@
+package com.example.students.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheus_shouldExposeServiceTimersAndSqlStatementsPerRequest() throws Exception {
+        mockMvc.perform(get("/api/students/1")).andExpect(status().isOk());
+
+        String metrics = mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertTrue(metrics.contains("students_service_seconds_count{class=\"com.example.students.service.StudentService\","
+            + "exception=\"none\",method=\"getStudentById\""));
+        assertTrue(metrics.contains("students_service_seconds{class=\"com.example.students.service.StudentService\","
+            + "exception=\"none\",method=\"getStudentById\",quantile=\"0.99\""));
+        // Lecture par id non cachee : une seule instruction SQL
+        assertTrue(metrics.contains("students_http_sql_statements_sum{method=\"GET\",uri=\"/api/students/{id}\",} 1.0"));
+        assertTrue(metrics.contains("hikaricp_connections_active"));
+        assertTrue(metrics.contains("hibernate_entities_loads_total"));
+        assertTrue(metrics.contains("spring_data_repository_invocations_seconds_count"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.students.config;
+
+import com.example.students.StudentApplication;
+import com.example.students.exception.StudentNotFoundException;
+import com.example.students.model.Student;
+import com.example.students.service.StudentService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Deux instances de l'application dans la JVM, meme base H2 en memoire et meme canal d'invalidation :
+// une ecriture sur l'une invalide le cache de l'autre
+class NearCacheMultiInstanceTest {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startInstances() {
+        String name = UUID.randomUUID().toString();
+        nodeA = start(name);
+        nodeB = start(name);
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    private static ConfigurableApplicationContext start(String name) {
+        return new SpringApplicationBuilder(StudentApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                "--students.cache.invalidation.transport=in-process",
+                "--students.cache.invalidation.channel=" + name,
+                "--students.audit.dir=target/test-audit/" + UUID.randomUUID());
+    }
+
+    @Test
+    void updateOnOneInstance_shouldInvalidateCacheOfTheOther() {
+        StudentService serviceA = nodeA.getBean(StudentService.class);
+        StudentService serviceB = nodeB.getBean(StudentService.class);
+        assertEquals("Ahmed", serviceA.getStudentById(1L).getFirstName());
+        assertNotNull(nodeA.getBean(CacheManager.class).getCache(CacheConfig.STUDENTS_CACHE).get(1L));
+
+        serviceB.updateStudent(1L, new Student(1L, "Ahmed-Amine", "Ben Ali", "ahmed.benali@email.com", 22, "Informatique"));
+
+        assertNull(nodeA.getBean(CacheManager.class).getCache(CacheConfig.STUDENTS_CACHE).get(1L));
+        assertEquals("Ahmed-Amine", serviceA.getStudentById(1L).getFirstName());
+        assertEquals(22, serviceA.getStudentById(1L).getAge());
+    }
+
+    @Test
+    void deleteOnOneInstance_shouldInvalidateCacheOfTheOther() {
+        StudentService serviceA = nodeA.getBean(StudentService.class);
+        StudentService serviceB = nodeB.getBean(StudentService.class);
+        assertEquals("Fatima", serviceA.getStudentById(2L).getFirstName());
+
+        serviceB.deleteStudent(2L);
+
+        assertThrows(StudentNotFoundException.class, () -> serviceA.getStudentById(2L));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.students.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearCacheTest {
+
+    private final InProcessInvalidationTransport transportA = new InProcessInvalidationTransport("near-cache-test");
+    private final InProcessInvalidationTransport transportB = new InProcessInvalidationTransport("near-cache-test");
+    private final NearCache cacheA = new NearCache("students", "a", Caffeine.newBuilder().build(), transportA, Long::valueOf);
+    private final NearCache cacheB = new NearCache("students", "b", Caffeine.newBuilder().build(), transportB, Long::valueOf);
+
+    @AfterEach
+    void tearDown() {
+        transportA.close();
+        transportB.close();
+    }
+
+    @Test
+    void evict_shouldInvalidateOtherInstances() {
+        cacheA.get(1L, () -> "Ahmed");
+        cacheA.get(2L, () -> "Fatima");
+        cacheB.get(1L, () -> "Ahmed");
+
+        cacheB.evict(1L);
+
+        assertNull(cacheA.get(1L));
+        assertEquals("Fatima", cacheA.get(2L).get());
+
+        cacheB.clear();
+        assertNull(cacheA.get(2L));
+    }
+
+    // Lecture commencee avant une ecriture distante, terminee apres son invalidation :
+    // l'ancienne valeur est rendue a l'appelant mais pas rangee dans le cache
+    @Test
+    void get_shouldNotCacheValueLoadedBeforeConcurrentInvalidation() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Object> staleLoad = executor.submit(() -> cacheA.get(1L, () -> {
+            loading.countDown();
+            invalidated.await();
+            return "ancienne valeur";
+        }));
+        loading.await();
+        cacheB.evict(1L);
+        invalidated.countDown();
+
+        assertEquals("ancienne valeur", staleLoad.get(5, TimeUnit.SECONDS));
+        assertNull(cacheA.get(1L));
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals("nouvelle valeur", cacheA.get(1L, () -> {
+            loads.incrementAndGet();
+            return "nouvelle valeur";
+        }));
+        assertEquals("nouvelle valeur", cacheA.get(1L, () -> "jamais"));
+        assertEquals(1, loads.get());
+        executor.shutdownNow();
+    }
+
+    @Test
+    void udpTransport_shouldDeliverInvalidationsOverLoopback() throws Exception {
+        InetSocketAddress loopback = new InetSocketAddress("127.0.0.1", 0);
+        try (UdpInvalidationTransport receiver = new UdpInvalidationTransport(loopback, List.of());
+             UdpInvalidationTransport sender = new UdpInvalidationTransport(loopback,
+                 List.of(new InetSocketAddress("127.0.0.1", receiver.localPort())))) {
+            BlockingQueue<InvalidationTransport.Invalidation> received = new LinkedBlockingQueue<>();
+            receiver.subscribe(received::add);
+
+            sender.publish(new InvalidationTransport.Invalidation("b", "students", "42"));
+            sender.publish(new InvalidationTransport.Invalidation("b", "students", null));
+
+            assertEquals(new InvalidationTransport.Invalidation("b", "students", "42"), received.poll(5, TimeUnit.SECONDS));
+            assertEquals(new InvalidationTransport.Invalidation("b", "students", null), received.poll(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.students.config;
+
+import com.example.students.config.PersistenceConfig.RestoreMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistenceConfigTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restore_shouldRecreateMissingDatabaseFromSnapshot() throws Exception {
+        Path snapshot = directory.resolve("snapshot.zip");
+        execute("CREATE TABLE t (v INT)", "INSERT INTO t VALUES (1), (2)",
+            "BACKUP TO '" + snapshot + "'", "SHUTDOWN");
+        Files.delete(directory.resolve("studentsdb.mv.db"));
+
+        assertTrue(PersistenceConfig.restore(directory, snapshot, RestoreMode.IF_MISSING));
+        assertEquals(2, count());
+    }
+
+    @Test
+    void restore_shouldKeepExistingDatabaseUnlessAlways() throws Exception {
+        Path snapshot = directory.resolve("snapshot.zip");
+        execute("CREATE TABLE t (v INT)", "INSERT INTO t VALUES (1)", "BACKUP TO '" + snapshot + "'",
+            "INSERT INTO t VALUES (2)", "SHUTDOWN");
+
+        assertFalse(PersistenceConfig.restore(directory, snapshot, RestoreMode.IF_MISSING));
+        assertFalse(PersistenceConfig.restore(directory, snapshot, RestoreMode.NEVER));
+        assertEquals(2, count());
+
+        assertTrue(PersistenceConfig.restore(directory, snapshot, RestoreMode.ALWAYS));
+        assertEquals(1, count());
+    }
+
+    @Test
+    void restore_shouldIgnoreMissingSnapshot() {
+        assertFalse(PersistenceConfig.restore(directory, directory.resolve("absent.zip"), RestoreMode.ALWAYS));
+    }
+
+    private void execute(String... statements) throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private int count() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM t")) {
+            rows.next();
+            int count = rows.getInt(1);
+            statement.execute("SHUTDOWN");
+            return count;
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("studentsdb") + ";DB_CLOSE_ON_EXIT=FALSE", "sa", "");
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.students.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tokenBucket_shouldAllowBurstThenRefillAtRate() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND / 10, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(SECOND / 10));
+        assertFalse(bucket.isFull(SECOND / 10));
+        assertTrue(bucket.isFull(SECOND));
+    }
+
+    @Test
+    void concurrencyLimiter_shouldShrinkWhenLatencyExceedsTargetAndGrowWhenSaturated() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 10, 2, 20);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+
+        long now = System.nanoTime();
+        limiter.release(1_000, now);
+        assertEquals(9, limiter.limit());
+        // Une seule baisse par duree cible
+        limiter.release(1_000, now + 50);
+        assertEquals(9, limiter.limit());
+        assertEquals(8, limiter.inFlight());
+
+        AdaptiveConcurrencyLimiter fast = new AdaptiveConcurrencyLimiter(1_000_000, 2, 1, 3);
+        assertTrue(fast.tryAcquire());
+        assertTrue(fast.tryAcquire());
+        fast.release(10, System.nanoTime());
+        assertEquals(3, fast.limit());
+    }
+
+    @Test
+    void filter_shouldRejectClientOverItsBucketWith429() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(new SimpleMeterRegistry(), 0.001, 2, 10, Set.of("cle-1"),
+            null, null, List.of());
+
+        assertEquals(200, perform(filter, "10.0.0.1", null).getStatus());
+        assertEquals(200, perform(filter, "10.0.0.1", null).getStatus());
+        MockHttpServletResponse rejected = perform(filter, "10.0.0.1", null);
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertEquals("application/problem+json;charset=UTF-8", rejected.getContentType());
+        assertTrue(rejected.getContentAsString().contains("\"status\":429"));
+        assertTrue(rejected.getContentAsString().contains("\"detail\":\"Trop de requetes pour ce client\""));
+
+        // Autre client (IP ou cle d'API declaree) : seau distinct
+        assertEquals(200, perform(filter, "10.0.0.2", null).getStatus());
+        assertEquals(200, perform(filter, "10.0.0.1", "cle-1").getStatus());
+        // Cle inconnue : seau de l'adresse IP
+        assertEquals(429, perform(filter, "10.0.0.1", "cle-inventee").getStatus());
+    }
+
+    @Test
+    void filter_shouldForgetLeastRecentlyUsedClients_whenTooManyAreTracked() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimitFilter filter = new RateLimitFilter(registry, 0.001, 1, 10, Set.of(), null, null, List.of());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform(filter, "10.0.1." + i, null).getStatus());
+        }
+        assertEquals(429, perform(filter, "10.0.1.9", null).getStatus());
+
+        // Nouveau client : seau a lui (pas de seau partage), les plus anciens sont oublies
+        assertEquals(200, perform(filter, "10.0.2.1", null).getStatus());
+        assertEquals(429, perform(filter, "10.0.2.1", null).getStatus());
+        assertEquals(200, perform(filter, "10.0.2.2", null).getStatus());
+        assertTrue(registry.get("students.http.rate-limit.clients").gauge().value() <= 10);
+        assertEquals(429, perform(filter, "10.0.1.9", null).getStatus());
+    }
+
+    @Test
+    void filter_shouldApplyGlobalBucketAcrossClients() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(new SimpleMeterRegistry(), 0, 1, 10, Set.of(),
+            new TokenBucket(0.001, 1, System.nanoTime()), null, List.of());
+
+        assertEquals(200, perform(filter, "10.0.0.1", null).getStatus());
+        assertEquals(429, perform(filter, "10.0.0.2", null).getStatus());
+    }
+
+    @Test
+    void filter_shouldShedWith503WhenConcurrencyLimitReached() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(TimeUnit.SECONDS.toNanos(1), 1, 1, 1);
+        RateLimitFilter filter = new RateLimitFilter(new SimpleMeterRegistry(), 0, 1, 10, Set.of(), null, limiter,
+            List.of());
+        assertTrue(limiter.tryAcquire());
+
+        MockHttpServletResponse rejected = perform(filter, "10.0.0.1", null);
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+
+        limiter.release(0, System.nanoTime());
+        assertEquals(200, perform(filter, "10.0.0.1", null).getStatus());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void filter_shouldNotFeedLatencyOfLongRunningPathsToConcurrencyLimiter() throws Exception {
+        // Cible de 1 ns : toute requete echantillonnee fait baisser la limite
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 4, 1, 4);
+        RateLimitFilter filter = new RateLimitFilter(new SimpleMeterRegistry(), 0, 1, 10, Set.of(), null, limiter,
+            List.of("/api/students/import"));
+
+        MockHttpServletResponse imported = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/students/import"), imported, new MockFilterChain());
+        assertEquals(200, imported.getStatus());
+        assertEquals(4, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+
+        assertEquals(200, perform(filter, "10.0.0.1", null).getStatus());
+        assertEquals(3, limiter.limit());
+    }
+
+    @Test
+    void filter_shouldIgnoreRequestsOutsideStudentsApi() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(new SimpleMeterRegistry(), 0.001, 1, 10, Set.of(), null, null,
+            List.of());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+    }
+
+    private static MockHttpServletResponse perform(RateLimitFilter filter, String address, String apiKey)
+        throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/students/1");
+        request.setRemoteAddr(address);
+        if (apiKey != null) {
+            request.addHeader(RateLimitFilter.API_KEY_HEADER, apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
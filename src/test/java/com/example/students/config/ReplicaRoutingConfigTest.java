@@ -0,0 +1,138 @@
+package com.example.students.config;
+
+import com.example.students.dto.StudentChange;
+import com.example.students.model.Student;
+import com.example.students.service.ReplicaSynchronizer;
+import com.example.students.service.StudentChangeStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Synchronisation des replicas declenchee a la main : entre deux passes, ils sont en retard
+@SpringBootTest(properties = "students.replicas.sync-interval=PT1H")
+@ActiveProfiles("replicas")
+@AutoConfigureMockMvc
+class ReplicaRoutingConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReplicaSynchronizer synchronizer;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    private StudentChangeStream changeStream;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void synchronizeReplicas() {
+        synchronizer.synchronize();
+    }
+
+    @Test
+    void reads_shouldGoToLaggingReplicaExceptForClientThatWrote() throws Exception {
+        String created = mockMvc.perform(post("/api/students").header("X-API-Key", "writer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"firstName":"Yasmine","lastName":"Chebbi","email":"yasmine.replica@example.com","age":24,"major":"Economie"}
+                    """))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+        double replicaRoutes = routes("replica-1") + routes("replica-2");
+
+        // Un autre client lit sur un replica qui n'a pas encore applique la creation
+        mockMvc.perform(get("/api/students/" + id).header("X-API-Key", "reader"))
+            .andExpect(status().isNotFound());
+        assertEquals(replicaRoutes + 1, routes("replica-1") + routes("replica-2"));
+
+        // L'auteur de l'ecriture est servi par le primaire
+        double primaryRoutes = routes(ReadWriteRoutingDataSource.PRIMARY);
+        mockMvc.perform(get("/api/students/" + id).header("X-API-Key", "writer"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.email").value("yasmine.replica@example.com"));
+        assertEquals(primaryRoutes + 1, routes(ReadWriteRoutingDataSource.PRIMARY));
+
+        synchronizer.synchronize();
+        for (ReadWriteRoutingDataSource.Replica replica : routingDataSource.replicas()) {
+            assertEquals(changeStream.published(), replica.appliedSequence());
+            assertEquals(1, new JdbcTemplate(replica.dataSource()).queryForObject(
+                "SELECT COUNT(*) FROM students WHERE id = ?", Integer.class, id));
+        }
+        assertNotNull(routingDataSource.pickReplica(changeStream.published()));
+    }
+
+    @Test
+    void synchronize_shouldKeepNewestRowWhenSnapshotsArriveOutOfOrder() throws Exception {
+        String created = mockMvc.perform(post("/api/students").header("X-API-Key", "writer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"firstName":"Ines","lastName":"Haddad","email":"ines.replica@example.com","age":22,"major":"Droit"}
+                    """))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+        Student stale = new Student(id, "Ines", "Haddad", "ines.replica@example.com", 22, "Droit");
+        stale.setVersion(0L);
+        mockMvc.perform(put("/api/students/" + id).header("X-API-Key", "writer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"firstName":"Ines","lastName":"Haddad","email":"ines.replica@example.com","age":23,"major":"Histoire"}
+                    """))
+            .andExpect(status().isOk());
+        // Snapshot de la version 0 publie apres celui de la mise a jour (commits concurrents)
+        changeStream.publish(StudentChange.Type.UPDATED, id, stale);
+        synchronizer.synchronize();
+        for (ReadWriteRoutingDataSource.Replica replica : routingDataSource.replicas()) {
+            assertEquals("Histoire", new JdbcTemplate(replica.dataSource()).queryForObject(
+                "SELECT major FROM students WHERE id = ?", String.class, id));
+        }
+
+        // Snapshot retarde apres la suppression : l'etudiant ne reapparait pas
+        mockMvc.perform(delete("/api/students/" + id).header("X-API-Key", "writer"))
+            .andExpect(status().isNoContent());
+        changeStream.publish(StudentChange.Type.UPDATED, id, stale);
+        synchronizer.synchronize();
+        for (ReadWriteRoutingDataSource.Replica replica : routingDataSource.replicas()) {
+            assertEquals(0, new JdbcTemplate(replica.dataSource()).queryForObject(
+                "SELECT COUNT(*) FROM students WHERE id = ?", Integer.class, id));
+        }
+    }
+
+    @Test
+    void pickReplica_shouldSkipReplicasBehindRequiredPosition() {
+        long applied = routingDataSource.replicas().get(0).appliedSequence();
+        assertNull(routingDataSource.pickReplica(ReadYourWritesFilter.PRIMARY_ONLY));
+        assertNull(routingDataSource.pickReplica(applied + 1));
+        assertNotNull(routingDataSource.pickReplica(0));
+        assertEquals(0.0, registry.get("students.datasource.replica.lag").tag("pool", "replica-1").gauge().value());
+        assertTrue(registry.get("hikaricp.connections").tag("pool", "replica-2").gauge().value() >= 0);
+    }
+
+    private double routes(String pool) {
+        return registry.get("students.datasource.routes").tag("pool", pool).counter().count();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.students.config;
+
+import com.example.students.model.Student;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StudentJsonSerializerTest {
+
+    private final ObjectMapper reflection = new ObjectMapper();
+    private final ObjectMapper direct = new ObjectMapper()
+        .registerModule(new SimpleModule().addSerializer(Student.class, new StudentJsonSerializer()));
+
+    @Test
+    void serialize_shouldMatchDefaultSerialization() throws Exception {
+        Student complete = new Student(7L, "Ines", "Ben \"Salah\"", "ines@email.com", 22, "Économie");
+        complete.setVersion(3L);
+        List<Student> students = List.of(complete, new Student(null, "Karim", null, null, null, null));
+
+        assertEquals(reflection.writeValueAsString(students), direct.writeValueAsString(students));
+    }
+
+    // Une propriete ajoutee a Student (ou une annotation Jackson qui en change la liste) doit aussi
+    // etre ecrite par le serialiseur, qui remplace Jackson pour Student partout (API, journal d'audit)
+    @Test
+    void serialize_shouldWriteEveryPropertyOfTheBeanDescription() throws Exception {
+        BeanDescription description = reflection.getSerializationConfig()
+            .introspect(reflection.constructType(Student.class));
+        List<String> properties = description.findProperties().stream()
+            .filter(BeanPropertyDefinition::couldSerialize)
+            .map(BeanPropertyDefinition::getName)
+            .toList();
+
+        List<String> written = new ArrayList<>();
+        direct.readTree(direct.writeValueAsString(new Student())).fieldNames().forEachRemaining(written::add);
+
+        assertEquals(properties, written);
+    }
+}
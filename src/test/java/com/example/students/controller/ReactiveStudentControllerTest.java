@@ -0,0 +1,154 @@
+package com.example.students.controller;
+
+import com.example.students.dto.AuditRecord;
+import com.example.students.dto.StudentChange;
+import com.example.students.model.Student;
+import com.example.students.service.AuditJournal;
+import com.example.students.service.StudentSearchIndex;
+import com.example.students.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:reactivedb;DB_CLOSE_DELAY=-1",
+    "students.r2dbc.url=r2dbc:h2:mem:///reactivedb?options=DB_CLOSE_DELAY=-1"})
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+class ReactiveStudentControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentSearchIndex searchIndex;
+
+    @Autowired
+    private AuditJournal auditJournal;
+
+    @Test
+    void getStudentById_shouldReturn200_whenExists() {
+        webTestClient.get().uri("/api/students/1")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.id").isEqualTo(1)
+            .jsonPath("$.firstName").isEqualTo("Ahmed");
+    }
+
+    @Test
+    void getStudentById_shouldReturn404_whenNotFound() {
+        webTestClient.get().uri("/api/students/999")
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+            .expectBody()
+            .jsonPath("$.status").isEqualTo(404)
+            .jsonPath("$.message").exists();
+    }
+
+    @Test
+    void getAllStudents_shouldReturnKeysetPage() {
+        webTestClient.get().uri("/api/students?limit=2&after=1")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(2)
+            .jsonPath("$[0].id").isEqualTo(2);
+    }
+
+    @Test
+    void searchStudents_shouldMatchLastNameCaseInsensitive() {
+        webTestClient.get().uri("/api/students/search?query=TRABELSI")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(1)
+            .jsonPath("$[0].firstName").isEqualTo("Mohamed");
+    }
+
+    @Test
+    void searchStudents_shouldTreatLikeWildcardsLiterally() {
+        webTestClient.get().uri("/api/students/search?query={query}", "%")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(0);
+        webTestClient.get().uri("/api/students/search?query={query}", "_")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(0);
+    }
+
+    // Ecritures reactives visibles des memes effets que l'API servlet : statistiques, index, journal d'audit
+    @Test
+    void createUpdateDelete_shouldRoundTrip() throws Exception {
+        long total = studentService.getStatistics().total();
+        Student created = webTestClient.post().uri("/api/students")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(new Student(null, "Reactive", "User", "reactive.user@email.com", 20, "Physique"))
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody(Student.class)
+            .returnResult()
+            .getResponseBody();
+
+        webTestClient.put().uri("/api/students/" + created.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(new Student(null, "Reactive", "User", "reactive.user@email.com", 30, "Chimie"))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.age").isEqualTo(30);
+        assertEquals(total + 1, studentService.getStatistics().total());
+        assertTrue(searchIndex.search("reactive", 10).stream().anyMatch(s -> s.getId().equals(created.getId())));
+
+        webTestClient.delete().uri("/api/students/" + created.getId())
+            .exchange()
+            .expectStatus().isNoContent();
+
+        webTestClient.delete().uri("/api/students/" + created.getId())
+            .exchange()
+            .expectStatus().isNotFound();
+        assertEquals(total, studentService.getStatistics().total());
+        assertTrue(searchIndex.search("reactive", 10).stream().noneMatch(s -> s.getId().equals(created.getId())));
+        assertTrue(auditJournal.flush(Duration.ofSeconds(5)));
+        assertEquals(List.of(StudentChange.Type.CREATED, StudentChange.Type.UPDATED, StudentChange.Type.DELETED),
+            auditJournal.history(created.getId()).stream().map(AuditRecord::type).toList());
+    }
+
+    @Test
+    void createStudent_shouldReturn400_whenInvalidData() {
+        webTestClient.post().uri("/api/students")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(new Student(null, "", "", "email-invalide", -5, ""))
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.email").exists();
+    }
+
+    @Test
+    void createStudent_shouldReturn409_whenEmailExists() {
+        webTestClient.post().uri("/api/students")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(new Student(null, "Ahmed", "Ben Ali", "ahmed.benali@email.com", 21, "Informatique"))
+            .exchange()
+            .expectStatus().isEqualTo(409)
+            .expectBody()
+            .jsonPath("$.message").exists();
+    }
+}
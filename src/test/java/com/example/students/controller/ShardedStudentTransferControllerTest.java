@@ -0,0 +1,65 @@
+package com.example.students.controller;
+
+import com.example.students.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "students.shards.node-id=0")
+@ActiveProfiles("sharded")
+@AutoConfigureMockMvc
+class ShardedStudentTransferControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @Test
+    void exportCsv_shouldStreamRowsOfEveryShard() throws Exception {
+        String csv = """
+            firstName,lastName,email,age,major
+            Lina,Salah,lina.sharded@example.com,21,Informatique
+            Omar,Idrissi,omar.sharded@example.com,22,Maths
+            Sara,Alaoui,sara.sharded@example.com,23,Physique
+            Yanis,Haddad,yanis.sharded@example.com,24,Chimie
+            """;
+        mockMvc.perform(post("/api/students/import").contentType("text/csv").content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.succeeded").value(4));
+
+        MvcResult started = mockMvc.perform(get("/api/students/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String exported = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = exported.split("\n");
+        assertEquals(studentRepository.count() + 1, lines.length);
+        for (String email : new String[] {"lina", "omar", "sara", "yanis"}) {
+            assertTrue(Arrays.stream(lines).anyMatch(line -> line.contains(email + ".sharded@example.com")), email);
+        }
+        // La base primaire ne contient pas les etudiants du profil
+        assertEquals(0, primary.queryForObject(
+            "SELECT COUNT(*) FROM students WHERE email LIKE '%.sharded@example.com'", Integer.class));
+    }
+}
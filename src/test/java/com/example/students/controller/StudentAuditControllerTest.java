@@ -0,0 +1,59 @@
+package com.example.students.controller;
+
+import com.example.students.service.AuditJournal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StudentAuditControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuditJournal auditJournal;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void history_shouldListChangesOfStudent() throws Exception {
+        String created = mockMvc.perform(post("/api/students").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"firstName":"Rania","lastName":"Saidi","email":"rania.audit@example.com","age":22,"major":"Physique"}
+                    """))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+        mockMvc.perform(delete("/api/students/" + id)).andExpect(status().is2xxSuccessful());
+        assertTrue(auditJournal.flush(Duration.ofSeconds(5)));
+
+        mockMvc.perform(get("/api/students/" + id + "/history"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].type").value("CREATED"))
+            .andExpect(jsonPath("$[0].student.email").value("rania.audit@example.com"))
+            .andExpect(jsonPath("$[1].type").value("DELETED"))
+            .andExpect(jsonPath("$[1].student").doesNotExist());
+    }
+
+    @Test
+    void audit_shouldRejectNonPositiveLimit() throws Exception {
+        mockMvc.perform(get("/api/students/audit").param("limit", "0"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/students/audit").param("from", "2024-01-31T10:00:00Z").param("limit", "5"))
+            .andExpect(status().isOk());
+    }
+}
@@ -1,8 +1,17 @@
 package com.example.students.controller;
 
+import com.example.students.dto.StudentQuery;
+import com.example.students.dto.StudentStats;
+import com.example.students.exception.PreconditionFailedException;
+import com.example.students.exception.StudentConflictException;
+import com.example.students.exception.StudentNotFoundException;
 import com.example.students.model.Student;
+import com.example.students.service.StudentChangeStream;
+import com.example.students.service.StudentModificationTracker;
 import com.example.students.service.StudentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,10 +22,13 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
 import java.util.Collections;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -30,6 +42,9 @@ class StudentControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private StudentChangeStream changeStream;
+
     // Fausse implementation du service sans Mockito
     @TestConfiguration
     static class FakeServiceConfig {
@@ -37,44 +52,96 @@ class StudentControllerTest {
         @Bean
         @Primary
         public StudentService studentService() {
-            return new StudentService(null) {
+            return new StudentService(null, null, null, mock(StudentModificationTracker.class)) {
 
                 private final Student s1 = new Student(1L, "Ahmed", "Ben Ali", "ahmed@email.com", 21, "Informatique");
                 private final Student s2 = new Student(2L, "Fatima", "Zahra", "fatima@email.com", 22, "Mathematiques");
 
+                {
+                    s1.setVersion(3L);
+                }
+
                 @Override
                 public java.util.List<Student> getAllStudents() {
                     return Arrays.asList(s1, s2);
                 }
 
+                @Override
+                public java.util.List<Student> getStudentsPage(Long after, int limit) {
+                    if (after == null) return Arrays.asList(s1, s2).subList(0, Math.min(limit, 2));
+                    return after < 2L ? Arrays.asList(s2) : Collections.emptyList();
+                }
+
+                @Override
+                public java.util.List<java.util.Map<String, Object>> findStudents(StudentQuery query) {
+                    java.util.List<java.util.Map<String, Object>> rows = new java.util.ArrayList<>();
+                    for (Student s : Arrays.asList(s1, s2)) {
+                        if (query.major() != null && !query.major().equals(s.getMajor())) continue;
+                        java.util.Map<String, Object> row = new java.util.LinkedHashMap<>();
+                        if (query.fields().contains("id")) row.put("id", s.getId());
+                        if (query.fields().contains("firstName")) row.put("firstName", s.getFirstName());
+                        rows.add(row);
+                    }
+                    return rows.subList(0, Math.min(query.limit(), rows.size()));
+                }
+
+                @Override
+                public String collectionETag() {
+                    return "\"2-3-3\"";
+                }
+
+                @Override
+                public java.util.stream.Stream<Student> streamAllStudents() {
+                    return java.util.stream.Stream.of(s1, s2);
+                }
+
                 @Override
                 public Student getStudentById(Long id) {
                     if (id == 1L) return s1;
-                    throw new RuntimeException("Etudiant non trouve avec l'id: " + id);
+                    throw new StudentNotFoundException(id);
                 }
 
                 @Override
                 public Student createStudent(Student student) {
                     if ("existing@email.com".equals(student.getEmail())) {
-                        throw new RuntimeException("Un etudiant avec cet email existe deja");
+                        throw new StudentConflictException(StudentConflictException.EMAIL_EXISTS);
                     }
                     return new Student(3L, student.getFirstName(), student.getLastName(),
                         student.getEmail(), student.getAge(), student.getMajor());
                 }
 
                 @Override
-                public Student updateStudent(Long id, Student student) {
-                    if (id == 1L) return student;
-                    throw new RuntimeException("Etudiant non trouve avec l'id: " + id);
+                public Student updateStudent(Long id, Student student, Long expectedVersion) {
+                    if (id != 1L) throw new StudentNotFoundException(id);
+                    if (expectedVersion != null && expectedVersion != 3L) {
+                        throw new PreconditionFailedException("L'etudiant " + id + " a ete modifie entre-temps");
+                    }
+                    student.setVersion(4L);
+                    return student;
+                }
+
+                @Override
+                public void deleteStudent(Long id, Long expectedVersion) {
+                    if (id != 1L) throw new StudentNotFoundException(id);
+                    if (expectedVersion != null && expectedVersion != 3L) {
+                        throw new PreconditionFailedException("L'etudiant " + id + " a ete modifie entre-temps");
+                    }
+                }
+
+                @Override
+                public void rebuildSearchIndex() {
                 }
 
                 @Override
-                public void deleteStudent(Long id) {
-                    if (id != 1L) throw new RuntimeException("Etudiant non trouve avec l'id: " + id);
+                public StudentStats getStatistics() {
+                    return new StudentStats(2, 21.5,
+                        java.util.Map.of("Informatique", new StudentStats.MajorStats(1, 21.0),
+                            "Mathematiques", new StudentStats.MajorStats(1, 22.0)),
+                        java.util.Map.of(21, 1L, 22, 1L));
                 }
 
                 @Override
-                public java.util.List<Student> searchStudents(String query) {
+                public java.util.List<Student> searchStudents(String query, int limit) {
                     if ("ahmed".equalsIgnoreCase(query)) return Arrays.asList(s1);
                     return Collections.emptyList();
                 }
@@ -100,6 +167,96 @@ class StudentControllerTest {
             .andExpect(jsonPath("$[1].firstName").value("Fatima"));
     }
 
+    @Test
+    void getAllStudents_shouldDefaultToJson_whenAcceptIsWildcard() throws Exception {
+        mockMvc.perform(get("/api/students").accept(MediaType.ALL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void getAllStudents_shouldEncodeCborOrSmile_whenAccepted() throws Exception {
+        byte[] cbor = mockMvc.perform(get("/api/students").accept("application/cbor"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/cbor"))
+            .andReturn().getResponse().getContentAsByteArray();
+        Student[] decoded = new ObjectMapper(new CBORFactory()).readValue(cbor, Student[].class);
+        assertEquals(2, decoded.length);
+        assertEquals("ahmed@email.com", decoded[0].getEmail());
+
+        byte[] smile = mockMvc.perform(get("/api/students/1").accept("application/x-jackson-smile"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-jackson-smile"))
+            .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("Ahmed", new ObjectMapper(new SmileFactory()).readValue(smile, Student.class).getFirstName());
+    }
+
+    @Test
+    void getAllStudents_shouldReturn304_whenCollectionUnchanged() throws Exception {
+        String etag = mockMvc.perform(get("/api/students"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"2-3-3\""))
+            .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/students").header("If-None-Match", etag))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/students").header("If-None-Match", "\"2-3-2\""))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllStudents_shouldReturnPageAndNextCursor_whenLimitGiven() throws Exception {
+        mockMvc.perform(get("/api/students").param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Next-After", "1"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].firstName").value("Ahmed"));
+    }
+
+    @Test
+    void getAllStudents_shouldReturnProjectedFields_whenFiltered() throws Exception {
+        mockMvc.perform(get("/api/students").param("major", "Mathematiques").param("fields", "id,firstName"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].firstName").value("Fatima"))
+            .andExpect(jsonPath("$[0].email").doesNotExist());
+    }
+
+    @Test
+    void getAllStudents_shouldReturn400_whenUnknownField() throws Exception {
+        mockMvc.perform(get("/api/students").param("fields", "id,password"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Champ inconnu: password"));
+    }
+
+    @Test
+    void getAllStudents_shouldOmitNextCursor_onLastPage() throws Exception {
+        mockMvc.perform(get("/api/students").param("limit", "10").param("after", "1"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Next-After"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].firstName").value("Fatima"));
+    }
+
+    @Test
+    void getAllStudents_shouldReturn400_whenLimitNotPositive() throws Exception {
+        mockMvc.perform(get("/api/students").param("limit", "0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllStudents_shouldStreamNdjson_whenRequested() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/students").accept("application/x-ndjson"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andExpect(content().string(org.hamcrest.Matchers.containsString("\"firstName\":\"Ahmed\"")))
+            .andExpect(content().string(org.hamcrest.Matchers.containsString("\n")));
+    }
+
     // ===================== GET BY ID =====================
 
     @Test
@@ -112,10 +269,24 @@ class StudentControllerTest {
     }
 
     @Test
-    void getStudentById_shouldReturn400_whenNotFound() throws Exception {
+    void getStudentById_shouldReturn304_whenETagMatches() throws Exception {
+        mockMvc.perform(get("/api/students/1"))
+            .andExpect(header().string("ETag", "\"3\""));
+
+        mockMvc.perform(get("/api/students/1").header("If-None-Match", "\"3\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void getStudentById_shouldReturn404Problem_whenNotFound() throws Exception {
         mockMvc.perform(get("/api/students/99"))
-            .andExpect(status().isBadRequest())
-            .andExpect(jsonPath("$.message").exists());
+            .andExpect(status().isNotFound())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.title").value("Not Found"))
+            .andExpect(jsonPath("$.status").value(404))
+            .andExpect(jsonPath("$.detail").value("Etudiant non trouve avec l'id: 99"))
+            .andExpect(jsonPath("$.message").value("Etudiant non trouve avec l'id: 99"));
     }
 
     // ===================== CREATE =====================
@@ -142,14 +313,14 @@ class StudentControllerTest {
     }
 
     @Test
-    void createStudent_shouldReturn400_whenEmailExists() throws Exception {
+    void createStudent_shouldReturn409_whenEmailExists() throws Exception {
         Student duplicate = new Student(null, "Test", "User", "existing@email.com", 20, "Informatique");
 
         mockMvc.perform(post("/api/students")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(duplicate)))
-            .andExpect(status().isBadRequest())
-            .andExpect(jsonPath("$.message").exists());
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.detail").value(StudentConflictException.EMAIL_EXISTS));
     }
 
     // ===================== UPDATE =====================
@@ -165,6 +336,24 @@ class StudentControllerTest {
             .andExpect(jsonPath("$.firstName").value("Ahmed Updated"));
     }
 
+    @Test
+    void updateStudent_shouldReturn412_whenIfMatchIsStale() throws Exception {
+        Student updated = new Student(1L, "Ahmed", "Ben Ali", "ahmed@email.com", 25, "Physique");
+
+        mockMvc.perform(put("/api/students/1")
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updated)))
+            .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/api/students/1")
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updated)))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"4\""));
+    }
+
     // ===================== DELETE =====================
 
     @Test
@@ -174,9 +363,79 @@ class StudentControllerTest {
     }
 
     @Test
-    void deleteStudent_shouldReturn400_whenNotFound() throws Exception {
+    void deleteStudent_shouldReturn412_whenIfMatchIsWeakOrStale() throws Exception {
+        mockMvc.perform(delete("/api/students/1").header("If-Match", "W/\"3\""))
+            .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/students/1").header("If-Match", "\"2\""))
+            .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void deleteStudent_shouldReturn404_whenNotFound() throws Exception {
         mockMvc.perform(delete("/api/students/99"))
-            .andExpect(status().isBadRequest());
+            .andExpect(status().isNotFound());
+    }
+
+    // ===================== BULK =====================
+
+    @Test
+    void createStudents_shouldReportEachItem() throws Exception {
+        Student valid = new Student(null, "Bulk", "Import", "bulk.import@email.com", 20, "Physique");
+        Student duplicate = new Student(null, "Ahmed", "Ben Ali", "ahmed.benali@email.com", 21, "Informatique");
+
+        mockMvc.perform(post("/api/students/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(valid, duplicate))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.succeeded").value(1))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.items[0].status").value("OK"))
+            .andExpect(jsonPath("$.items[0].id").exists())
+            .andExpect(jsonPath("$.items[1].status").value("ERROR"));
+    }
+
+    @Test
+    void deleteStudents_shouldReportUnknownIds() throws Exception {
+        mockMvc.perform(delete("/api/students/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[987654]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.items[0].id").value(987654));
+    }
+
+    // ===================== STATS =====================
+
+    @Test
+    void getStatistics_shouldReturn200_withAggregates() throws Exception {
+        mockMvc.perform(get("/api/students/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(2))
+            .andExpect(jsonPath("$.averageAge").value(21.5))
+            .andExpect(jsonPath("$.majors.Informatique.count").value(1))
+            .andExpect(jsonPath("$.ageHistogram.22").value(1));
+    }
+
+    // ===================== CHANGES (SSE) =====================
+
+    @Test
+    void changes_shouldReplayEventsAfterLastEventId() throws Exception {
+        long before = changeStream.published();
+        changeStream.publish(com.example.students.dto.StudentChange.Type.UPDATED, 1L, student1);
+
+        MvcResult result = mockMvc.perform(get("/api/students/changes").header("Last-Event-ID", changeStream.eventId(before)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String expected = "id:" + changeStream.eventId(before + 1) + "\nevent:updated\n";
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!result.getResponse().getContentAsString().contains(expected)
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        String body = result.getResponse().getContentAsString();
+        org.junit.jupiter.api.Assertions.assertTrue(body.contains(expected), body);
+        org.junit.jupiter.api.Assertions.assertTrue(body.contains("\"firstName\":\"Ahmed\""), body);
     }
 
     // ===================== SEARCH =====================
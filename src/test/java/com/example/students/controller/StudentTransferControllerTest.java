@@ -0,0 +1,137 @@
+package com.example.students.controller;
+
+import com.example.students.model.Student;
+import com.example.students.repository.StudentRepository;
+import com.example.students.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StudentTransferControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Test
+    void importCsv_shouldWriteValidRowsAndReportInvalidOnesByLine() throws Exception {
+        String csv = """
+            firstName,lastName,email,age,major
+            Lina,"Ben, Salah",lina.transfer@example.com,21,Informatique
+            Omar,Idrissi,pas-un-email,22,Maths
+            Sara,Alaoui,sara.transfer@example.com,vingt,Physique
+            Yanis,Haddad,lina.transfer@example.com,23,Chimie
+            """;
+
+        mockMvc.perform(post("/api/students/import").contentType("text/csv").content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.processed").value(4))
+            .andExpect(jsonPath("$.succeeded").value(1))
+            .andExpect(jsonPath("$.failed").value(3))
+            .andExpect(jsonPath("$.errors[0].line").value(4))
+            .andExpect(jsonPath("$.errors[1].line").value(3))
+            .andExpect(jsonPath("$.errors[2].line").value(5))
+            .andExpect(jsonPath("$.errorsTruncated").value(false));
+
+        assertEquals("Ben, Salah", studentRepository.findAll().stream()
+            .filter(s -> "lina.transfer@example.com".equals(s.getEmail())).findFirst().orElseThrow().getLastName());
+    }
+
+    // L'export met entre guillemets un champ contenant une fin de ligne : l'import doit le relire
+    // comme un seul enregistrement. Les autres lignes exportees sont refusees (emails existants)
+    @Test
+    void exportThenImportCsv_shouldKeepEmbeddedNewlines() throws Exception {
+        Student created = studentService.createStudent(
+            new Student(null, "Ines", "Ben\nSalah", "ines.transfer@example.com", 22, "Informatique"));
+        MvcResult started = mockMvc.perform(get("/api/students/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        long rows = studentRepository.count();
+        studentService.deleteStudent(created.getId());
+
+        mockMvc.perform(post("/api/students/import").contentType("text/csv").content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.processed").value(rows))
+            .andExpect(jsonPath("$.succeeded").value(1));
+
+        Student imported = studentRepository.findAll().stream()
+            .filter(s -> "ines.transfer@example.com".equals(s.getEmail())).findFirst().orElseThrow();
+        studentService.deleteStudent(imported.getId());
+        assertEquals("Ben\nSalah", imported.getLastName());
+    }
+
+    @Test
+    void importNdjson_shouldReportMalformedLines() throws Exception {
+        String ndjson = """
+            {"firstName":"Nora","lastName":"Kadi","email":"nora.transfer@example.com","age":20,"major":"Biologie"}
+            {"firstName":"Nora",
+            """;
+
+        mockMvc.perform(post("/api/students/import").contentType("application/x-ndjson").content(ndjson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.succeeded").value(1))
+            .andExpect(jsonPath("$.errors[0].line").value(2))
+            .andExpect(jsonPath("$.errors[0].message", startsWith("JSON invalide")));
+    }
+
+    @Test
+    void import_shouldRejectUnknownFormat() throws Exception {
+        mockMvc.perform(post("/api/students/import").contentType(MediaType.TEXT_PLAIN).content("x"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/students/import").contentType("text/csv").content("nom,prenom\n"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message", startsWith("Colonne manquante")));
+    }
+
+    @Test
+    void exportCsv_shouldStreamEveryRowWithHeader() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/students/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Disposition", "attachment; filename=\"students.csv\""))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = csv.split("\n");
+        assertEquals("id,firstName,lastName,email,age,major", lines[0]);
+        assertEquals(studentRepository.count() + 1, lines.length);
+    }
+
+    @Test
+    void exportNdjson_shouldWriteOneJsonObjectPerLine() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/students/export").param("format", "ndjson"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String ndjson = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andReturn().getResponse().getContentAsString();
+
+        String first = ndjson.split("\n")[0];
+        assertTrue(first.startsWith("{\"id\":1,\"firstName\":"), first);
+        assertTrue(first.endsWith("}"), first);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.students.repository;
+
+import com.example.students.model.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("offheap")
+@Import(OffHeapStudentRepository.class)
+class OffHeapStudentRepositoryTest extends StudentRepositoryContract {
+
+    @Autowired
+    @Qualifier("studentRepository")
+    private StudentRepository jpaRepository;
+
+    @Test
+    void repository_shouldBeOffHeapStore() {
+        assertInstanceOf(OffHeapStudentRepository.class, studentRepository);
+        assertEquals(2, ((OffHeapStudentRepository) studentRepository).store().size());
+    }
+
+    @Test
+    void rollback_shouldRestoreRowsWrittenInTransaction() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        TestTransaction.start();
+        studentRepository.updateById(student1.getId(), "Ahmed", "Ben Ali", "ahmed.tx@email.com", 30, "Physique", null);
+        studentRepository.deleteStudentById(student2.getId(), null);
+        assertEquals("ahmed.tx@email.com", studentRepository.findById(student1.getId()).orElseThrow().getEmail());
+        assertFalse(studentRepository.existsById(student2.getId()));
+
+        TestTransaction.flagForRollback();
+        TestTransaction.end();
+
+        assertEquals("ahmed@email.com", studentRepository.findById(student1.getId()).orElseThrow().getEmail());
+        assertTrue(studentRepository.existsById(student2.getId()));
+        assertTrue(studentRepository.existsByEmail("fatima@email.com"));
+    }
+
+    // Meme ordre que la requete JPA sur les memes lignes
+    @Test
+    void findAll_shouldSortAndPageLikeJpa() {
+        studentRepository.saveAll(List.of(
+            new Student(null, "Amine", "sassi", "amine@email.com", 21, "Informatique"),
+            new Student(null, "Sara", "Ben Salah", "sara@email.com", 20, "Physique"),
+            new Student(null, "Rania", "ayari", "rania@email.com", 22, "Informatique")));
+        List<Sort> sorts = List.of(Sort.unsorted(), Sort.by("age"), Sort.by(Sort.Direction.DESC, "major", "age"),
+            Sort.by(Sort.Order.asc("lastName").ignoreCase()), Sort.by(Sort.Order.desc("firstName")));
+
+        for (Sort sort : sorts) {
+            List<Long> expected = ids(jpaRepository.findAll(sort.and(Sort.by("id"))));
+            assertEquals(expected, ids(studentRepository.findAll(sort)), sort.toString());
+
+            Page<Student> page = studentRepository.findAll(PageRequest.of(1, 2, sort));
+            assertEquals(expected.subList(2, 4), ids(page.getContent()), sort.toString());
+            assertEquals(5, page.getTotalElements());
+            assertEquals(3, page.getTotalPages());
+        }
+    }
+
+    private static List<Long> ids(List<Student> students) {
+        return students.stream().map(Student::getId).toList();
+    }
+}
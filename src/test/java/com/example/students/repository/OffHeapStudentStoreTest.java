@@ -0,0 +1,57 @@
+package com.example.students.repository;
+
+import com.example.students.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapStudentStoreTest {
+
+    private static Student student(long id, String email, Integer age, String major) {
+        return new Student(id, "Prénom" + id, "Nom" + id, email, age, major);
+    }
+
+    @Test
+    void upsert_shouldIgnoreOlderVersions_andDeletesShouldWinOverStaleWrites() {
+        OffHeapStudentStore store = new OffHeapStudentStore(16);
+
+        assertTrue(store.upsert(student(1, "a@email.com", 20, "Informatique"), 2, false));
+        assertFalse(store.upsert(student(1, "old@email.com", 19, "Physique"), 1, false));
+        assertTrue(store.delete(1, 3, false));
+        assertFalse(store.upsert(student(1, "a@email.com", 20, "Informatique"), 2, false));
+
+        assertNull(store.get(1));
+        assertEquals(-1, store.emailOwner("a@email.com"));
+        assertEquals(-1, store.emailOwner("old@email.com"));
+    }
+
+    @Test
+    void store_shouldGrowReuseSlotsAndKeepIndexesConsistent() {
+        OffHeapStudentStore store = new OffHeapStudentStore(16);
+        for (long id = 1; id <= 5_000; id++) {
+            store.upsert(student(id, "e" + id + "@email.com", (int) (id % 80) + 5, "F" + id % 7), 0, false);
+        }
+        for (long id = 1; id <= 5_000; id += 2) {
+            store.delete(id, 1, false);
+        }
+        for (long id = 2; id <= 5_000; id += 2) {
+            store.upsert(student(id, "e" + id + "@univ.tn", 30, null), 1, false);
+        }
+        store.upsert(student(3, "é3@email.com", null, "Chimie"), 2, true);
+
+        assertEquals(2_501, store.size());
+        assertEquals("Prénom3", store.get(3).getFirstName());
+        assertNull(store.get(3).getAge());
+        assertEquals(3, store.emailOwner("é3@email.com"));
+        assertEquals(4_000, store.emailOwner("e4000@univ.tn"));
+        assertEquals(-1, store.emailOwner("e4000@email.com"));
+        assertEquals(List.of(3L, 4L, 6L), store.after(2, 3).stream().map(Student::getId).toList());
+        assertEquals(2_500, store.select(null, 30, 30).size());
+        assertEquals(Map.of(30, 2_500L), store.countByMajorAndAge().get(null));
+        assertEquals(1, store.search(null, "NOM4998").size());
+        assertTrue(store.search("nom4999", "nom4999").isEmpty());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.students.repository;
+
+import com.example.students.config.ShardingConfig;
+import com.example.students.model.Student;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("sharded")
+@Import({ShardingConfig.class, ShardedStudentRepository.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {"students.shards.urls=jdbc:h2:mem:testshard0;DB_CLOSE_DELAY=-1,"
+    + "jdbc:h2:mem:testshard1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:testshard2;DB_CLOSE_DELAY=-1",
+    "students.shards.node-id=3"})
+class ShardedStudentRepositoryTest extends StudentRepositoryContract {
+
+    @Autowired
+    private StudentShards shards;
+
+    @Test
+    void saveAll_shouldSpreadRowsOverAllShards_withIncreasingSnowflakeIds() {
+        List<Student> students = new ArrayList<>();
+        LongStream.range(0, 30).forEach(n ->
+            students.add(new Student(null, "Etudiant" + n, "Nom", "etudiant" + n + "@email.com", 20, "Physique")));
+
+        List<Student> saved = studentRepository.saveAll(students);
+
+        assertInstanceOf(ShardedStudentRepository.class, studentRepository);
+        for (int i = 1; i < saved.size(); i++) {
+            assertTrue(saved.get(i).getId() > saved.get(i - 1).getId());
+        }
+        List<Long> perShard = shards.scatter(shard -> shard.queryForObject("SELECT COUNT(*) FROM students", Long.class));
+        assertEquals(3, perShard.size());
+        perShard.forEach(rows -> assertTrue(rows > 0));
+        assertEquals(32, perShard.stream().mapToLong(Long::longValue).sum());
+        assertEquals(32, studentRepository.findAll().size());
+        assertEquals(3, SnowflakeIdGenerator.node(saved.get(0).getId()));
+    }
+
+    @Test
+    void snowflakeIdGenerator_shouldRefuseToStartWithoutNodeId() {
+        assertThrows(IllegalStateException.class, () -> new ShardingConfig().snowflakeIdGenerator(""));
+    }
+
+    @Test
+    void saveAll_shouldWriteNothing_whenAnEmailIsTakenOnAnotherShard() {
+        Student fresh = new Student(null, "Mohamed", "Trabelsi", "med@email.com", 20, "Physique");
+        Student duplicate = new Student(null, "Autre", "Fatima", "fatima@email.com", 25, "Chimie");
+
+        assertThrows(DataIntegrityViolationException.class,
+            () -> studentRepository.saveAll(List.of(fresh, duplicate)));
+
+        assertEquals(2, studentRepository.count());
+        assertFalse(studentRepository.existsByEmail("med@email.com"));
+        assertEquals(student2.getId(), studentRepository.findByEmailIn(List.of("fatima@email.com")).get(0).getId());
+    }
+
+    @Test
+    void updateById_shouldReleaseThePreviousEmail() {
+        studentRepository.updateById(student1.getId(), "Ahmed", "Ben Ali", "ahmed.new@email.com", 21, "Informatique", null);
+
+        assertFalse(studentRepository.existsByEmail("ahmed@email.com"));
+        Student other = studentRepository.save(new Student(null, "Autre", "Ahmed", "ahmed@email.com", 30, "Chimie"));
+        assertTrue(studentRepository.existsByEmailAndIdNot("ahmed@email.com", student1.getId()));
+        assertEquals(other.getId(), studentRepository.findByEmailIn(List.of("ahmed@email.com")).get(0).getId());
+    }
+
+    @Test
+    void save_shouldTakeOverAnOrphanClaim_afterTheTimeout() {
+        shards.shard(shards.shardOfEmail("orphan@email.com")).update(
+            "INSERT INTO student_emails (email, student_id, claimed_at) VALUES (?, ?, ?)",
+            "orphan@email.com", 42L, Timestamp.from(Instant.now().minusSeconds(3600)));
+
+        Student saved = studentRepository.save(new Student(null, "Sarra", "Mansouri", "orphan@email.com", 23, "Economie"));
+
+        assertEquals(saved.getId(), studentRepository.findByEmailIn(List.of("orphan@email.com")).get(0).getId());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.students.repository;
+
+import com.example.students.config.StudentJsonSerializer;
+import com.example.students.model.Student;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void nextId_shouldEncodeTimeAndNode_andKeepIncreasingWhenTheClockGoesBack() {
+        AtomicLong millis = new AtomicLong(Instant.parse("2026-01-01T00:00:00Z").toEpochMilli());
+        Clock clock = new Clock() {
+            public ZoneOffset getZone() { return ZoneOffset.UTC; }
+            public Clock withZone(java.time.ZoneId zone) { return this; }
+            public Instant instant() { return Instant.ofEpochMilli(millis.get()); }
+        };
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, clock);
+
+        long first = generator.nextId();
+        long previous = first;
+        for (int i = 0; i < 5_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        millis.addAndGet(-10);
+        assertTrue(generator.nextId() > previous);
+
+        assertEquals(Instant.parse("2026-01-01T00:00:00Z"), SnowflakeIdGenerator.timestamp(first));
+        assertEquals(7, SnowflakeIdGenerator.node(first));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE + 1));
+    }
+
+    @Test
+    void nextId_shouldStayExactForJavaScriptClients() throws Exception {
+        // Dernier noeud, derniere sequence, en 2090 : toujours sous Number.MAX_SAFE_INTEGER (2^53 - 1)
+        Clock clock = Clock.fixed(Instant.parse("2090-01-01T00:00:00Z"), ZoneOffset.UTC);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE, clock);
+        long id = 0;
+        for (int i = 0; i < 128; i++) {
+            id = generator.nextId();
+        }
+        assertTrue(id <= (1L << 53) - 1);
+
+        ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addSerializer(Student.class, new StudentJsonSerializer()));
+        String json = mapper.writeValueAsString(new Student(id, "Ines", "Haddad", "ines@example.com", 22, "Droit"));
+        // Lecture comme un Number JavaScript (double IEEE 754)
+        double parsed = mapper.readTree(json).get("id").doubleValue();
+        assertEquals(id, (long) parsed);
+        assertEquals(SnowflakeIdGenerator.MAX_NODE, SnowflakeIdGenerator.node((long) parsed));
+    }
+
+    @Test
+    void nextId_shouldBeUniqueAcrossThreads() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(200_000, ids.size());
+    }
+}
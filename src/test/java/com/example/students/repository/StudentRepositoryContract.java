@@ -0,0 +1,327 @@
+package com.example.students.repository;
+
+import com.example.students.dto.StudentQuery;
+import com.example.students.exception.StudentConflictException;
+import com.example.students.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contrat commun aux implementations de StudentRepository (JPA, stockage hors tas) :
+// chaque sous-classe fournit le contexte (@DataJpaTest + profil). @Transactional est repete ici :
+// l'attribut de transaction des methodes heritees est lu sur la classe qui les declare
+@Transactional
+abstract class StudentRepositoryContract {
+
+    @Autowired
+    protected StudentRepository studentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    protected Student student1;
+    protected Student student2;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository.deleteAll();
+        student1 = studentRepository.save(
+            new Student(null, "Ahmed", "Ben Ali", "ahmed@email.com", 21, "Informatique"));
+        student2 = studentRepository.save(
+            new Student(null, "Fatima", "Zahra", "fatima@email.com", 22, "Mathematiques"));
+    }
+
+    @Test
+    void save_shouldPersistStudent() {
+        Student saved = studentRepository.save(
+            new Student(null, "Mohamed", "Trabelsi", "med@email.com", 20, "Physique"));
+
+        assertNotNull(saved.getId());
+        assertEquals("Mohamed", saved.getFirstName());
+    }
+
+    // Les ids des nouveaux etudiants sont generes : un id client inconnu est refuse
+    @Test
+    void save_shouldRejectClientId_whenStudentDoesNotExist() {
+        Student withId = new Student(student2.getId() + 1000, "Mohamed", "Trabelsi", "med@email.com", 20, "Physique");
+
+        assertFalse(StudentConflictException.isEmailConflict(
+            assertThrows(DataIntegrityViolationException.class, () -> studentRepository.save(withId))));
+        assertFalse(studentRepository.existsByEmail("med@email.com"));
+    }
+
+    @Test
+    void findById_shouldReturnStudent_whenExists() {
+        Optional<Student> result = studentRepository.findById(student1.getId());
+
+        assertTrue(result.isPresent());
+        assertEquals("Ahmed", result.get().getFirstName());
+    }
+
+    @Test
+    void findById_shouldReturnEmpty_whenNotExists() {
+        Optional<Student> result = studentRepository.findById(999L);
+
+        assertFalse(result.isPresent());
+    }
+
+    @Test
+    void findAll_shouldReturnAllStudents() {
+        List<Student> students = studentRepository.findAll();
+
+        assertEquals(2, students.size());
+    }
+
+    @Test
+    void findAllSorted_shouldOrderByRequestedFieldsThenId() {
+        Student amine = studentRepository.save(
+            new Student(null, "Amine", "sassi", "amine@email.com", 21, "Informatique"));
+
+        List<Student> byMajorDescThenAge = studentRepository.findAll(
+            Sort.by(Sort.Direction.DESC, "major").and(Sort.by("age")));
+        List<Student> byLastName = studentRepository.findAll(Sort.by("lastName"));
+        List<Student> byLastNameIgnoreCase = studentRepository.findAll(
+            Sort.by(Sort.Order.asc("lastName").ignoreCase()));
+
+        assertEquals(List.of(student2.getId(), student1.getId(), amine.getId()), ids(byMajorDescThenAge));
+        assertEquals(List.of(student1.getId(), student2.getId(), amine.getId()), ids(byLastName));
+        assertEquals(List.of(student1.getId(), amine.getId(), student2.getId()), ids(byLastNameIgnoreCase));
+    }
+
+    @Test
+    void findAllPageable_shouldReturnRequestedPageAndTotal() {
+        Student amine = studentRepository.save(
+            new Student(null, "Amine", "Sassi", "amine@email.com", 23, "Informatique"));
+
+        Page<Student> first = studentRepository.findAll(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "age")));
+        Page<Student> second = studentRepository.findAll(PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "age")));
+
+        assertEquals(List.of(amine.getId(), student2.getId()), ids(first.getContent()));
+        assertEquals(List.of(student1.getId()), ids(second.getContent()));
+        assertEquals(3, second.getTotalElements());
+        assertEquals(2, second.getTotalPages());
+    }
+
+    @Test
+    void findByIdGreaterThan_shouldReturnNextPageInIdOrder() {
+        List<Student> firstPage = studentRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1));
+        List<Student> nextPage = studentRepository
+            .findByIdGreaterThanOrderByIdAsc(firstPage.get(0).getId(), Limit.of(10));
+
+        assertEquals(1, firstPage.size());
+        assertEquals(student1.getId(), firstPage.get(0).getId());
+        assertEquals(1, nextPage.size());
+        assertEquals(student2.getId(), nextPage.get(0).getId());
+    }
+
+    @Test
+    void existsByEmail_shouldReturnTrue_whenEmailExists() {
+        assertTrue(studentRepository.existsByEmail("ahmed@email.com"));
+    }
+
+    @Test
+    void existsByEmail_shouldReturnFalse_whenEmailNotExists() {
+        assertFalse(studentRepository.existsByEmail("inconnu@email.com"));
+    }
+
+    @Test
+    void existsByEmailAndIdNot_shouldReturnTrue_whenEmailTakenByOther() {
+        assertTrue(studentRepository.existsByEmailAndIdNot("fatima@email.com", student1.getId()));
+    }
+
+    @Test
+    void existsByEmailAndIdNot_shouldReturnFalse_whenEmailBelongsToSameStudent() {
+        assertFalse(studentRepository.existsByEmailAndIdNot("ahmed@email.com", student1.getId()));
+    }
+
+    @Test
+    void search_shouldReturnMatchingStudents_byFirstName() {
+        List<Student> result = studentRepository
+            .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase("ahmed", "ahmed");
+
+        assertEquals(1, result.size());
+        assertEquals("Ahmed", result.get(0).getFirstName());
+    }
+
+    @Test
+    void search_shouldReturnMatchingStudents_byLastName() {
+        List<Student> result = studentRepository
+            .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase("zahra", "zahra");
+
+        assertEquals(1, result.size());
+        assertEquals("Fatima", result.get(0).getFirstName());
+    }
+
+    @Test
+    void search_shouldBeCaseInsensitive() {
+        List<Student> result = studentRepository
+            .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase("AHMED", "AHMED");
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void search_shouldReturnEmpty_whenNoMatch() {
+        List<Student> result = studentRepository
+            .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase("xyz", "xyz");
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void updateById_shouldUpdateInOneStatement() {
+        Optional<StudentRepository.PreviousState> previous = studentRepository
+            .updateById(student1.getId(), "Ahmed", "Ben Ali", "ahmed.new@email.com", 30, "Physique", null);
+
+        assertTrue(previous.isPresent());
+        assertEquals("Informatique", previous.get().getMajor());
+        assertEquals(21, previous.get().getAge());
+        entityManager.clear();
+        Student reloaded = studentRepository.findById(student1.getId()).orElseThrow();
+        assertEquals("ahmed.new@email.com", reloaded.getEmail());
+        assertEquals(30, reloaded.getAge());
+        assertEquals(1L, reloaded.getVersion());
+    }
+
+    @Test
+    void updateById_shouldReturnEmpty_whenNotExists() {
+        assertTrue(studentRepository.updateById(999L, "X", "Y", "x@email.com", 20, "Physique", null).isEmpty());
+    }
+
+    @Test
+    void updateById_shouldReturnEmpty_whenVersionDoesNotMatch() {
+        assertTrue(studentRepository
+            .updateById(student1.getId(), "Ahmed", "Ben Ali", "ahmed@email.com", 30, "Physique", 5L).isEmpty());
+        assertTrue(studentRepository
+            .updateById(student1.getId(), "Ahmed", "Ben Ali", "ahmed@email.com", 30, "Physique", 0L).isPresent());
+        assertTrue(studentRepository.deleteStudentById(student1.getId(), 0L).isEmpty());
+    }
+
+    @Test
+    void updateById_shouldFailOnUniqueEmail_whenEmailTakenByOther() {
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class, () -> studentRepository
+            .updateById(student1.getId(), "Ahmed", "Ben Ali", "fatima@email.com", 21, "Informatique", null));
+        assertTrue(StudentConflictException.isEmailConflict(e));
+    }
+
+    @Test
+    void save_shouldFailOnUniqueEmail_whenEmailTaken() {
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class, () -> {
+            studentRepository.save(new Student(null, "Autre", "Etudiant", "ahmed@email.com", 30, "Physique"));
+            studentRepository.flush();
+        });
+        assertTrue(StudentConflictException.isEmailConflict(e));
+    }
+
+    @Test
+    void deleteStudentById_shouldReturnDeletedRow() {
+        assertEquals(student1.getId(), studentRepository.deleteStudentById(student1.getId(), null).orElseThrow().getId());
+        assertTrue(studentRepository.deleteStudentById(student1.getId(), null).isEmpty());
+        entityManager.clear();
+        assertFalse(studentRepository.findById(student1.getId()).isPresent());
+    }
+
+    @Test
+    void findProjected_shouldReturnOnlyRequestedFields_filteredAndSorted() {
+        studentRepository.save(new Student(null, "Amine", "Sassi", "amine@univ.tn", 25, "Informatique"));
+        StudentQuery query = StudentQuery.of("firstName,age", "Informatique", 20, null, null, null, "age,desc", null, 10);
+
+        List<Map<String, Object>> rows = studentRepository.findProjected(query);
+
+        assertEquals(2, rows.size());
+        assertEquals(List.of("firstName", "age"), List.copyOf(rows.get(0).keySet()));
+        assertEquals("Amine", rows.get(0).get("firstName"));
+        assertEquals(21, rows.get(1).get("age"));
+    }
+
+    @Test
+    void findProjected_shouldSortByTextField() {
+        studentRepository.save(new Student(null, "Amine", "Sassi", "amine@univ.tn", 25, "Informatique"));
+
+        List<Object> lastNames = studentRepository.findProjected(
+                StudentQuery.of("lastName", null, null, null, null, null, "-lastName", null, 10))
+            .stream().map(row -> row.get("lastName")).toList();
+
+        assertFalse(lastNames.isEmpty());
+        assertEquals(lastNames.stream().map(String.class::cast).sorted(Comparator.reverseOrder()).toList(), lastNames);
+    }
+
+    @Test
+    void findProjected_shouldFilterByEmailDomainAndNamePrefix() {
+        studentRepository.save(new Student(null, "Amine", "Sassi", "amine@univ.tn", 25, "Informatique"));
+
+        List<Map<String, Object>> byDomain = studentRepository.findProjected(
+            StudentQuery.of("email", null, null, null, "univ.tn", null, null, null, 10));
+        List<Map<String, Object>> byName = studentRepository.findProjected(
+            StudentQuery.of("id,lastName", null, null, null, null, "ZAH", null, null, 10));
+
+        assertEquals(List.of(Map.of("email", "amine@univ.tn")), byDomain);
+        assertEquals(1, byName.size());
+        assertEquals("Zahra", byName.get(0).get("lastName"));
+    }
+
+    @Test
+    void deleteAllReturningPrevious_shouldReturnOnlyDeletedRows() {
+        List<StudentRepository.PreviousState> deleted = studentRepository
+            .deleteAllReturningPrevious(List.of(student1.getId(), 999L));
+
+        assertEquals(1, deleted.size());
+        assertEquals(student1.getId(), deleted.get(0).getId());
+        assertEquals(1, studentRepository.count());
+    }
+
+    @Test
+    void countByMajorAndAge_shouldGroupRows() {
+        studentRepository.save(new Student(null, "Amine", "Sassi", "amine@email.com", 21, "Informatique"));
+
+        List<StudentRepository.MajorAgeCount> counts = studentRepository.countByMajorAndAge();
+
+        assertEquals(2, counts.size());
+        StudentRepository.MajorAgeCount informatique = counts.stream()
+            .filter(c -> "Informatique".equals(c.getMajor())).findFirst().orElseThrow();
+        assertEquals(21, informatique.getAge());
+        assertEquals(2L, informatique.getTotal());
+    }
+
+    @Test
+    void revision_shouldChangeOnEveryWrite() {
+        String initial = studentRepository.revision();
+        assertEquals(initial, studentRepository.revision());
+
+        studentRepository.updateById(student1.getId(), "Ahmed", "Ben Ali", "ahmed@email.com", 21, "Informatique", null);
+        String updated = studentRepository.revision();
+        assertNotEquals(initial, updated);
+
+        // Meme nombre de lignes, memes versions : seuls les ids different
+        studentRepository.deleteStudentById(student2.getId(), null);
+        studentRepository.save(new Student(null, "Amine", "Sassi", "amine@email.com", 22, "Mathematiques"));
+        assertNotEquals(updated, studentRepository.revision());
+    }
+
+    @Test
+    void delete_shouldRemoveStudent() {
+        studentRepository.delete(student1);
+
+        Optional<Student> result = studentRepository.findById(student1.getId());
+        assertFalse(result.isPresent());
+        assertEquals(1, studentRepository.findAll().size());
+    }
+
+    private static List<Long> ids(List<Student> students) {
+        return students.stream().map(Student::getId).toList();
+    }
+}
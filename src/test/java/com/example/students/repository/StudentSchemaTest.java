@@ -0,0 +1,104 @@
+package com.example.students.repository;
+
+import com.example.students.dto.StudentQuery;
+import jakarta.persistence.EntityManager;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Verifie via EXPLAIN que les requetes SQL reellement generees par le repository utilisent (ou non)
+// les index des migrations : le SQL est capture par un StatementInspector puis rejoue avec ses parametres
+@DataJpaTest
+@Import(StudentSchemaTest.LastStatement.class)
+class StudentSchemaTest {
+
+    private static final AtomicReference<String> LAST_SQL = new AtomicReference<>();
+
+    @TestConfiguration
+    static class LastStatement {
+
+        @Bean
+        HibernatePropertiesCustomizer lastStatementInspector() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                LAST_SQL.set(sql);
+                return sql;
+            });
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Plan de la derniere requete emise par Hibernate, avec les valeurs de ses parametres
+    private String explainLast(Object... parameters) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + LAST_SQL.get(), String.class, parameters).toUpperCase();
+    }
+
+    @Test
+    void migrations_shouldSeedInitialStudents() {
+        Number count = (Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM students").getSingleResult();
+
+        assertEquals(5, count.intValue());
+    }
+
+    @Test
+    void existsByEmail_shouldUseUniqueIndex() {
+        studentRepository.existsByEmail("ahmed.benali@email.com");
+
+        String plan = explainLast("ahmed.benali@email.com", 1);
+        assertTrue(plan.contains("UK_STUDENTS_EMAIL"), plan);
+    }
+
+    // Recherche (GET /api/students/search hors index memoire) : LIKE '%q%', aucun index possible.
+    // Les colonnes *_lower ne servent qu'au filtre par prefixe de nom
+    @Test
+    void nameSearch_shouldScanTable() {
+        studentRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase("ahm", "ahm");
+
+        String plan = explainLast("%ahm%", "%ahm%");
+        assertTrue(plan.contains("TABLESCAN"), plan);
+    }
+
+    @Test
+    void namePrefixFilter_shouldUseLowerNameIndexes() {
+        studentRepository.findProjected(StudentQuery.of(null, null, null, null, null, "Ahm", null, null, 20));
+
+        String plan = explainLast("ahm%", "ahm%", 20);
+        assertTrue(plan.contains("IDX_STUDENTS_FIRST_NAME_LOWER"), plan);
+        assertTrue(plan.contains("IDX_STUDENTS_LAST_NAME_LOWER"), plan);
+    }
+
+    @Test
+    void majorAndAgeFilter_shouldUseCompositeIndex() {
+        studentRepository.findProjected(StudentQuery.of(null, "Informatique", 18, 25, null, null, null, null, 20));
+
+        String plan = explainLast("Informatique", 18, 25, 20);
+        assertTrue(plan.contains("IDX_STUDENTS_MAJOR_AGE"), plan);
+    }
+
+    @Test
+    void generatedColumns_shouldFollowNameUpdates() {
+        entityManager.createNativeQuery("UPDATE students SET first_name = 'AHMED' WHERE id = 1").executeUpdate();
+
+        Object lower = entityManager.createNativeQuery("SELECT first_name_lower FROM students WHERE id = 1")
+            .getSingleResult();
+        assertEquals("ahmed", lower);
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.students.service;
+
+import com.example.students.dto.AuditRecord;
+import com.example.students.dto.StudentChange.Type;
+import com.example.students.model.Student;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private AuditJournal journal;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private AuditJournal open(String segmentSize) throws IOException {
+        return open(segmentSize, Duration.ofDays(30), "1GB");
+    }
+
+    private AuditJournal open(String segmentSize, Duration retention, String maxSize) throws IOException {
+        journal = new AuditJournal(new ObjectMapper(), directory.toString(), DataSize.parse(segmentSize), 16,
+            retention, DataSize.parse(maxSize));
+        return journal;
+    }
+
+    private static Student student(long id, int age) {
+        return new Student(id, "Ines", "Haddad", "ines" + id + "@email.com", age, "Chimie");
+    }
+
+    @Test
+    void history_shouldReturnChangesOfOneStudentInOrder() throws Exception {
+        open("64KB");
+        journal.append(Type.CREATED, 1L, student(1, 20));
+        journal.append(Type.CREATED, 2L, student(2, 30));
+        journal.append(Type.UPDATED, 1L, student(1, 21));
+        journal.append(Type.DELETED, 1L, null);
+        assertTrue(journal.flush(Duration.ofSeconds(5)));
+
+        List<AuditRecord> history = journal.history(1L);
+        assertEquals(List.of(1L, 3L, 4L), history.stream().map(AuditRecord::sequence).toList());
+        assertEquals(List.of(Type.CREATED, Type.UPDATED, Type.DELETED), history.stream().map(AuditRecord::type).toList());
+        assertEquals(21, history.get(1).student().getAge());
+        assertNull(history.get(2).student());
+        assertEquals(4, journal.durableSequence());
+    }
+
+    @Test
+    void between_shouldFilterByTimeRange() throws Exception {
+        open("64KB");
+        journal.append(Type.CREATED, 1L, student(1, 20));
+        assertTrue(journal.flush(Duration.ofSeconds(5)));
+        Instant middle = Instant.now().plusMillis(5);
+        Thread.sleep(20);
+        journal.append(Type.CREATED, 2L, student(2, 30));
+        assertTrue(journal.flush(Duration.ofSeconds(5)));
+
+        assertEquals(2, journal.between(null, null, 10).size());
+        assertEquals(List.of(1L), journal.between(null, middle, 10).stream().map(AuditRecord::studentId).toList());
+        assertEquals(List.of(2L), journal.between(middle, null, 10).stream().map(AuditRecord::studentId).toList());
+        assertEquals(1, journal.between(null, null, 1).size());
+    }
+
+    @Test
+    void reopen_shouldRecoverRotatedSegmentsAndContinueNumbering() throws Exception {
+        open("1KB");
+        for (long i = 1; i <= 40; i++) {
+            journal.append(Type.CREATED, i % 4, student(i % 4, 20));
+        }
+        assertTrue(journal.flush(Duration.ofSeconds(5)));
+        journal.close();
+        assertTrue(segments().size() > 1);
+
+        open("1KB");
+        assertEquals(40, journal.lastSequence());
+        assertEquals(10, journal.history(1L).size());
+        assertEquals(41, journal.append(Type.DELETED, 1L, null));
+        assertTrue(journal.flush(Duration.ofSeconds(5)));
+        assertEquals(41, journal.history(1L).get(10).sequence());
+    }
+
+    // Arret brutal au milieu d'une ecriture : dernier enregistrement incomplet (CRC faux) et, plus loin,
+    // des octets deja ecrits ; la reprise s'arrete au dernier enregistrement valide et efface la suite
+    @Test
+    void reopen_shouldDropTornRecordAfterCrash() throws Exception {
+        open("64KB");
+        journal.append(Type.CREATED, 1L, student(1, 20));
+        journal.append(Type.UPDATED, 1L, student(1, 21));
+        journal.append(Type.UPDATED, 1L, student(1, 22));
+        assertTrue(journal.flush(Duration.ofSeconds(5)));
+        journal.close();
+
+        Path segment = segments().get(0);
+        int thirdRecord = recordOffset(segment, 2);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0x7f}), thirdRecord + 40);
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3, 4}), 60_000);
+        }
+
+        open("64KB");
+        assertEquals(2, journal.lastSequence());
+        assertEquals(List.of(1L, 2L), journal.history(1L).stream().map(AuditRecord::sequence).toList());
+        assertEquals(3, journal.append(Type.DELETED, 1L, null));
+        assertTrue(journal.flush(Duration.ofSeconds(5)));
+        journal.close();
+
+        open("64KB");
+        assertEquals(3, journal.lastSequence());
+        assertEquals(Type.DELETED, journal.history(1L).get(2).type());
+        ByteBuffer tail = ByteBuffer.allocate(4);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            channel.read(tail, 60_000);
+        }
+        assertArrayEquals(new byte[4], tail.array());
+    }
+
+    // Ecriture d'un enregistrement en echec (ici la serialisation) : le numero est perdu, pas la suite
+    // du journal ; la reprise accepte le trou et garde les segments ouverts ensuite
+    @Test
+    void reopen_shouldKeepRecordsFollowingAFailedWrite() throws Exception {
+        open("1KB");
+        journal.append(Type.CREATED, 1L, student(1, 20));
+        journal.append(Type.UPDATED, 1L, new Student(1L, "Ines", "Haddad", "ines1@email.com", 21, "Chimie") {
+            @Override
+            public String getEmail() {
+                throw new IllegalStateException("serialisation impossible");
+            }
+        });
+        for (long i = 3; i <= 30; i++) {
+            journal.append(Type.UPDATED, 1L, student(1, 20 + (int) i));
+        }
+        assertTrue(journal.flush(Duration.ofSeconds(5)));
+        journal.close();
+        assertTrue(segments().size() > 1);
+
+        open("1KB");
+        assertEquals(30, journal.lastSequence());
+        List<Long> sequences = journal.history(1L).stream().map(AuditRecord::sequence).toList();
+        assertEquals(29, sequences.size());
+        assertEquals(List.of(1L, 3L), sequences.subList(0, 2));
+        assertEquals(30L, sequences.get(sequences.size() - 1));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.noneMatch(path -> path.getFileName().toString().endsWith(".corrupt")));
+        }
+        assertEquals(31, journal.append(Type.DELETED, 1L, null));
+    }
+
+    @Test
+    void retention_shouldDeleteOldestSegmentsAndTheirPositions() throws Exception {
+        open("1KB", Duration.ofDays(30), "3KB");
+        for (long i = 1; i <= 40; i++) {
+            journal.append(Type.CREATED, i % 4, student(i % 4, 20));
+        }
+        assertTrue(journal.flush(Duration.ofSeconds(5)));
+
+        assertEquals(3, segments().size());
+        List<Long> kept = journal.history(1L).stream().map(AuditRecord::sequence).toList();
+        assertFalse(kept.isEmpty());
+        assertTrue(kept.get(0) > 1);
+        assertEquals(37, kept.get(kept.size() - 1));
+        assertEquals(kept.size(), journal.between(null, null, 100).stream().filter(r -> r.studentId() == 1).count());
+        journal.close();
+
+        // Au demarrage : retention par age, seul le segment courant reste
+        open("1KB", Duration.ZERO, "3KB");
+        assertEquals(1, segments().size());
+        assertEquals(40, journal.lastSequence());
+        assertTrue(journal.history(0L).stream().allMatch(r -> r.sequence() > kept.get(0)));
+        assertEquals(41, journal.append(Type.DELETED, 1L, null));
+        assertTrue(journal.flush(Duration.ofSeconds(5)));
+        assertEquals(41, journal.history(1L).get(journal.history(1L).size() - 1).sequence());
+    }
+
+    @Test
+    void open_shouldRefuseDirectoryAlreadyInUse() throws Exception {
+        open("64KB");
+        assertThrows(Exception.class,
+            () -> new AuditJournal(new ObjectMapper(), directory.toString(), DataSize.parse("64KB"), 16,
+                Duration.ofDays(30), DataSize.parse("1GB")));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private static int recordOffset(Path segment, int index) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(4);
+        int offset = 0;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            for (int i = 0; i < index; i++) {
+                length.clear();
+                channel.read(length, offset);
+                offset += 8 + length.flip().getInt();
+            }
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.students.service;
+
+import com.example.students.exception.StudentNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<Long, String> flight = new SingleFlight<>("test");
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @Test
+    void execute_shouldShareOneLoadBetweenConcurrentCallers() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Future<String> leader = executor.submit(() -> flight.execute(1L, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "Ahmed";
+        }));
+        loading.await();
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            followers.add(executor.submit(() -> flight.execute(1L, () -> {
+                loads.incrementAndGet();
+                return "autre";
+            })));
+        }
+        while (flight.followers() < 7) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertEquals("Ahmed", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("Ahmed", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, flight.leaders());
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_shouldShareExceptionAndForgetCompletedLoads() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StudentNotFoundException missing = new StudentNotFoundException(9L);
+        Future<String> leader = executor.submit(() -> flight.execute(9L, () -> {
+            loading.countDown();
+            await(release);
+            throw missing;
+        }));
+        loading.await();
+        Future<String> follower = executor.submit(() -> flight.execute(9L, () -> "jamais"));
+        while (flight.followers() < 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertSame(missing, assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+        assertSame(missing, assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS)).getCause());
+        // Lecture terminee : l'appel suivant relance une lecture
+        assertEquals("Fatima", flight.execute(9L, () -> "Fatima"));
+        assertEquals(2, flight.leaders());
+        executor.shutdownNow();
+    }
+
+    @Test
+    void forget_shouldLetLaterCallersStartANewLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> before = executor.submit(() -> flight.execute(1L, () -> {
+            loading.countDown();
+            await(release);
+            return "ancienne valeur";
+        }));
+        loading.await();
+
+        flight.forget(1L);
+
+        assertEquals("nouvelle valeur", flight.execute(1L, () -> "nouvelle valeur"));
+        release.countDown();
+        assertEquals("ancienne valeur", before.get(5, TimeUnit.SECONDS));
+        assertEquals(2, flight.leaders());
+        assertEquals(0, flight.followers());
+        executor.shutdownNow();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
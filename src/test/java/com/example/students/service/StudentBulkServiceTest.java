@@ -0,0 +1,166 @@
+package com.example.students.service;
+
+import com.example.students.dto.BulkResult;
+import com.example.students.exception.StudentConflictException;
+import com.example.students.model.Student;
+import com.example.students.repository.StudentRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StudentBulkServiceTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private StudentSearchIndex searchIndex;
+
+    @Mock
+    private StudentStatistics statistics;
+
+    @Mock
+    private StudentModificationTracker modificationTracker;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StudentBulkService bulkService;
+
+    @BeforeEach
+    void setUp() {
+        bulkService = new StudentBulkService(studentRepository, searchIndex, statistics, modificationTracker,
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            new TransactionTemplate(transactionManager), new ConcurrentMapCacheManager());
+    }
+
+    private static StudentRepository.EmailOwner owner(Long id, String email) {
+        return new StudentRepository.EmailOwner() {
+            public Long getId() { return id; }
+            public String getEmail() { return email; }
+        };
+    }
+
+    private static StudentRepository.PreviousState previous(Long id, String major, Integer age) {
+        return new StudentRepository.PreviousState() {
+            public Long getId() { return id; }
+            public String getMajor() { return major; }
+            public Integer getAge() { return age; }
+            public Long getVersion() { return 0L; }
+        };
+    }
+
+    @Test
+    void createStudents_shouldCheckEmailsOnceAndSaveValidItemsTogether() {
+        Student valid = new Student(null, "Mohamed", "Trabelsi", "med@email.com", 20, "Physique");
+        Student invalid = new Student(null, "", "Zahra", "fatima@email.com", 22, "Mathematiques");
+        Student existing = new Student(null, "Ahmed", "Ben Ali", "ahmed@email.com", 21, "Informatique");
+        Student repeated = new Student(null, "Med", "Bis", "med@email.com", 20, "Physique");
+        when(studentRepository.findByEmailIn(anyList())).thenReturn(List.of(owner(1L, "ahmed@email.com")));
+        when(studentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Student> toSave = invocation.getArgument(0);
+            toSave.forEach(student -> student.setId(10L));
+            return toSave;
+        });
+
+        BulkResult result = bulkService.createStudents(Arrays.asList(valid, invalid, existing, repeated));
+
+        assertEquals(4, result.getProcessed());
+        assertEquals(1, result.getSucceeded());
+        assertEquals(3, result.getFailed());
+        assertEquals(BulkResult.OK, result.getItems().get(0).status());
+        assertEquals(10L, result.getItems().get(0).id());
+        assertTrue(result.getItems().get(1).message().contains("firstName"));
+        assertTrue(result.getItems().get(2).message().contains("email"));
+        assertTrue(result.getItems().get(3).message().contains("double"));
+        verify(studentRepository, times(1)).findByEmailIn(anyList());
+        verify(studentRepository, times(1)).saveAll(List.of(valid));
+        verify(studentRepository, never()).existsByEmail(any());
+    }
+
+    @Test
+    void updateStudents_shouldReportMissingIds() {
+        Student stored = new Student(1L, "Ahmed", "Ben Ali", "ahmed@email.com", 21, "Informatique");
+        Student update = new Student(1L, "Ahmed", "Ben Ali", "ahmed@email.com", 30, "Physique");
+        Student missing = new Student(99L, "X", "Y", "x@email.com", 20, "Physique");
+        when(studentRepository.findByEmailIn(anyList())).thenReturn(List.of(owner(1L, "ahmed@email.com")));
+        when(studentRepository.findAllById(anyList())).thenReturn(List.of(stored));
+        when(studentRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BulkResult result = bulkService.updateStudents(List.of(update, missing));
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals(30, stored.getAge());
+        verify(statistics).changed("Informatique", 21, "Physique", 30);
+        assertEquals(BulkResult.ERROR, result.getItems().get(1).status());
+        assertTrue(result.getItems().get(1).message().contains("99"));
+    }
+
+    @Test
+    void updateStudents_shouldRetryRowByRowAndReportConflictingRows_whenChunkFails() {
+        Map<Long, Student> stored = Map.of(
+            1L, new Student(1L, "Ahmed", "Ben Ali", "ahmed@email.com", 21, "Informatique"),
+            2L, new Student(2L, "Fatima", "Zahra", "fatima@email.com", 22, "Mathematiques"),
+            3L, new Student(3L, "Mohamed", "Trabelsi", "med@email.com", 20, "Physique"));
+        when(studentRepository.findByEmailIn(anyList())).thenReturn(List.of());
+        when(studentRepository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(stored::get).toList();
+        });
+        when(studentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Student> toSave = invocation.getArgument(0);
+            if (toSave.size() > 1 || toSave.get(0).getId() == 2L) {
+                throw new DataIntegrityViolationException("uk_students_email");
+            }
+            if (toSave.get(0).getId() == 3L) {
+                throw new ObjectOptimisticLockingFailureException(Student.class, 3L);
+            }
+            return toSave;
+        });
+
+        BulkResult result = bulkService.updateStudents(List.of(
+            new Student(1L, "Ahmed", "Ben Ali", "ahmed.new@email.com", 21, "Informatique"),
+            new Student(2L, "Fatima", "Zahra", "pris@email.com", 22, "Mathematiques"),
+            new Student(3L, "Mohamed", "Trabelsi", "med.new@email.com", 20, "Physique")));
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals(BulkResult.OK, result.getItems().get(0).status());
+        assertEquals(StudentConflictException.EMAIL_IN_USE, result.getItems().get(1).message());
+        assertEquals(2L, result.getItems().get(1).id());
+        assertTrue(result.getItems().get(2).message().contains("modifie"));
+        assertEquals(3L, result.getItems().get(2).id());
+        verify(modificationTracker, times(1)).updated(any());
+        verify(searchIndex, times(1)).index(any());
+    }
+
+    @Test
+    void deleteStudents_shouldDeleteExistingIdsInOneStatement() {
+        when(studentRepository.deleteAllReturningPrevious(List.of(1L, 99L)))
+            .thenReturn(List.of(previous(1L, "Informatique", 21)));
+
+        BulkResult result = bulkService.deleteStudents(List.of(1L, 99L));
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        verify(studentRepository, times(1)).deleteAllReturningPrevious(List.of(1L, 99L));
+        verify(searchIndex).remove(1L);
+        verify(statistics).removed("Informatique", 21);
+        verify(modificationTracker, times(1)).deleted(1L);
+        verify(modificationTracker, never()).deleted(99L);
+    }
+}
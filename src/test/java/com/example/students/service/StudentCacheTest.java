@@ -0,0 +1,185 @@
+package com.example.students.service;
+
+import com.example.students.config.CacheConfig;
+import com.example.students.model.Student;
+import com.example.students.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class StudentCacheTest {
+
+    @MockBean
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Student student1;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.STUDENTS_CACHE).clear();
+        student1 = new Student(1L, "Ahmed", "Ben Ali", "ahmed@email.com", 21, "Informatique");
+        when(studentRepository.findById(1L)).thenReturn(Optional.of(student1));
+    }
+
+    private static StudentRepository.PreviousState previous(Long id, String major, Integer age) {
+        return new StudentRepository.PreviousState() {
+            public Long getId() { return id; }
+            public String getMajor() { return major; }
+            public Integer getAge() { return age; }
+            public Long getVersion() { return 0L; }
+        };
+    }
+
+    @Test
+    void getStudentById_shouldHitRepositoryOnce_forRepeatedReads() {
+        studentService.getStudentById(1L);
+        studentService.getStudentById(1L);
+
+        verify(studentRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void updateStudent_shouldEvictOnlyUpdatedId() {
+        when(studentRepository.findById(2L)).thenReturn(
+            Optional.of(new Student(2L, "Fatima", "Zahra", "fatima@email.com", 22, "Mathematiques")));
+        when(studentRepository.updateById(eq(1L), any(), any(), any(), any(), any(), isNull()))
+            .thenReturn(Optional.of(previous(1L, "Informatique", 21)));
+        studentService.getStudentById(1L);
+        studentService.getStudentById(2L);
+
+        studentService.updateStudent(1L, new Student(1L, "Ahmed", "Ben Ali", "ahmed@email.com", 30, "Physique"));
+
+        assertNull(cacheManager.getCache(CacheConfig.STUDENTS_CACHE).get(1L));
+        assertNotNull(cacheManager.getCache(CacheConfig.STUDENTS_CACHE).get(2L));
+    }
+
+    @Test
+    void deleteStudent_shouldEvictDeletedId() {
+        when(studentRepository.deleteStudentById(1L, null)).thenReturn(Optional.of(previous(1L, "Informatique", 21)));
+        studentService.getStudentById(1L);
+
+        studentService.deleteStudent(1L);
+
+        assertNull(cacheManager.getCache(CacheConfig.STUDENTS_CACHE).get(1L));
+    }
+
+    // Lecture commencee avant la mise a jour, terminee apres son eviction : l'ancienne ligne
+    // n'est pas rangee dans le cache (instance unique, transport none)
+    @Test
+    void getStudentById_shouldNotCacheRowLoadedBeforeConcurrentUpdate() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        when(studentRepository.findById(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            updated.await();
+            return Optional.of(student1);
+        });
+        when(studentRepository.updateById(eq(1L), any(), any(), any(), any(), any(), isNull()))
+            .thenReturn(Optional.of(previous(1L, "Informatique", 21)));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Student> staleLoad = executor.submit(() -> studentService.getStudentById(1L));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            // L'eviction ne doit pas attendre la fin du chargement en cours
+            executor.submit(() -> studentService.updateStudent(1L,
+                new Student(1L, "Ahmed", "Ben Ali", "ahmed@email.com", 30, "Physique"))).get(5, TimeUnit.SECONDS);
+            updated.countDown();
+
+            assertEquals(21, staleLoad.get(5, TimeUnit.SECONDS).getAge());
+            assertNull(cacheManager.getCache(CacheConfig.STUDENTS_CACHE).get(1L));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Rafale de lectures du meme id absent du cache : une seule requete, partagee
+    @Test
+    void getStudentById_shouldLoadOnceForConcurrentMisses() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(studentRepository.findById(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Optional.of(student1);
+        });
+        SingleFlight<?, ?> lookups = studentService.singleFlights().get(0);
+        long followers = lookups.followers();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Student>> reads = new ArrayList<>();
+            reads.add(executor.submit(() -> studentService.getStudentById(1L)));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                reads.add(executor.submit(() -> studentService.getStudentById(1L)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (lookups.followers() < followers + 7 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<Student> read : reads) {
+                assertSame(student1, read.get(5, TimeUnit.SECONDS));
+            }
+            verify(studentRepository, times(1)).findById(1L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Lecture commencee avant la mise a jour : un appel posterieur a la mise a jour ne s'y joint pas,
+    // il relit la base et c'est sa valeur qui reste en cache
+    @Test
+    void getStudentById_shouldNotJoinLookupStartedBeforeUpdate() throws Exception {
+        Student updated = new Student(1L, "Ahmed", "Ben Ali", "ahmed@email.com", 30, "Physique");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(studentRepository.findById(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Optional.of(student1);
+        }).thenReturn(Optional.of(updated));
+        when(studentRepository.updateById(eq(1L), any(), any(), any(), any(), any(), isNull()))
+            .thenReturn(Optional.of(previous(1L, "Informatique", 21)));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Student> staleLoad = executor.submit(() -> studentService.getStudentById(1L));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            studentService.updateStudent(1L, updated);
+
+            Student afterUpdate = executor.submit(() -> studentService.getStudentById(1L)).get(5, TimeUnit.SECONDS);
+            release.countDown();
+
+            assertEquals(30, afterUpdate.getAge());
+            assertEquals(21, staleLoad.get(5, TimeUnit.SECONDS).getAge());
+            assertEquals(30, studentService.getStudentById(1L).getAge());
+            verify(studentRepository, times(2)).findById(1L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
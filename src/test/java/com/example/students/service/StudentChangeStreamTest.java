@@ -0,0 +1,127 @@
+package com.example.students.service;
+
+import com.example.students.dto.StudentChange;
+import com.example.students.model.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentChangeStreamTest {
+
+    private final StudentChangeStream stream = new StudentChangeStream(4, 2, 1, Duration.ofMinutes(1), Duration.ofMillis(100));
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    private static Student student(long id, int age) {
+        return new Student(id, "Ahmed", "Ben Ali", "ahmed" + id + "@email.com", age, "Informatique");
+    }
+
+    // Emetteur qui enregistre les evenements envoyes ; bloque tant que blocked est ferme
+    private static class RecordingEmitter extends SseEmitter {
+        final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        final CountDownLatch blocked;
+
+        RecordingEmitter(CountDownLatch blocked) {
+            this.blocked = blocked;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            events.add(builder.build().stream().map(part -> part.getData().toString()).collect(Collectors.joining()));
+        }
+    }
+
+    @Test
+    void eventsAfter_shouldReplayFromCursor() {
+        stream.publish(StudentChange.Type.CREATED, 1L, student(1, 20));
+        stream.publish(StudentChange.Type.UPDATED, 1L, student(1, 21));
+        stream.publish(StudentChange.Type.DELETED, 2L, null);
+
+        List<StudentChange> events = stream.eventsAfter(1, stream.published());
+
+        assertEquals(List.of(2L, 3L), events.stream().map(StudentChange::sequence).toList());
+        assertEquals(StudentChange.Type.DELETED, events.get(1).type());
+    }
+
+    @Test
+    void eventsAfter_shouldRequireResync_whenJournalOverwrittenOrCursorFromPreviousRun() {
+        for (long id = 1; id <= 6; id++) {
+            stream.publish(StudentChange.Type.CREATED, id, student(id, 20));
+        }
+
+        assertNull(stream.eventsAfter(0, stream.published()));
+        assertEquals(4, stream.eventsAfter(2, stream.published()).size());
+        assertNull(stream.eventsAfter(42, stream.published()));
+    }
+
+    @Test
+    void coalesce_shouldKeepLatestEventPerStudentInSequenceOrder() {
+        stream.publish(StudentChange.Type.CREATED, 1L, student(1, 20));
+        stream.publish(StudentChange.Type.CREATED, 2L, student(2, 20));
+        stream.publish(StudentChange.Type.UPDATED, 1L, student(1, 21));
+
+        List<StudentChange> merged = StudentChangeStream.coalesce(stream.eventsAfter(0, stream.published()));
+
+        assertEquals(List.of(2L, 3L), merged.stream().map(StudentChange::sequence).toList());
+        assertEquals(21, merged.get(1).student().getAge());
+    }
+
+    @Test
+    void subscribe_shouldSendReset_whenLastEventIdComesFromAnotherRun() throws Exception {
+        stream.publish(StudentChange.Type.CREATED, 1L, student(1, 20));
+        RecordingEmitter current = new RecordingEmitter(new CountDownLatch(0));
+        RecordingEmitter previousRun = new RecordingEmitter(new CountDownLatch(0));
+
+        stream.subscribe(current, stream.eventId(0));
+        stream.subscribe(previousRun, "ancienne-0");
+
+        String replayed = current.events.poll(5, TimeUnit.SECONDS);
+        assertTrue(replayed.contains("id:" + stream.eventId(1) + "\nevent:created"), replayed);
+        assertTrue(previousRun.events.poll(5, TimeUnit.SECONDS).contains("event:reset"));
+    }
+
+    @Test
+    void dropStalled_shouldDisconnectBlockedSubscriber_andKeepServingTheOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        RecordingEmitter reader = new RecordingEmitter(new CountDownLatch(0));
+        stream.subscribe(stalled, null);
+        stream.publish(StudentChange.Type.CREATED, 1L, student(1, 20));
+        // L'unique thread de diffusion est bloque dans l'envoi au premier abonne
+        Thread.sleep(200);
+        stream.subscribe(reader, null);
+        stream.publish(StudentChange.Type.CREATED, 2L, student(2, 20));
+        assertNull(reader.events.poll(100, TimeUnit.MILLISECONDS));
+
+        stream.dropStalled();
+
+        assertTrue(reader.events.poll(5, TimeUnit.SECONDS).contains("event:created"));
+        assertEquals(1, stream.subscriberCount());
+        assertEquals(2, stream.dispatcherThreads());
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stream.dispatcherThreads() != 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, stream.dispatcherThreads());
+    }
+}
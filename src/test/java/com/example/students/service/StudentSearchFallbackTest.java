@@ -0,0 +1,57 @@
+package com.example.students.service;
+
+import com.example.students.model.Student;
+import com.example.students.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+// La recherche passe par la requete LIKE tant que l'index n'est pas pret : memes resultats attendus
+@DataJpaTest
+class StudentSearchFallbackTest {
+
+    private static final List<String> QUERIES = List.of("a", "A", "ra", "med", "MED", "ben s", "Hélène", "helene",
+        "email", "informatique", "_", "%", "l_a", "zz", "");
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Test
+    void searchStudents_shouldReturnSameResultsWithAndWithoutIndex() {
+        studentRepository.saveAll(List.of(
+            new Student(null, "Hélène", "Ahmadi", "helene@email.com", 23, "Informatique"),
+            new Student(null, "Medhi", "Karoui", "medhi@informatique.tn", 24, "Chimie"),
+            new Student(null, "Sara", "Ben Salah", "sara@email.com", 20, "Mathematiques"),
+            new Student(null, "Rania", "Al_Ali", "rania@email.com", 22, "Physique")));
+        StudentSearchIndex index = new StudentSearchIndex(true);
+        StudentService service = new StudentService(studentRepository, index, null,
+            mock(StudentModificationTracker.class));
+
+        Map<String, List<Long>> withoutIndex = new LinkedHashMap<>();
+        for (String query : QUERIES) {
+            withoutIndex.put(query, ids(service.searchStudents(query, 3)));
+        }
+        index.rebuild(studentRepository.findAll().stream());
+        assertTrue(index.isReady());
+
+        for (String query : QUERIES) {
+            assertEquals(withoutIndex.get(query), ids(service.searchStudents(query, 3)), "requete \"" + query + "\"");
+        }
+        assertEquals(3, withoutIndex.get("a").size());
+        assertEquals(1, withoutIndex.get("l_a").size());
+        assertEquals(1, withoutIndex.get("Hélène").size());
+        assertTrue(withoutIndex.get("helene").isEmpty());
+        assertTrue(withoutIndex.get("informatique").isEmpty());
+    }
+
+    private static List<Long> ids(List<Student> students) {
+        return students.stream().map(Student::getId).toList();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.students.service;
+
+import com.example.students.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentSearchIndexTest {
+
+    private StudentSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new StudentSearchIndex(true);
+        index.rebuild(Stream.of(
+            new Student(1L, "Ahmed", "Ben Ali", "ahmed.benali@email.com", 21, "Informatique"),
+            new Student(2L, "Fatima", "Zahra", "fatima.zahra@email.com", 22, "Mathematiques"),
+            new Student(3L, "Mohamed", "Trabelsi", "med.trabelsi@email.com", 20, "Physique"),
+            new Student(4L, "Hélène", "Ahmadi", "helene@email.com", 23, "Informatique")));
+    }
+
+    @Test
+    void search_shouldMatchSubstringCaseInsensitive() {
+        List<Student> result = index.search("AHMED", 10);
+
+        assertEquals(1, result.size());
+        assertEquals("Ahmed", result.get(0).getFirstName());
+    }
+
+    @Test
+    void search_shouldRankPrefixMatchesFirst() {
+        index.index(new Student(6L, "Medhi", "Karoui", "medhi@email.com", 24, "Chimie"));
+
+        List<Student> result = index.search("med", 10);
+
+        // Debut de champ, puis sous-chaines a egalite par id
+        assertEquals(List.of(6L, 1L, 3L), result.stream().map(Student::getId).toList());
+    }
+
+    // Comme la requete LIKE : les accents comptent
+    @Test
+    void search_shouldMatchAccentsExactly() {
+        assertEquals(List.of(4L), index.search("HÉLÈNE", 10).stream().map(Student::getId).toList());
+        assertTrue(index.search("helene", 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldOnlyMatchFirstAndLastName() {
+        assertTrue(index.search("trabelsi@", 10).isEmpty());
+        assertTrue(index.search("informatique", 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldMatchSubstring_forShortQueries() {
+        List<Student> result = index.search("ra", 10);
+
+        assertEquals(List.of(2L, 3L), result.stream().map(Student::getId).toList());
+    }
+
+    @Test
+    void search_shouldRespectLimit() {
+        assertEquals(1, index.search("a", 1).size());
+    }
+
+    @Test
+    void rank_shouldOrderLikeSearch() {
+        List<Student> candidates = List.of(
+            new Student(1L, "Ahmed", "Ben Ali", "ahmed.benali@email.com", 21, "Informatique"),
+            new Student(3L, "Mohamed", "Trabelsi", "med.trabelsi@email.com", 20, "Physique"),
+            new Student(4L, "Hélène", "Ahmadi", "helene@email.com", 23, "Informatique"));
+
+        assertEquals(index.search("med", 10).stream().map(Student::getId).toList(),
+            StudentSearchIndex.rank(candidates, "med", 10).stream().map(Student::getId).toList());
+        assertEquals(List.of(1L), StudentSearchIndex.rank(candidates, "ahm", 1).stream().map(Student::getId).toList());
+    }
+
+    @Test
+    void index_shouldReplacePreviousVersion() {
+        index.index(new Student(2L, "Fatima", "Mansouri", "fatima.m@email.com", 22, "Economie"));
+
+        assertTrue(index.search("zahra", 10).isEmpty());
+        assertEquals(1, index.search("mansouri", 10).size());
+    }
+
+    @Test
+    void remove_shouldDropStudentFromResults() {
+        index.remove(1L);
+
+        assertTrue(index.search("ben ali", 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void index_shouldKeepPostingsOfLatestVersion_underConcurrentUpdatesOfSameStudent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int writer = t;
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    index.index(new Student(5L, "Karim", "Nom" + writer, "karim" + i % 7 + "@email.com", 20, "Chimie"));
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Student latest = index.search("karim", 10).get(0);
+        // Seules les cles de la derniere version indexee retrouvent l'etudiant
+        for (int writer = 0; writer < 4; writer++) {
+            String lastName = "Nom" + writer;
+            assertEquals(lastName.equals(latest.getLastName()) ? List.of(5L) : List.of(),
+                index.search(lastName, 10).stream().map(Student::getId).toList());
+        }
+    }
+}
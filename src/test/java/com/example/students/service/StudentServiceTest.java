@@ -1,5 +1,8 @@
 package com.example.students.service;
 
+import com.example.students.exception.PreconditionFailedException;
+import com.example.students.exception.StudentConflictException;
+import com.example.students.exception.StudentNotFoundException;
 import com.example.students.model.Student;
 import com.example.students.repository.StudentRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,6 +11,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
 import java.util.Arrays;
 import java.util.List;
@@ -23,6 +28,15 @@ class StudentServiceTest {
     @Mock
     private StudentRepository studentRepository;
 
+    @Mock
+    private StudentSearchIndex searchIndex;
+
+    @Mock
+    private StudentStatistics statistics;
+
+    @Mock
+    private StudentModificationTracker modificationTracker;
+
     @InjectMocks
     private StudentService studentService;
 
@@ -35,6 +49,15 @@ class StudentServiceTest {
         student2 = new Student(2L, "Fatima", "Zahra", "fatima@email.com", 22, "Mathematiques");
     }
 
+    private static StudentRepository.PreviousState previous(Long id, String major, Integer age) {
+        return new StudentRepository.PreviousState() {
+            public Long getId() { return id; }
+            public String getMajor() { return major; }
+            public Integer getAge() { return age; }
+            public Long getVersion() { return 0L; }
+        };
+    }
+
     // ===================== GET ALL =====================
 
     @Test
@@ -58,6 +81,38 @@ class StudentServiceTest {
         assertTrue(result.isEmpty());
     }
 
+    // ===================== PAGINATION / STREAMING =====================
+
+    @Test
+    void getStudentsPage_shouldStartFromZero_whenNoCursor() {
+        when(studentRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+            .thenReturn(Arrays.asList(student1, student2));
+
+        List<Student> result = studentService.getStudentsPage(null, 2);
+
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    void streamAllStudents_shouldReadTableByKeysetChunks() {
+        List<Student> firstChunk = new java.util.ArrayList<>();
+        for (long id = 1; id <= StudentService.STREAM_CHUNK_SIZE; id++) {
+            firstChunk.add(new Student(id, "F" + id, "L" + id, id + "@email.com", 20, "Informatique"));
+        }
+        Student last = new Student(StudentService.STREAM_CHUNK_SIZE + 1L, "Z", "Z", "z@email.com", 20, "Physique");
+        when(studentRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(StudentService.STREAM_CHUNK_SIZE)))
+            .thenReturn(firstChunk);
+        when(studentRepository.findByIdGreaterThanOrderByIdAsc(
+            (long) StudentService.STREAM_CHUNK_SIZE, Limit.of(StudentService.STREAM_CHUNK_SIZE)))
+            .thenReturn(Arrays.asList(last));
+
+        List<Student> result = studentService.streamAllStudents().toList();
+
+        assertEquals(StudentService.STREAM_CHUNK_SIZE + 1, result.size());
+        assertEquals(last.getId(), result.get(result.size() - 1).getId());
+        verify(studentRepository, times(2)).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
+    }
+
     // ===================== GET BY ID =====================
 
     @Test
@@ -76,7 +131,7 @@ class StudentServiceTest {
     void getStudentById_shouldThrowException_whenNotFound() {
         when(studentRepository.findById(99L)).thenReturn(Optional.empty());
 
-        RuntimeException ex = assertThrows(RuntimeException.class,
+        StudentNotFoundException ex = assertThrows(StudentNotFoundException.class,
             () -> studentService.getStudentById(99L));
 
         assertTrue(ex.getMessage().contains("99"));
@@ -86,7 +141,6 @@ class StudentServiceTest {
 
     @Test
     void createStudent_shouldCreateSuccessfully() {
-        when(studentRepository.existsByEmail("ahmed@email.com")).thenReturn(false);
         when(studentRepository.save(any(Student.class))).thenReturn(student1);
 
         Student result = studentService.createStudent(student1);
@@ -94,17 +148,39 @@ class StudentServiceTest {
         assertNotNull(result);
         assertEquals("Ahmed", result.getFirstName());
         verify(studentRepository, times(1)).save(student1);
+        verify(studentRepository, never()).existsByEmail(any());
     }
 
     @Test
     void createStudent_shouldThrowException_whenEmailExists() {
-        when(studentRepository.existsByEmail("ahmed@email.com")).thenReturn(true);
+        when(studentRepository.save(any(Student.class)))
+            .thenThrow(new DataIntegrityViolationException("UK_STUDENTS_EMAIL"));
 
-        RuntimeException ex = assertThrows(RuntimeException.class,
+        StudentConflictException ex = assertThrows(StudentConflictException.class,
             () -> studentService.createStudent(student1));
 
         assertTrue(ex.getMessage().toLowerCase().contains("email"));
-        verify(studentRepository, never()).save(any());
+        verify(searchIndex, never()).index(any());
+    }
+
+    @Test
+    void createStudent_shouldPropagateOtherIntegrityViolations() {
+        DataIntegrityViolationException notNull =
+            new DataIntegrityViolationException("NULL not allowed for column \"MAJOR\"");
+        when(studentRepository.save(any(Student.class))).thenThrow(notNull);
+
+        assertSame(notNull, assertThrows(DataIntegrityViolationException.class,
+            () -> studentService.createStudent(student1)));
+    }
+
+    @Test
+    void createStudent_shouldIgnoreClientId() {
+        Student withId = new Student(42L, "Ahmed", "Ben Ali", "ahmed@email.com", 21, "Informatique");
+        when(studentRepository.save(any(Student.class))).thenReturn(student1);
+
+        studentService.createStudent(withId);
+
+        verify(studentRepository).save(argThat(student -> student.getId() == null));
     }
 
     // ===================== UPDATE =====================
@@ -113,59 +189,80 @@ class StudentServiceTest {
     void updateStudent_shouldUpdateSuccessfully() {
         Student updated = new Student(1L, "Ahmed Updated", "Ben Ali", "ahmed@email.com", 25, "Physique");
 
-        when(studentRepository.findById(1L)).thenReturn(Optional.of(student1));
-        when(studentRepository.existsByEmailAndIdNot("ahmed@email.com", 1L)).thenReturn(false);
-        when(studentRepository.save(any(Student.class))).thenReturn(updated);
+        when(studentRepository.updateById(1L, "Ahmed Updated", "Ben Ali", "ahmed@email.com", 25, "Physique", null))
+            .thenReturn(Optional.of(previous(1L, "Informatique", 21)));
 
         Student result = studentService.updateStudent(1L, updated);
 
+        assertEquals(1L, result.getId());
         assertEquals("Ahmed Updated", result.getFirstName());
         assertEquals(25, result.getAge());
         assertEquals("Physique", result.getMajor());
-        verify(studentRepository, times(1)).save(any(Student.class));
+        verify(studentRepository, never()).findById(any());
+        verify(studentRepository, never()).save(any(Student.class));
+        assertEquals(1L, result.getVersion());
+        verify(statistics).changed("Informatique", 21, "Physique", 25);
+        verify(modificationTracker).updated(result);
     }
 
     @Test
     void updateStudent_shouldThrowException_whenEmailTakenByOther() {
         Student updated = new Student(1L, "Ahmed", "Ben Ali", "fatima@email.com", 21, "Informatique");
 
-        when(studentRepository.findById(1L)).thenReturn(Optional.of(student1));
-        when(studentRepository.existsByEmailAndIdNot("fatima@email.com", 1L)).thenReturn(true);
+        when(studentRepository.updateById(1L, "Ahmed", "Ben Ali", "fatima@email.com", 21, "Informatique", null))
+            .thenThrow(new DataIntegrityViolationException("UK_STUDENTS_EMAIL"));
 
-        RuntimeException ex = assertThrows(RuntimeException.class,
+        StudentConflictException ex = assertThrows(StudentConflictException.class,
             () -> studentService.updateStudent(1L, updated));
 
         assertTrue(ex.getMessage().toLowerCase().contains("email"));
-        verify(studentRepository, never()).save(any());
+        verify(searchIndex, never()).index(any());
     }
 
     @Test
     void updateStudent_shouldThrowException_whenStudentNotFound() {
-        when(studentRepository.findById(99L)).thenReturn(Optional.empty());
+        when(studentRepository.updateById(eq(99L), any(), any(), any(), any(), any(), isNull())).thenReturn(Optional.empty());
 
-        assertThrows(RuntimeException.class,
+        StudentNotFoundException ex = assertThrows(StudentNotFoundException.class,
             () -> studentService.updateStudent(99L, student1));
+
+        assertTrue(ex.getMessage().contains("99"));
+    }
+
+    @Test
+    void updateStudent_shouldThrowPreconditionFailed_whenVersionChanged() {
+        when(studentRepository.updateById(eq(1L), any(), any(), any(), any(), any(), eq(4L)))
+            .thenReturn(Optional.empty());
+        when(studentRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class,
+            () -> studentService.updateStudent(1L, student1, 4L));
+
+        verify(searchIndex, never()).index(any());
+        verify(modificationTracker, never()).updated(any());
     }
 
     // ===================== DELETE =====================
 
     @Test
     void deleteStudent_shouldDeleteSuccessfully() {
-        when(studentRepository.findById(1L)).thenReturn(Optional.of(student1));
-        doNothing().when(studentRepository).delete(student1);
+        when(studentRepository.deleteStudentById(1L, null)).thenReturn(Optional.of(previous(1L, "Informatique", 21)));
 
         assertDoesNotThrow(() -> studentService.deleteStudent(1L));
-        verify(studentRepository, times(1)).delete(student1);
+        verify(studentRepository, never()).findById(any());
+        verify(searchIndex).remove(1L);
+        verify(statistics).removed("Informatique", 21);
     }
 
     @Test
     void deleteStudent_shouldThrowException_whenNotFound() {
-        when(studentRepository.findById(99L)).thenReturn(Optional.empty());
+        when(studentRepository.deleteStudentById(99L, null)).thenReturn(Optional.empty());
 
-        assertThrows(RuntimeException.class,
+        assertThrows(StudentNotFoundException.class,
             () -> studentService.deleteStudent(99L));
 
-        verify(studentRepository, never()).delete(any());
+        verify(searchIndex, never()).remove(any());
+        verify(statistics, never()).removed(any(), any());
     }
 
     // ===================== SEARCH =====================
@@ -181,6 +278,27 @@ class StudentServiceTest {
         assertEquals("Ahmed", result.get(0).getFirstName());
     }
 
+    @Test
+    void searchStudents_shouldUseIndex_whenReady() {
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("ahmed", StudentService.DEFAULT_SEARCH_LIMIT)).thenReturn(Arrays.asList(student1));
+
+        List<Student> result = studentService.searchStudents("ahmed");
+
+        assertEquals(1, result.size());
+        verify(studentRepository, never())
+            .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(any(), any());
+    }
+
+    @Test
+    void createStudent_shouldIndexSavedStudent() {
+        when(studentRepository.save(any(Student.class))).thenReturn(student1);
+
+        studentService.createStudent(student1);
+
+        verify(searchIndex).index(student1);
+    }
+
     @Test
     void searchStudents_shouldReturnEmpty_whenNoMatch() {
         when(studentRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
@@ -0,0 +1,63 @@
+package com.example.students.service;
+
+import com.example.students.dto.StudentStats;
+import com.example.students.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StudentStatisticsTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    private static StudentRepository.MajorAgeCount row(String major, Integer age, long total) {
+        return new StudentRepository.MajorAgeCount() {
+            public String getMajor() { return major; }
+            public Integer getAge() { return age; }
+            public Long getTotal() { return total; }
+        };
+    }
+
+    @Test
+    void snapshot_shouldFollowIncrementalChanges() {
+        StudentStatistics statistics = new StudentStatistics(studentRepository);
+
+        statistics.added("Informatique", 20);
+        statistics.added("Informatique", 22);
+        statistics.added("Physique", 30);
+        statistics.changed("Physique", 30, "Informatique", 24);
+        statistics.removed("Informatique", 20);
+
+        StudentStats stats = statistics.snapshot();
+        assertEquals(2, stats.total());
+        assertEquals(23.0, stats.averageAge());
+        assertEquals(Map.of("Informatique", new StudentStats.MajorStats(2, 23.0)), stats.majors());
+        assertEquals(Map.of(22, 1L, 24, 1L), stats.ageHistogram());
+    }
+
+    @Test
+    void reconcile_shouldReplaceAggregatesWithGroupByResult() {
+        StudentStatistics statistics = new StudentStatistics(studentRepository);
+        statistics.added("Chimie", 40);
+        when(studentRepository.countByMajorAndAge()).thenReturn(List.of(
+            row("Informatique", 21, 3), row("Mathematiques", 22, 1)));
+
+        statistics.reconcile();
+
+        StudentStats stats = statistics.snapshot();
+        assertEquals(4, stats.total());
+        assertEquals(21.25, stats.averageAge());
+        assertFalse(stats.majors().containsKey("Chimie"));
+        assertEquals(3, stats.majors().get("Informatique").count());
+        assertEquals(Map.of(21, 3L, 22, 1L), stats.ageHistogram());
+    }
+}
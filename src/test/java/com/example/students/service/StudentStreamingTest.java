@@ -0,0 +1,82 @@
+package com.example.students.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StudentStreamingTest {
+
+    private static final long FIRST_ID = 1_000_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM students WHERE id >= ?", FIRST_ID);
+    }
+
+    // Export NDJSON de plusieurs lots : aucune session ne doit garder plus d'un lot d'entites gerees
+    // (open-session-in-view lierait un seul contexte de persistance a toute la requete)
+    @Test
+    void streamAllStudents_shouldNotAccumulateEntitiesInPersistenceContext() throws Exception {
+        int rows = StudentService.STREAM_CHUNK_SIZE * 2 + 100;
+        List<Object[]> batch = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[] {FIRST_ID + i, "Stream", "Etudiant" + i, "stream" + i + "@example.com", 20, "Maths"});
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO students (id, first_name, last_name, email, age, major) VALUES (?, ?, ?, ?, ?, ?)", batch);
+
+        AtomicInteger maxManaged = new AtomicInteger();
+        AtomicInteger loaded = new AtomicInteger();
+        PostLoadEventListener listener = event -> {
+            loaded.incrementAndGet();
+            maxManaged.accumulateAndGet(
+                event.getSession().getPersistenceContextInternal().getNumberOfManagedEntities(), Math::max);
+        };
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+            .requireService(EventListenerRegistry.class).appendListeners(EventType.POST_LOAD, listener);
+
+        MvcResult started = mockMvc.perform(get("/api/students").accept("application/x-ndjson"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students", Long.class);
+        assertEquals(total, body.lines().count());
+        assertTrue(loaded.get() >= rows);
+        assertTrue(maxManaged.get() <= StudentService.STREAM_CHUNK_SIZE, "entites gerees : " + maxManaged.get());
+    }
+}